@@ -0,0 +1,70 @@
+package com.bi_service.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Average time per call across series lengths; a linear engine shows time growing 10x per 10x length.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="TimeSeriesAnalyticsBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeSeriesAnalyticsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int length;
+
+    private double[] series;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        series = new double[length];
+        for (int i = 0; i < length; i++) {
+            series[i] = 100 + i * 0.01 + 10 * Math.sin(i * 2 * Math.PI / 7) + random.nextGaussian();
+        }
+    }
+
+    @Benchmark
+    public double[] simpleMovingAverage() {
+        return TimeSeriesAnalytics.simpleMovingAverage(series, 30);
+    }
+
+    @Benchmark
+    public double[] exponentialMovingAverage() {
+        return TimeSeriesAnalytics.exponentialMovingAverage(series, 0.3);
+    }
+
+    @Benchmark
+    public double[] linearTrendForecast() {
+        return TimeSeriesAnalytics.linearTrendForecast(series, 12);
+    }
+
+    @Benchmark
+    public double[] holtWintersForecast() {
+        return TimeSeriesAnalytics.holtWintersForecast(series, 7, 0.5, 0.3, 0.3, 12);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TimeSeriesAnalyticsBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.bi_service.benchmark;
+
+import com.bi_service.aggregation.ScorecardAggregates;
+import com.bi_service.service.BIAggregationFacade;
+import com.bi_service.snapshot.EntitySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The scorecard, sector-analysis and correlation paths of BIService over one synthetic snapshot,
+// end to end and stage by stage. The KPI, ranking and action-item stages reuse aggregates
+// computed in setup, so they time only their own work.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BIAggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int entities;
+
+    @Param({"12", "200"})
+    private int sectors;
+
+    @Param({"0", "1.2"})
+    private double regionSkew;
+
+    private final BIAggregationFacade facade = new BIAggregationFacade();
+    private EntitySnapshot snapshot;
+    private ScorecardAggregates aggregates;
+
+    @Setup
+    public void setUp() {
+        snapshot = new SyntheticEntities(entities, sectors, 12, regionSkew, 1).snapshot();
+        aggregates = facade.scorecardAggregates(snapshot);
+    }
+
+    @Benchmark
+    public ScorecardAggregates scorecardAggregates() {
+        return facade.scorecardAggregates(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> basicKpis() {
+        return facade.basicKpis(snapshot, aggregates);
+    }
+
+    @Benchmark
+    public Map<String, Object> basicRankings() {
+        return facade.basicRankings(snapshot, aggregates);
+    }
+
+    @Benchmark
+    public Map<String, Object> basicActionItems() {
+        return facade.basicActionItems(snapshot, aggregates);
+    }
+
+    @Benchmark
+    public Map<String, Object> scorecard() {
+        return facade.scorecard(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> sectorAnalysis() {
+        return facade.sectorAnalysis(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> businessCorrelations() {
+        return facade.businessCorrelations(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> sectorCorrelations() {
+        return facade.sectorCorrelations(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> geographicCorrelations() {
+        return facade.geographicCorrelations(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> riskCorrelations() {
+        return facade.riskCorrelations(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> correlationMatrix() {
+        return facade.correlationMatrix(snapshot);
+    }
+}
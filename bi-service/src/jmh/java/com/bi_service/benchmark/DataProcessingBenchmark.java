@@ -0,0 +1,72 @@
+package com.bi_service.benchmark;
+
+import com.bi_service.service.DataProcessingService;
+import com.bi_service.snapshot.EntitySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataProcessingBenchmark {
+
+    @Param({"10000", "100000"})
+    private int entities;
+
+    @Param({"12", "200"})
+    private int sectors;
+
+    @Param({"monthly", "daily"})
+    private String interval;
+
+    private final DataProcessingService service = new DataProcessingService();
+    private EntitySnapshot snapshot;
+    private List<Map<String, Object>> entityRows;
+    private List<Map<String, Object>> sectorRows;
+    private List<Map<String, Object>> timeSeriesRows;
+
+    @Setup
+    public void setUp() {
+        SyntheticEntities data = new SyntheticEntities(entities, sectors, 12, 1.0, 1);
+        snapshot = data.snapshot();
+        entityRows = data.entityRows();
+        sectorRows = data.sectorRows();
+        timeSeriesRows = data.timeSeriesRows();
+    }
+
+    @Benchmark
+    public Map<String, Object> processEntityData() {
+        return service.processEntityData(entityRows);
+    }
+
+    @Benchmark
+    public Map<String, Object> processEntityDataFromSnapshot() {
+        return service.processEntityData(snapshot);
+    }
+
+    @Benchmark
+    public Map<String, Object> processSectorData() {
+        return service.processSectorData(sectorRows);
+    }
+
+    @Benchmark
+    public Map<String, Object> processTimeSeriesData() {
+        return service.processTimeSeriesData(timeSeriesRows, interval);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bi_service.benchmark;
+
+import com.bi_service.feign.dto.EntiteRecord;
+import com.bi_service.snapshot.EntitePayloadDecoder;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotBuilder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Snapshot construction from an /api/entites body: the List<Map> tree the service used to
+// materialize against EntitePayloadDecoder's record-at-a-time parse. Compare the
+// gc.alloc.rate.norm lines of the default -prof gc output for bytes allocated per decode.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntitePayloadDecodeBenchmark {
+
+    @Param({"20000", "200000"})
+    private int entities;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EntitePayloadDecoder decoder = new EntitePayloadDecoder(objectMapper);
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = payload(entities);
+    }
+
+    @Benchmark
+    public EntitySnapshot mapTree() throws IOException {
+        List<Map<String, Object>> rows = objectMapper.readValue(payload, new TypeReference<>() {});
+        SnapshotBuilder builder = new SnapshotBuilder(rows.size());
+        rows.forEach(row -> builder.addEntity(objectMapper.convertValue(row, EntiteRecord.class)));
+        return builder.build();
+    }
+
+    @Benchmark
+    public EntitySnapshot streaming() throws IOException {
+        return decoder.decodeInto(new ByteArrayInputStream(payload), new SnapshotBuilder()).build();
+    }
+
+    // Entities shaped like EntiteFullDTO: top-level fields plus populated child sections
+    private static byte[] payload(int count) {
+        StringBuilder json = new StringBuilder(count * 2048).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i)
+                .append(",\"libelle\":\"Entreprise ").append(i).append('"')
+                .append(",\"description\":\"Description longue de l'entreprise numero ").append(i).append('"')
+                .append(",\"createdAt\":\"2024-0").append(1 + i % 9).append("-1").append(i % 10).append("T10:15:30\"")
+                .append(",\"typeEntrepriseId\":").append(i % 7)
+                .append(",\"type\":\"type-").append(i % 4).append('"')
+                .append(",\"risk\":").append(i % 6)
+                .append(",\"region\":\"Region ").append(i % 12).append('"')
+                .append(",\"slug\":\"entreprise-").append(i).append('"')
+                .append(",\"metaTitle\":\"Meta title ").append(i).append('"')
+                .append(",\"entiteBusiness\":");
+            if (i % 5 == 0) {
+                json.append("null");
+            } else {
+                json.append("{\"id\":").append(i)
+                    .append(",\"risk\":").append(i % 5)
+                    .append(",\"dateCreation\":\"").append(1980 + i % 40).append("-01-01\"")
+                    .append(",\"secteur\":\"Secteur ").append(i % 25).append('"')
+                    .append(",\"sousSecteur\":\"Sous secteur ").append(i % 80).append('"')
+                    .append(",\"formeJuridique\":\"SARL\"")
+                    .append(",\"presentation\":\"Presentation detaillee de l'activite ").append(i).append('"')
+                    .append(",\"activite\":\"Activite ").append(i).append('"')
+                    .append(",\"capital\":\"").append(10000 * (i % 50)).append('"')
+                    .append(",\"effectif\":\"").append(i % 300).append("\"}");
+            }
+            json.append(",\"entiteContact\":{\"id\":").append(i)
+                .append(",\"email\":\"contact").append(i).append("@example.com\"")
+                .append(",\"telephone\":\"+212600").append(i).append('"')
+                .append(",\"adresse\":\"").append(i).append(" rue principale\"}")
+                .append(",\"entiteProducts\":").append(i % 3 == 0 ? "null" : "{\"id\":" + i + ",\"produits\":\"Produits " + i + "\"}")
+                .append(",\"entiteMedia\":{\"id\":").append(i).append(",\"image1\":\"/uploads/").append(i).append(".jpg\"}")
+                .append(",\"entiteLocation\":{\"id\":").append(i).append(",\"commune\":\"Commune ").append(i % 40).append("\"}")
+                .append(",\"entiteAdditional\":{\"id\":").append(i).append(",\"keywords\":\"mot cle ").append(i).append("\"}")
+                .append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package com.bi_service.benchmark;
+
+import com.bi_service.util.RunningStats;
+import com.bi_service.util.StatisticsUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Every StatisticsUtils method, List<Double> and primitive overloads side by side
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsUtilsBenchmark {
+
+    @Param({"1000", "100000"})
+    private int length;
+
+    private double[] x;
+    private double[] y;
+    private List<Double> xList;
+    private List<Double> yList;
+    private DoubleBuffer direct;
+    private RunningStats stats;
+
+    @Setup
+    public void setUp() {
+        x = new SyntheticEntities(length, 1, 1, 0, 1).series();
+        y = new SyntheticEntities(length, 1, 1, 0, 2).series();
+        xList = new ArrayList<>(length);
+        yList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            xList.add(x[i]);
+            yList.add(y[i]);
+        }
+        direct = ByteBuffer.allocateDirect(length * Double.BYTES).asDoubleBuffer().put(x).flip();
+        stats = StatisticsUtils.summarize(x);
+    }
+
+    @Benchmark
+    public double meanOfList() {
+        return StatisticsUtils.calculateMean(xList);
+    }
+
+    @Benchmark
+    public double meanOfArray() {
+        return StatisticsUtils.calculateMean(x);
+    }
+
+    @Benchmark
+    public double medianOfList() {
+        return StatisticsUtils.calculateMedian(xList);
+    }
+
+    @Benchmark
+    public double medianOfArray() {
+        return StatisticsUtils.calculateMedian(x);
+    }
+
+    @Benchmark
+    public double standardDeviationOfList() {
+        return StatisticsUtils.calculateStandardDeviation(xList);
+    }
+
+    @Benchmark
+    public double standardDeviationOfArray() {
+        return StatisticsUtils.calculateStandardDeviation(x);
+    }
+
+    @Benchmark
+    public double growthRateOfList() {
+        return StatisticsUtils.calculateGrowthRate(xList);
+    }
+
+    @Benchmark
+    public double growthRateOfStats() {
+        return StatisticsUtils.calculateGrowthRate(stats);
+    }
+
+    @Benchmark
+    public RunningStats summarizeArray() {
+        return StatisticsUtils.summarize(x);
+    }
+
+    @Benchmark
+    public RunningStats summarizeDirectBuffer() {
+        return StatisticsUtils.summarize(direct.duplicate());
+    }
+
+    @Benchmark
+    public Map<String, Double> movingAverage() {
+        return StatisticsUtils.calculateMovingAverage(xList, 7);
+    }
+
+    @Benchmark
+    public double correlationOfLists() {
+        return StatisticsUtils.calculateCorrelation(xList, yList);
+    }
+
+    @Benchmark
+    public double correlationOfArrays() {
+        return StatisticsUtils.calculateCorrelation(x, y);
+    }
+}
@@ -0,0 +1,134 @@
+package com.bi_service.benchmark;
+
+import com.bi_service.feign.dto.EntiteBusinessRecord;
+import com.bi_service.feign.dto.EntiteRecord;
+import com.bi_service.feign.dto.SectionMarker;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Deterministic entity data for the benchmarks. Sectors are drawn uniformly from sectorCount
+// names; regions follow a Zipf law with exponent regionSkew (0 is uniform, 1.5 puts most rows in
+// the first few regions). createdAt is spread over the last five years.
+public final class SyntheticEntities {
+
+    private static final String[] TYPES = {"PME", "TPE", "GE", "Startup", "Coopérative"};
+    private static final String[] FORMES = {"SARL", "SA", "SAS", "SNC", "Auto-entrepreneur"};
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter SPACED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long SPAN_SECONDS = 5L * 365 * 86_400;
+
+    private final int count;
+    private final int sectorCount;
+    private final double[] regionWeights;
+    private final long seed;
+    private final long now = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    public SyntheticEntities(int count, int sectorCount, int regionCount, double regionSkew, long seed) {
+        this.count = count;
+        this.sectorCount = sectorCount;
+        this.seed = seed;
+        // cumulative Zipf weights, sampled by binary search
+        this.regionWeights = new double[regionCount];
+        double total = 0;
+        for (int rank = 0; rank < regionCount; rank++) {
+            total += 1 / Math.pow(rank + 1, regionSkew);
+            regionWeights[rank] = total;
+        }
+        for (int rank = 0; rank < regionCount; rank++) {
+            regionWeights[rank] /= total;
+        }
+    }
+
+    public EntitySnapshot snapshot() {
+        Random random = new Random(seed);
+        SnapshotBuilder builder = new SnapshotBuilder(count);
+        for (int i = 0; i < count; i++) {
+            EntiteBusinessRecord business = random.nextInt(5) == 0 ? null : new EntiteBusinessRecord(
+                random.nextInt(6), random.nextInt(40), 1990 + random.nextInt(34) + "-06-01", sector(random),
+                "Sous-secteur " + random.nextInt(sectorCount * 3), FORMES[random.nextInt(FORMES.length)],
+                String.valueOf(1 + random.nextInt(500)), String.valueOf(10_000 + random.nextInt(5_000_000)),
+                random.nextInt(3) == 0 ? null : (1 + random.nextInt(900)) + " M");
+            builder.addEntity(new EntiteRecord((long) i + 1, TYPES[random.nextInt(TYPES.length)], region(random),
+                random.nextInt(8) == 0 ? null : random.nextInt(7), (long) random.nextInt(TYPES.length),
+                ISO.format(createdAt(random)), business,
+                random.nextBoolean() ? new SectionMarker() : null, random.nextInt(3) == 0 ? new SectionMarker() : null));
+        }
+        List<Map<String, Object>> produits = new ArrayList<>(count / 2);
+        for (int i = 0; i < count / 2; i++) {
+            produits.add(Map.of("createdAt", ISO.format(createdAt(random))));
+        }
+        return builder.produits(produits).build();
+    }
+
+    // Rows shaped like DataProcessingService.processEntityData input: type and a numeric value
+    public List<Map<String, Object>> entityRows() {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("type", TYPES[random.nextInt(TYPES.length)]);
+            row.put("value", Math.exp(10 + 2 * random.nextGaussian()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Rows shaped like processSectorData input: sector and a numeric value
+    public List<Map<String, Object>> sectorRows() {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("sector", sector(random));
+            row.put("value", Math.exp(10 + 2 * random.nextGaussian()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Rows shaped like processTimeSeriesData input: "yyyy-MM-dd HH:mm:ss" date and a numeric value
+    public List<Map<String, Object>> timeSeriesRows() {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("date", SPACED.format(createdAt(random)));
+            row.put("value", 100 + 10 * random.nextGaussian());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Values for the StatisticsUtils benchmarks: a noisy upward trend
+    public double[] series() {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 100 + i * 0.01 + 10 * random.nextGaussian();
+        }
+        return values;
+    }
+
+    private String sector(Random random) {
+        return "Secteur " + random.nextInt(sectorCount);
+    }
+
+    private String region(Random random) {
+        int rank = Arrays.binarySearch(regionWeights, random.nextDouble());
+        return "Région " + (rank >= 0 ? rank : Math.min(-rank - 1, regionWeights.length - 1));
+    }
+
+    private LocalDateTime createdAt(Random random) {
+        return LocalDateTime.ofEpochSecond(now - (long) (random.nextDouble() * SPAN_SECONDS), 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bi_service.service;
+
+import com.bi_service.aggregation.ScorecardAggregates;
+import com.bi_service.aggregation.ScorecardKernel;
+import com.bi_service.aggregation.SectorGrowthKernel;
+import com.bi_service.analytics.ForecastEngine;
+import com.bi_service.cube.CubeStore;
+import com.bi_service.rollup.TimeSeriesRollupStore;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.trace.TraceLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+// Exposes BIService's snapshot aggregation stages to the benchmarks, wired without Spring or any
+// downstream client. Token-based entry points are out of reach on purpose: only the work done on
+// an already loaded snapshot is measured.
+public final class BIAggregationFacade {
+
+    private final ScorecardKernel scorecardKernel = new ScorecardKernel();
+    private final BIService service = new BIService(null, new DataProcessingService(), scorecardKernel,
+        new SectorGrowthKernel(), new TimeSeriesRollupStore(), new ForecastEngine(), null, new CubeStore(),
+        new TraceLog(new ObjectMapper(), 0, Long.MAX_VALUE));
+
+    public ScorecardAggregates scorecardAggregates(EntitySnapshot snapshot) {
+        return scorecardKernel.aggregate(snapshot);
+    }
+
+    public Map<String, Object> basicKpis(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
+        return service.calculateBasicKPIs(snapshot, aggregates);
+    }
+
+    public Map<String, Object> basicRankings(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
+        return service.generateBasicRankings(snapshot, aggregates);
+    }
+
+    public Map<String, Object> basicActionItems(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
+        return service.generateBasicActionItems(snapshot, aggregates);
+    }
+
+    public Map<String, Object> scorecard(EntitySnapshot snapshot) {
+        return service.getBusinessScorecard(snapshot);
+    }
+
+    public Map<String, Object> sectorAnalysis(EntitySnapshot snapshot) {
+        return service.getSectorAnalysis(snapshot);
+    }
+
+    public Map<String, Object> businessCorrelations(EntitySnapshot snapshot) {
+        return service.analyzeBusinessCorrelations(snapshot);
+    }
+
+    public Map<String, Object> sectorCorrelations(EntitySnapshot snapshot) {
+        return service.analyzeSectorCorrelations(snapshot);
+    }
+
+    public Map<String, Object> geographicCorrelations(EntitySnapshot snapshot) {
+        return service.analyzeGeographicCorrelations(snapshot);
+    }
+
+    public Map<String, Object> riskCorrelations(EntitySnapshot snapshot) {
+        return service.analyzeRiskCorrelations(snapshot);
+    }
+
+    public Map<String, Object> correlationMatrix(EntitySnapshot snapshot) {
+        return service.getCorrelationMatrix(snapshot);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+
+// Every counter, sum and group-by the business scorecard needs, filled in one traversal of the
+// snapshot. Sector and region group-bys are indexed by dictionary code; distinct sets are the
+// codes with a non-zero count. Partial aggregates from parallel chunks are merged with combine().
+public final class ScorecardAggregates {
+
+    long totalEntities;
+    long withBusiness;
+    long withContact;
+    long withProducts;
+    long riskLow;
+    long riskMedium;
+    long riskHigh;
+    double riskSum;
+    final long[] sectorCounts;
+    final long[] regionCounts;
+
+    ScorecardAggregates(int sectorCardinality, int regionCardinality) {
+        this.sectorCounts = new long[sectorCardinality];
+        this.regionCounts = new long[regionCardinality];
+    }
+
+    void accumulate(EntitySnapshot snapshot, int from, int to) {
+        for (int row = from; row < to; row++) {
+            totalEntities++;
+            if (snapshot.hasBusiness(row)) {
+                withBusiness++;
+                int sector = snapshot.secteur(row);
+                if (sector != Dictionary.MISSING) sectorCounts[sector]++;
+            }
+            if (snapshot.hasContact(row)) withContact++;
+            if (snapshot.hasProducts(row)) withProducts++;
+
+            int region = snapshot.region(row);
+            if (region != Dictionary.MISSING) regionCounts[region]++;
+
+            int risk = snapshot.risk(row);
+            if (risk != EntitySnapshot.NO_VALUE) {
+                riskSum += risk;
+                if (risk <= 2) riskLow++;
+                else if (risk <= 4) riskMedium++;
+                else riskHigh++;
+            }
+        }
+    }
+
+    ScorecardAggregates combine(ScorecardAggregates other) {
+        totalEntities += other.totalEntities;
+        withBusiness += other.withBusiness;
+        withContact += other.withContact;
+        withProducts += other.withProducts;
+        riskLow += other.riskLow;
+        riskMedium += other.riskMedium;
+        riskHigh += other.riskHigh;
+        riskSum += other.riskSum;
+        for (int i = 0; i < sectorCounts.length; i++) sectorCounts[i] += other.sectorCounts[i];
+        for (int i = 0; i < regionCounts.length; i++) regionCounts[i] += other.regionCounts[i];
+        return this;
+    }
+
+    public long getTotalEntities() {
+        return totalEntities;
+    }
+
+    public long getWithBusiness() {
+        return withBusiness;
+    }
+
+    public long getWithContact() {
+        return withContact;
+    }
+
+    public long getWithProducts() {
+        return withProducts;
+    }
+
+    public long getRiskLow() {
+        return riskLow;
+    }
+
+    public long getRiskMedium() {
+        return riskMedium;
+    }
+
+    public long getRiskHigh() {
+        return riskHigh;
+    }
+
+    // Sum of Entite.risk; entities without a risk contribute nothing
+    public double getRiskSum() {
+        return riskSum;
+    }
+
+    // Entities with business data per secteur code
+    public long sectorCount(int code) {
+        return sectorCounts[code];
+    }
+
+    public long regionCount(int code) {
+        return regionCounts[code];
+    }
+}
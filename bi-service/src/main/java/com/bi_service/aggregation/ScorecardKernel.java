@@ -0,0 +1,72 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.snapshot.EntitySnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Computes ScorecardAggregates in a single pass. Snapshots at or above the parallel threshold
+// are split into chunks on the common fork-join pool, each chunk filling its own aggregates
+// before they are combined pairwise.
+@Component
+public class ScorecardKernel {
+
+    @Value("${bi.scorecard.parallel-threshold:100000}")
+    private int parallelThreshold = 100_000;
+
+    @Value("${bi.scorecard.chunk-size:16384}")
+    private int chunkSize = 16_384;
+
+    public ScorecardAggregates aggregate(EntitySnapshot snapshot) {
+        if (snapshot.size() >= parallelThreshold) {
+            return aggregateParallel(snapshot);
+        }
+        return aggregateSequential(snapshot);
+    }
+
+    public ScorecardAggregates aggregateSequential(EntitySnapshot snapshot) {
+        ScorecardAggregates aggregates = newAggregates(snapshot);
+        aggregates.accumulate(snapshot, 0, snapshot.size());
+        return aggregates;
+    }
+
+    public ScorecardAggregates aggregateParallel(EntitySnapshot snapshot) {
+        return ForkJoinPool.commonPool().invoke(new ChunkTask(snapshot, 0, snapshot.size(), Math.max(1, chunkSize)));
+    }
+
+    private static ScorecardAggregates newAggregates(EntitySnapshot snapshot) {
+        return new ScorecardAggregates(snapshot.secteurs().size(), snapshot.regions().size());
+    }
+
+    private static final class ChunkTask extends RecursiveTask<ScorecardAggregates> {
+
+        private final EntitySnapshot snapshot;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkTask(EntitySnapshot snapshot, int from, int to, int chunkSize) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected ScorecardAggregates compute() {
+            if (to - from <= chunkSize) {
+                ScorecardAggregates aggregates = newAggregates(snapshot);
+                aggregates.accumulate(snapshot, from, to);
+                return aggregates;
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(snapshot, from, middle, chunkSize);
+            ChunkTask right = new ChunkTask(snapshot, middle, to, chunkSize);
+            left.fork();
+            ScorecardAggregates rightResult = right.compute();
+            return left.join().combine(rightResult);
+        }
+    }
+}
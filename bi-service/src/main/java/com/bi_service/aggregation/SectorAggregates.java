@@ -0,0 +1,80 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.cube.BitmapIndex;
+import com.bi_service.cube.CubeDimension;
+import org.roaringbitmap.RoaringBitmap;
+
+// Secteur and sous-secteur counts for entities with business data, plus how many of them were
+// created inside each growth window. Recent counts are indexed [window][dictionary code].
+public final class SectorAggregates {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final int[] windowDays;
+    private final long[] secteurCounts;
+    private final long[] sousSecteurCounts;
+    private final long[][] secteurRecent;
+    private final long[][] sousSecteurRecent;
+
+    private SectorAggregates(int[] windowDays, int secteurCardinality, int sousSecteurCardinality) {
+        this.windowDays = windowDays;
+        this.secteurCounts = new long[secteurCardinality];
+        this.sousSecteurCounts = new long[sousSecteurCardinality];
+        this.secteurRecent = new long[windowDays.length][secteurCardinality];
+        this.sousSecteurRecent = new long[windowDays.length][sousSecteurCardinality];
+    }
+
+    // Counts come from bitmap cardinalities: entities with business data ANDed with each value's
+    // rows and, for the growth windows, with the rows created after the window's cutoff
+    static SectorAggregates compute(BitmapIndex index, long nowEpochSeconds, int[] windowDays) {
+        SectorAggregates aggregates = new SectorAggregates(windowDays.clone(),
+            index.cardinality(CubeDimension.SECTEUR), index.cardinality(CubeDimension.SOUS_SECTEUR));
+        RoaringBitmap withBusiness = index.withBusiness();
+        RoaringBitmap[] recent = new RoaringBitmap[windowDays.length];
+        for (int w = 0; w < windowDays.length; w++) {
+            long cutoff = nowEpochSeconds - windowDays[w] * SECONDS_PER_DAY;
+            recent[w] = RoaringBitmap.and(withBusiness, index.createdAfter(cutoff));
+        }
+
+        count(index, CubeDimension.SECTEUR, withBusiness, recent, aggregates.secteurCounts, aggregates.secteurRecent);
+        count(index, CubeDimension.SOUS_SECTEUR, withBusiness, recent, aggregates.sousSecteurCounts,
+            aggregates.sousSecteurRecent);
+        return aggregates;
+    }
+
+    private static void count(BitmapIndex index, CubeDimension dimension, RoaringBitmap withBusiness,
+                              RoaringBitmap[] recent, long[] counts, long[][] recentCounts) {
+        for (int code = 0; code < counts.length; code++) {
+            RoaringBitmap rows = index.rows(dimension, code);
+            counts[code] = RoaringBitmap.andCardinality(withBusiness, rows);
+            for (int w = 0; w < recent.length; w++) {
+                recentCounts[w][code] = RoaringBitmap.andCardinality(recent[w], rows);
+            }
+        }
+    }
+
+    public int[] windowDays() {
+        return windowDays.clone();
+    }
+
+    public long secteurCount(int code) {
+        return secteurCounts[code];
+    }
+
+    public long sousSecteurCount(int code) {
+        return sousSecteurCounts[code];
+    }
+
+    // Share of the secteur's entities created within the window, as a percentage
+    public double secteurGrowth(int window, int code) {
+        return growth(secteurRecent[window][code], secteurCounts[code]);
+    }
+
+    public double sousSecteurGrowth(int window, int code) {
+        return growth(sousSecteurRecent[window][code], sousSecteurCounts[code]);
+    }
+
+    private static double growth(long recent, long total) {
+        return total > 0 ? (double) recent / total * 100 : 0.0;
+    }
+}
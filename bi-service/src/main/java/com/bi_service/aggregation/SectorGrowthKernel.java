@@ -0,0 +1,26 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.cube.BitmapIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Secteur and sous-secteur counts with every configured growth window, read from the cube's
+// bitmap index instead of scanning the snapshot.
+@Component
+public class SectorGrowthKernel {
+
+    @Value("${bi.sector.growth-windows-days:7,30,90}")
+    private int[] growthWindowDays = {7, 30, 90};
+
+    public SectorAggregates aggregate(BitmapIndex index) {
+        // createdAt holds local wall-clock time stored as UTC, so "now" is read the same way
+        return aggregate(index, LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public SectorAggregates aggregate(BitmapIndex index, long nowEpochSeconds) {
+        return SectorAggregates.compute(index, nowEpochSeconds, growthWindowDays);
+    }
+}
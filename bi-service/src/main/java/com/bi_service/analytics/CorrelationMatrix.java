@@ -0,0 +1,240 @@
+package com.bi_service.analytics;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pearson and Spearman correlations between every pair of columns, with NaN marking a missing
+// value. Each pair uses the rows where both columns are present. Rows are walked in blocks so a
+// block of every column stays in cache while all pairs are updated from it, and each pair keeps
+// Welford-style co-moments so large magnitudes (capital, chiffreAffaire) do not lose precision.
+// Spearman ranks both columns of a pair over the rows they share (ties get their average rank)
+// and applies the same Pearson pass to the ranks; pairs sharing the same rows are ranked together.
+public final class CorrelationMatrix {
+
+    private static final int BLOCK_ROWS = 2048;
+
+    private final List<String> fields;
+    private final double[][] pearson;
+    private final double[][] spearman;
+    private final long[][] pairCounts;
+
+    private CorrelationMatrix(List<String> fields, double[][] pearson, double[][] spearman, long[][] pairCounts) {
+        this.fields = fields;
+        this.pearson = pearson;
+        this.spearman = spearman;
+        this.pairCounts = pairCounts;
+    }
+
+    public static CorrelationMatrix compute(List<String> fields, double[][] columns) {
+        if (fields.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + fields.size() + " columns, got " + columns.length);
+        }
+        long[][] pairCounts = new long[columns.length][columns.length];
+        double[][] pearson = pearson(columns, pairCounts);
+        double[][] spearman = spearman(columns);
+        return new CorrelationMatrix(List.copyOf(fields), pearson, spearman, pairCounts);
+    }
+
+    public List<String> fields() {
+        return fields;
+    }
+
+    // NaN when the pair has fewer than two rows or one side is constant
+    public double pearson(int i, int j) {
+        return pearson[i][j];
+    }
+
+    public double spearman(int i, int j) {
+        return spearman[i][j];
+    }
+
+    public long pairCount(int i, int j) {
+        return pairCounts[i][j];
+    }
+
+    // Rows of the matrix for JSON responses, with undefined coefficients as null
+    public List<List<Double>> pearsonRows() {
+        return rows(pearson);
+    }
+
+    public List<List<Double>> spearmanRows() {
+        return rows(spearman);
+    }
+
+    public List<List<Long>> pairCountRows() {
+        List<List<Long>> rows = new ArrayList<>(pairCounts.length);
+        for (long[] row : pairCounts) {
+            List<Long> values = new ArrayList<>(row.length);
+            for (long count : row) values.add(count);
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    static double[][] pearson(double[][] columns, long[][] pairCounts) {
+        int width = columns.length;
+        int rows = width > 0 ? columns[0].length : 0;
+        // Per-pair running state, flattened to index i * width + j for i <= j
+        long[] n = new long[width * width];
+        double[] meanX = new double[width * width];
+        double[] meanY = new double[width * width];
+        double[] m2x = new double[width * width];
+        double[] m2y = new double[width * width];
+        double[] cxy = new double[width * width];
+
+        for (int blockStart = 0; blockStart < rows; blockStart += BLOCK_ROWS) {
+            int blockEnd = Math.min(rows, blockStart + BLOCK_ROWS);
+            for (int i = 0; i < width; i++) {
+                double[] x = columns[i];
+                for (int j = i; j < width; j++) {
+                    double[] y = columns[j];
+                    int pair = i * width + j;
+                    long count = n[pair];
+                    double mx = meanX[pair], my = meanY[pair];
+                    double sx = m2x[pair], sy = m2y[pair], sxy = cxy[pair];
+                    for (int row = blockStart; row < blockEnd; row++) {
+                        double xv = x[row];
+                        double yv = y[row];
+                        if (Double.isNaN(xv) || Double.isNaN(yv)) {
+                            continue;
+                        }
+                        count++;
+                        double dx = xv - mx;
+                        mx += dx / count;
+                        double dy = yv - my;
+                        my += dy / count;
+                        sx += dx * (xv - mx);
+                        sy += dy * (yv - my);
+                        sxy += dx * (yv - my);
+                    }
+                    n[pair] = count;
+                    meanX[pair] = mx;
+                    meanY[pair] = my;
+                    m2x[pair] = sx;
+                    m2y[pair] = sy;
+                    cxy[pair] = sxy;
+                }
+            }
+        }
+
+        double[][] matrix = new double[width][width];
+        for (int i = 0; i < width; i++) {
+            for (int j = i; j < width; j++) {
+                int pair = i * width + j;
+                double denominator = Math.sqrt(m2x[pair] * m2y[pair]);
+                double r = n[pair] < 2 || denominator == 0 ? Double.NaN : Math.max(-1, Math.min(1, cxy[pair] / denominator));
+                matrix[i][j] = r;
+                matrix[j][i] = r;
+                pairCounts[i][j] = n[pair];
+                pairCounts[j][i] = n[pair];
+            }
+        }
+        return matrix;
+    }
+
+    // Ranks taken over a whole column are not a linear function of the ranks over the rows a pair
+    // shares, so each group of pairs with the same shared rows is compacted and ranked on its own
+    static double[][] spearman(double[][] columns) {
+        int width = columns.length;
+        RoaringBitmap[] present = new RoaringBitmap[width];
+        for (int c = 0; c < width; c++) {
+            present[c] = new RoaringBitmap();
+            for (int row = 0; row < columns[c].length; row++) {
+                if (!Double.isNaN(columns[c][row])) present[c].add(row);
+            }
+        }
+        Map<RoaringBitmap, List<int[]>> pairsByRows = new LinkedHashMap<>();
+        for (int i = 0; i < width; i++) {
+            for (int j = i; j < width; j++) {
+                RoaringBitmap shared = i == j ? present[i] : RoaringBitmap.and(present[i], present[j]);
+                pairsByRows.computeIfAbsent(shared, key -> new ArrayList<>()).add(new int[]{i, j});
+            }
+        }
+
+        double[][] matrix = new double[width][width];
+        for (Map.Entry<RoaringBitmap, List<int[]>> group : pairsByRows.entrySet()) {
+            int[] rows = group.getKey().toArray();
+            // Slot of each column in this group's ranked block, -1 when no pair uses it
+            int[] slot = new int[width];
+            Arrays.fill(slot, -1);
+            List<double[]> ranked = new ArrayList<>();
+            for (int[] pair : group.getValue()) {
+                for (int c : pair) {
+                    if (slot[c] < 0) {
+                        slot[c] = ranked.size();
+                        double[] values = new double[rows.length];
+                        for (int k = 0; k < rows.length; k++) values[k] = columns[c][rows[k]];
+                        ranked.add(ranks(values));
+                    }
+                }
+            }
+            double[][] r = pearson(ranked.toArray(new double[0][]), new long[ranked.size()][ranked.size()]);
+            for (int[] pair : group.getValue()) {
+                double value = r[slot[pair[0]]][slot[pair[1]]];
+                matrix[pair[0]][pair[1]] = value;
+                matrix[pair[1]][pair[0]] = value;
+            }
+        }
+        return matrix;
+    }
+
+    // 1-based ranks of the present values, ties averaged; missing values stay NaN
+    static double[] ranks(double[] column) {
+        int present = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) present++;
+        }
+        double[] sorted = new double[present];
+        int k = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) sorted[k++] = value;
+        }
+        Arrays.sort(sorted);
+
+        double[] ranks = new double[column.length];
+        for (int row = 0; row < column.length; row++) {
+            double value = column[row];
+            if (Double.isNaN(value)) {
+                ranks[row] = Double.NaN;
+                continue;
+            }
+            int first = firstIndexNotBelow(sorted, value);
+            int last = firstIndexAbove(sorted, value) - 1;
+            ranks[row] = (first + last) / 2.0 + 1;
+        }
+        return ranks;
+    }
+
+    private static int firstIndexNotBelow(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int firstIndexAbove(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static List<List<Double>> rows(double[][] matrix) {
+        List<List<Double>> rows = new ArrayList<>(matrix.length);
+        for (double[] row : matrix) {
+            List<Double> values = new ArrayList<>(row.length);
+            for (double value : row) values.add(Double.isNaN(value) ? null : value);
+            rows.add(values);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bi_service.analytics;
+
+import com.bi_service.rollup.Granularity;
+import com.bi_service.rollup.RollupSlice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Turns a rollup slice into the movingAverages and forecasts sections of the time-series
+// responses. Empty buckets inside the slice count as zeros so the series stays evenly spaced.
+@Component
+public class ForecastEngine {
+
+    @Value("${bi.forecast.moving-average-window:7}")
+    private int movingAverageWindow = 7;
+
+    @Value("${bi.forecast.ema-alpha:0.3}")
+    private double emaAlpha = 0.3;
+
+    @Value("${bi.forecast.alpha:0.5}")
+    private double alpha = 0.5;
+
+    @Value("${bi.forecast.beta:0.3}")
+    private double beta = 0.3;
+
+    @Value("${bi.forecast.gamma:0.3}")
+    private double gamma = 0.3;
+
+    @Value("${bi.forecast.horizon:12}")
+    private int horizon = 12;
+
+    public Map<String, Object> movingAverages(RollupSlice slice) {
+        double[] series = toSeries(slice);
+        Map<String, Object> movingAverages = new HashMap<>();
+        movingAverages.put("window", movingAverageWindow);
+        movingAverages.put("sma", points(slice, 0, TimeSeriesAnalytics.simpleMovingAverage(series, movingAverageWindow)));
+        movingAverages.put("ema", points(slice, 0, TimeSeriesAnalytics.exponentialMovingAverage(series, emaAlpha)));
+        return movingAverages;
+    }
+
+    public Map<String, Object> forecasts(RollupSlice slice) {
+        double[] series = toSeries(slice);
+        Map<String, Object> forecasts = new HashMap<>();
+        forecasts.put("horizon", horizon);
+        if (series.length == 0) {
+            forecasts.put("linearTrend", List.of());
+            forecasts.put("holtWinters", List.of());
+            return forecasts;
+        }
+        int seasonLength = seasonLength(slice.granularity());
+        forecasts.put("seasonLength", seasonLength);
+        forecasts.put("linearTrend", points(slice, series.length,
+            TimeSeriesAnalytics.linearTrendForecast(series, horizon)));
+        forecasts.put("holtWinters", points(slice, series.length,
+            TimeSeriesAnalytics.holtWintersForecast(series, seasonLength, alpha, beta, gamma, horizon)));
+        return forecasts;
+    }
+
+    static int seasonLength(Granularity granularity) {
+        return switch (granularity) {
+            case DAILY -> 7;
+            case WEEKLY -> 52;
+            case MONTHLY -> 12;
+            case QUARTERLY -> 4;
+        };
+    }
+
+    private static double[] toSeries(RollupSlice slice) {
+        double[] series = new double[slice.length()];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = slice.count(i);
+        }
+        return series;
+    }
+
+    // Labels values with the bucket dates they belong to, starting offset buckets after the slice start
+    private static List<Map<String, Object>> points(RollupSlice slice, int offset, double[] values) {
+        List<Map<String, Object>> points = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", slice.granularity().label(slice.firstBucket() + offset + i));
+            point.put("value", values[i]);
+            points.add(point);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,130 @@
+package com.bi_service.analytics;
+
+// Smoothing and forecasting over evenly spaced series held in double[]. Every method makes a
+// single pass over its input (plus the forecast horizon) and allocates only its result array.
+public final class TimeSeriesAnalytics {
+
+    private TimeSeriesAnalytics() {
+    }
+
+    // Trailing simple moving average; the first window - 1 points average over the values available so far
+    public static double[] simpleMovingAverage(double[] series, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        double[] averages = new double[series.length];
+        double sum = 0.0;
+        for (int i = 0; i < series.length; i++) {
+            sum += series[i];
+            if (i >= window) {
+                sum -= series[i - window];
+            }
+            averages[i] = sum / Math.min(i + 1, window);
+        }
+        return averages;
+    }
+
+    // Exponential moving average seeded with the first value
+    public static double[] exponentialMovingAverage(double[] series, double alpha) {
+        checkSmoothing("alpha", alpha);
+        double[] averages = new double[series.length];
+        if (series.length == 0) {
+            return averages;
+        }
+        averages[0] = series[0];
+        for (int i = 1; i < series.length; i++) {
+            averages[i] = alpha * series[i] + (1 - alpha) * averages[i - 1];
+        }
+        return averages;
+    }
+
+    // Least-squares line through (i, series[i]) extended over the next horizon points
+    public static double[] linearTrendForecast(double[] series, int horizon) {
+        double[] forecast = new double[horizon];
+        int n = series.length;
+        if (n == 0) {
+            return forecast;
+        }
+        double sumX = 0.0, sumY = 0.0, sumXY = 0.0, sumX2 = 0.0;
+        for (int i = 0; i < n; i++) {
+            sumX += i;
+            sumY += series[i];
+            sumXY += i * series[i];
+            sumX2 += (double) i * i;
+        }
+        double denominator = n * sumX2 - sumX * sumX;
+        double slope = denominator == 0 ? 0.0 : (n * sumXY - sumX * sumY) / denominator;
+        double intercept = (sumY - slope * sumX) / n;
+        for (int h = 0; h < horizon; h++) {
+            forecast[h] = intercept + slope * (n + h);
+        }
+        return forecast;
+    }
+
+    // Additive Holt-Winters. Series shorter than two full seasons have no usable seasonal estimate
+    // and are forecast with Holt's linear trend method (gamma unused) instead.
+    public static double[] holtWintersForecast(double[] series, int seasonLength, double alpha, double beta,
+                                               double gamma, int horizon) {
+        checkSmoothing("alpha", alpha);
+        checkSmoothing("beta", beta);
+        checkSmoothing("gamma", gamma);
+        double[] forecast = new double[horizon];
+        int n = series.length;
+        if (n == 0) {
+            return forecast;
+        }
+        if (seasonLength < 2 || n < 2 * seasonLength) {
+            return holtLinearForecast(series, alpha, beta, horizon);
+        }
+
+        // Initial level and trend from the first two seasons, seasonal indices from the first one
+        double firstMean = 0.0, secondMean = 0.0;
+        for (int i = 0; i < seasonLength; i++) {
+            firstMean += series[i];
+            secondMean += series[seasonLength + i];
+        }
+        firstMean /= seasonLength;
+        secondMean /= seasonLength;
+        double trend = (secondMean - firstMean) / seasonLength;
+        double center = (seasonLength - 1) / 2.0;
+        double level = firstMean + trend * center;
+        double[] seasonal = new double[seasonLength];
+        for (int i = 0; i < seasonLength; i++) {
+            // Detrended, so a steady slope inside the first season is not mistaken for seasonality
+            seasonal[i] = series[i] - (firstMean + trend * (i - center));
+        }
+
+        for (int i = seasonLength; i < n; i++) {
+            int s = i % seasonLength;
+            double previousLevel = level;
+            level = alpha * (series[i] - seasonal[s]) + (1 - alpha) * (previousLevel + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            seasonal[s] = gamma * (series[i] - level) + (1 - gamma) * seasonal[s];
+        }
+        for (int h = 0; h < horizon; h++) {
+            forecast[h] = level + (h + 1) * trend + seasonal[(n + h) % seasonLength];
+        }
+        return forecast;
+    }
+
+    private static double[] holtLinearForecast(double[] series, double alpha, double beta, int horizon) {
+        double[] forecast = new double[horizon];
+        double level = series[0];
+        double trend = series.length > 1 ? series[1] - series[0] : 0.0;
+        for (int i = 1; i < series.length; i++) {
+            double previousLevel = level;
+            level = alpha * series[i] + (1 - alpha) * (previousLevel + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        for (int h = 0; h < horizon; h++) {
+            forecast[h] = level + (h + 1) * trend;
+        }
+        return forecast;
+    }
+
+    private static void checkSmoothing(String name, double value) {
+        if (!(value > 0.0 && value <= 1.0)) {
+            throw new IllegalArgumentException(name + " must be in (0, 1]: " + value);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.bi_service.cache;
+
+// Published when a source service (entite-service, produit-service, parametrage-service) reports a write
+public record DataChangedEvent(String source, String entity) {
+}
@@ -0,0 +1,160 @@
+package com.bi_service.cache;
+
+import com.bi_service.snapshot.SnapshotRebuiltEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Bounded cache of BI responses keyed by endpoint, parameters and caller role. Caffeine evicts
+// by size (W-TinyLFU) and drops entries max-stale after they were loaded. Entries older than the
+// TTL are still served, while one background reload per key replaces them. A DataChangedEvent
+// empties the cache. Callers whose token does not verify are rejected rather than served uncached.
+@Slf4j
+@Component
+public class ResponseCache {
+
+    public enum Status { HIT, STALE, MISS }
+
+    public record Lookup<T>(T value, Status status) {
+    }
+
+    record Key(String endpoint, List<Object> parameters, String role) {
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final TokenRoleResolver roleResolver;
+    private final ExecutorService fetchExecutor;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped on every invalidation so loads that started before it are not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMs;
+    private final Counter staleServed;
+    private final Timer refreshTimer;
+
+    public ResponseCache(TokenRoleResolver roleResolver,
+                         ExecutorService fetchExecutor,
+                         MeterRegistry meterRegistry,
+                         @Value("${bi.cache.maximum-size:1000}") long maximumSize,
+                         @Value("${bi.cache.ttl-ms:60000}") long ttlMs,
+                         @Value("${bi.cache.max-stale-ms:600000}") long maxStaleMs) {
+        this.roleResolver = roleResolver;
+        this.fetchExecutor = fetchExecutor;
+        this.ttlMs = ttlMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(Math.max(ttlMs, maxStaleMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bi.responses");
+        this.staleServed = Counter.builder("bi.responses.stale")
+                .description("Responses served past their TTL while a reload ran")
+                .register(meterRegistry);
+        this.refreshTimer = Timer.builder("bi.responses.refresh")
+                .description("Background reloads of stale responses")
+                .register(meterRegistry);
+    }
+
+    public <T> Lookup<T> get(String endpoint, List<Object> parameters, String authorization, Supplier<T> loader) {
+        String role = roleResolver.role(authorization).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        Key key = new Key(endpoint, parameters, role);
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.loadedAt() > ttlMs) {
+                staleServed.increment();
+                refreshInBackground(key, loader);
+                return new Lookup<>(cast(entry.value()), Status.STALE);
+            }
+            return new Lookup<>(cast(entry.value()), Status.HIT);
+        }
+        // Concurrent misses on one key wait for a single load
+        long loadGeneration = generation.get();
+        Entry loaded = cache.get(key, k -> new Entry(loader.get(), System.currentTimeMillis()));
+        if (generation.get() != loadGeneration) {
+            cache.invalidate(key);
+        }
+        return new Lookup<>(cast(loaded.value()), Status.MISS);
+    }
+
+    // Runs after SnapshotService has marked its snapshot stale, so reloads see fresh data
+    @Order(2)
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        generation.incrementAndGet();
+        log.info("Invalidating {} cached BI responses after a write reported by {} ({})",
+                cache.estimatedSize(), event.source(), event.entity());
+        cache.invalidateAll();
+    }
+
+    // Responses computed from a partial snapshot are dropped once the complete one is in
+    @EventListener
+    public void onSnapshotRebuilt(SnapshotRebuiltEvent event) {
+        if (event.replacedPartial()) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Object> describe() {
+        var stats = cache.stats();
+        return Map.of(
+                "size", cache.estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "evictions", stats.evictionCount(),
+                "averageLoadMs", stats.averageLoadPenalty() / 1_000_000.0,
+                "staleServed", (long) staleServed.count());
+    }
+
+    private <T> void refreshInBackground(Key key, Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        long refreshGeneration = generation.get();
+        try {
+            fetchExecutor.execute(() -> {
+                try {
+                    T value = refreshTimer.record(loader);
+                    if (generation.get() == refreshGeneration) {
+                        cache.put(key, new Entry(value, System.currentTimeMillis()));
+                    }
+                } catch (Exception e) {
+                    log.warn("Background reload of {} failed, keeping the stale response: {}", key.endpoint(), e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+}
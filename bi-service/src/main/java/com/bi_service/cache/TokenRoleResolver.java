@@ -0,0 +1,41 @@
+package com.bi_service.cache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// Reads the "role" claim of a verified JWT, so cached responses are shared per role and never
+// handed to a caller whose token does not check out
+@Component
+public class TokenRoleResolver {
+
+    private final SecretKey key;
+
+    public TokenRoleResolver(@Value("${jwt.secret}") String secret) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Optional<String> role(String authorization) {
+        if (authorization == null) {
+            return Optional.empty();
+        }
+        String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            return Optional.ofNullable(claims.get("role", String.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
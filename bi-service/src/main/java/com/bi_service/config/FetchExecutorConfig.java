@@ -0,0 +1,62 @@
+package com.bi_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class FetchExecutorConfig {
+
+    @Value("${bi.fetch.pool-size:8}")
+    private int poolSize;
+
+    @Value("${bi.fetch.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${bi.request.pool-size:16}")
+    private int requestPoolSize;
+
+    @Value("${bi.request.queue-capacity:200}")
+    private int requestQueueCapacity;
+
+    // Bounded pool for Feign fan-out; when saturated the caller runs the call itself
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fetchExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bi-fetch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Runs BI request handlers off the servlet threads. Unlike the fetch pool it rejects work
+    // when full, so a backlog turns into 503s instead of piling up behind slow downstream calls.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            requestPoolSize, requestPoolSize, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(requestQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bi-request-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
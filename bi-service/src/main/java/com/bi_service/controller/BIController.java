@@ -1,14 +1,58 @@
 package com.bi_service.controller;
 
+import com.bi_service.cache.DataChangedEvent;
+import com.bi_service.cache.ResponseCache;
+import com.bi_service.cache.TokenRoleResolver;
+import com.bi_service.dto.request.ChangeNotificationRequest;
+import com.bi_service.dto.request.CubeQueryRequest;
 import com.bi_service.dto.request.TimeframeRequest;
 import com.bi_service.dto.response.AggregatedMetricsResponse;
+import com.bi_service.export.ExportDataset;
+import com.bi_service.export.ExportFormat;
+import com.bi_service.export.ExportService;
+import com.bi_service.export.ExportTable;
+import com.bi_service.fetch.Deadline;
+import com.bi_service.fetch.DeadlineExceededException;
+import com.bi_service.precompute.ReportDiff;
+import com.bi_service.precompute.ReportPipeline;
+import com.bi_service.precompute.ReportStore;
+import com.bi_service.precompute.ReportType;
+import com.bi_service.precompute.ReportVersion;
+import com.bi_service.rollup.Granularity;
 import com.bi_service.service.BIService;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotService;
+import com.bi_service.trace.RequestTrace;
+import com.bi_service.trace.TraceLog;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/bi")
@@ -16,61 +60,380 @@ import java.util.Map;
 public class BIController {
 
     private final BIService biService;
+    private final SnapshotService snapshotService;
+    private final ResponseCache responseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportStore reportStore;
+    private final ReportPipeline reportPipeline;
+    private final ExecutorService requestExecutor;
+    private final TraceLog traceLog;
+    private final ExportService exportService;
+    private final TokenRoleResolver roleResolver;
+
+    // Time budget of a request that sends no X-BI-Deadline-Ms header, and the cap on the header
+    @Value("${bi.request.deadline-ms:8000}")
+    private long defaultDeadlineMs;
+
+    @Value("${bi.request.max-deadline-ms:25000}")
+    private long maxDeadlineMs;
+
+    // X-BI-Debug: true logs the request's stage timings and payloads regardless of level and sampling
+    @Value("${bi.log.request-debug-enabled:true}")
+    private boolean requestDebugEnabled;
+
+    // Longest an export may stream before the async request times out
+    @Value("${bi.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
+
+    @Value("${bi.security.roles:ADMIN,USER}")
+    private Set<String> allowedRoles;
+
+    // Shared with the source services for /changes; blank rejects every change notification
+    @Value("${bi.changes.key:}")
+    private String changeKey;
+
+    private static final String DEADLINE_HEADER = "X-BI-Deadline-Ms";
+    private static final String DEBUG_HEADER = "X-BI-Debug";
+    private static final String CHANGE_KEY_HEADER = "X-BI-Change-Key";
 
     @PostMapping("/aggregate")
-    public ResponseEntity<AggregatedMetricsResponse> aggregate(
+    public CompletableFuture<ResponseEntity<AggregatedMetricsResponse>> aggregate(
             @RequestHeader("Authorization") String token,
-            @RequestBody TimeframeRequest request) {
-        return ResponseEntity.ok(biService.getAggregatedMetrics(token, request));
+            @RequestBody TimeframeRequest request,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        authorize(token);
+        return async(deadlineMs, deadline -> ResponseEntity.ok(biService.getAggregatedMetrics(token, request, deadline)));
     }
 
     @GetMapping("/timeseries")
-    public ResponseEntity<Map<String, Object>> timeseries(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> timeseries(
             @RequestHeader("Authorization") String token,
             @RequestParam String metric,
             @RequestParam String interval,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
-            @RequestParam(defaultValue = "false") boolean includeForecast) {
+            @RequestParam(defaultValue = "false") boolean includeForecast,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        authorize(token);
         // You may need to build a request object from params if your service expects it
-        return ResponseEntity.ok(biService.getTimeSeriesAnalysis(token, metric, interval, startDate, endDate, includeForecast));
+        return async(deadlineMs, deadline -> ResponseEntity.ok(
+                biService.getTimeSeriesAnalysis(token, metric, interval, startDate, endDate, includeForecast, deadline)));
     }
 
     @GetMapping("/entity-analytics")
-    public ResponseEntity<Map<String, Object>> getEntityAnalytics(
-            @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(biService.getEntityAnalytics(token));
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getEntityAnalytics(
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        authorize(token);
+        return async(deadlineMs, deadline ->
+                cached("entity-analytics", List.of(), token, () -> biService.getEntityAnalytics(token, deadline)));
     }
 
     @GetMapping("/sector-analysis")
-    public ResponseEntity<Map<String, Object>> getSectorAnalysis(
-            @RequestHeader("Authorization") String token) {
-        System.out.println("=== SECTOR ANALYSIS REQUEST ===");
-        Map<String, Object> analysis = biService.getSectorAnalysis(token);
-        try {
-            System.out.println("Sector Analysis Response: " + new ObjectMapper().writeValueAsString(analysis));
-        } catch (Exception e) {
-            System.out.println("Error serializing sector analysis: " + e.getMessage());
-        }
-        return ResponseEntity.ok(analysis);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getSectorAnalysis(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        return report(token, ReportType.SECTOR_ANALYSIS, version, deadlineMs,
+                deadline -> cached("sector-analysis", List.of(), token, () -> biService.getSectorAnalysis(token, deadline)));
     }
 
     @GetMapping("/timeseries/products")
-    public ResponseEntity<Map<String, Object>> getProductTimeSeries(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getProductTimeSeries(
             @RequestHeader("Authorization") String token,
-            @RequestParam(defaultValue = "monthly") String interval) {
-        return ResponseEntity.ok(biService.getProductTimeSeries(token, interval));
+            @RequestParam(defaultValue = "monthly") String interval,
+            @RequestParam(defaultValue = "false") boolean includeForecast,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        authorize(token);
+        return async(deadlineMs, deadline ->
+                ResponseEntity.ok(biService.getProductTimeSeries(token, interval, includeForecast, deadline)));
     }
 
     @GetMapping("/correlations/business")
-    public ResponseEntity<Map<String, Object>> getBusinessCorrelations(
-            @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(biService.getBusinessCorrelations(token));
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getBusinessCorrelations(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        return report(token, ReportType.BUSINESS_CORRELATIONS, version, deadlineMs,
+                deadline -> ResponseEntity.ok(biService.getBusinessCorrelations(token, deadline)));
+    }
+
+    @GetMapping("/correlations/matrix")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getCorrelationMatrix(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        return report(token, ReportType.CORRELATION_MATRIX, version, deadlineMs,
+                deadline -> ResponseEntity.ok(biService.getCorrelationMatrix(token, deadline)));
+    }
+
+    @PostMapping("/cube")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> queryCube(
+            @RequestHeader("Authorization") String token,
+            @RequestBody CubeQueryRequest request,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        authorize(token);
+        return async(deadlineMs, deadline -> ResponseEntity.ok(biService.queryCube(token, request, deadline)));
     }
 
     @GetMapping("/scorecard")
-    public ResponseEntity<Map<String, Object>> getBusinessScorecard(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getBusinessScorecard(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs) {
+        return report(token, ReportType.SCORECARD, version, deadlineMs,
+                deadline -> cached("scorecard", List.of(), token, () -> biService.getBusinessScorecard(token, deadline)));
+    }
+
+    // Streams a dataset (entities, distributions or timeseries) as CSV or the columnar format.
+    // Gzip follows Accept-Encoding unless the gzip parameter says otherwise; the deadline only
+    // bounds the wait for the snapshot, not the transfer.
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "monthly") String interval,
+            @RequestParam(required = false) Boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineMs,
+            HttpServletRequest request) {
+        authorize(token);
+        ExportDataset exportDataset;
+        ExportFormat exportFormat;
+        try {
+            exportDataset = ExportDataset.from(dataset);
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!exportService.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress");
+        }
+        try {
+            ExportTable table = exportService.table(exportDataset, Granularity.from(interval), deadline(deadlineMs));
+            boolean compressed = gzip != null ? gzip : acceptEncoding != null && acceptEncoding.contains("gzip");
+            WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + exportDataset.key() + "." + exportFormat.extension() + "\"")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .header("X-BI-Export-Rows", String.valueOf(table.rows()));
+            if (compressed) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(exportService.stream(table, exportFormat, compressed));
+        } catch (DeadlineExceededException e) {
+            exportService.release();
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage());
+        } catch (RuntimeException e) {
+            exportService.release();
+            throw e;
+        }
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshotStatus(@RequestHeader("Authorization") String token) {
+        authorize(token);
+        return ResponseEntity.ok(describe(snapshotService.peek()));
+    }
+
+    @PostMapping("/snapshot/refresh")
+    public ResponseEntity<Map<String, Object>> refreshSnapshot(
             @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(biService.getBusinessScorecard(token));
+        authorize(token);
+        return ResponseEntity.ok(describe(snapshotService.refresh()));
+    }
+
+    // Write hook for entite-service, produit-service and parametrage-service: drops cached
+    // responses and marks the snapshot stale. Only callers holding bi.changes.key may use it.
+    @PostMapping("/changes")
+    public ResponseEntity<Void> reportChange(
+            @RequestHeader(value = CHANGE_KEY_HEADER, required = false) String changeKey,
+            @RequestBody ChangeNotificationRequest request) {
+        if (!isChangeKey(changeKey)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid " + CHANGE_KEY_HEADER);
+        }
+        eventPublisher.publishEvent(new DataChangedEvent(request.getSource(), request.getEntity()));
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStatus(@RequestHeader("Authorization") String token) {
+        authorize(token);
+        return ResponseEntity.ok(responseCache.describe());
+    }
+
+    @GetMapping("/reports")
+    public ResponseEntity<Map<String, Object>> getReports(@RequestHeader("Authorization") String token) {
+        authorize(token);
+        Map<String, Object> reports = new LinkedHashMap<>();
+        for (ReportType report : ReportType.values()) {
+            reports.put(report.key(), reportStore.current(report).map(ReportVersion::describe).orElse(null));
+        }
+        return ResponseEntity.ok(reports);
+    }
+
+    @GetMapping("/reports/{report}/versions")
+    public ResponseEntity<List<Map<String, Object>>> getReportVersions(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String report) {
+        authorize(token);
+        return ResponseEntity.ok(reportStore.versions(reportType(report)).stream()
+                .map(ReportVersion::describe)
+                .toList());
+    }
+
+    // "to" defaults to the version currently served
+    @GetMapping("/reports/{report}/diff")
+    public ResponseEntity<Map<String, Object>> getReportDiff(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String report,
+            @RequestParam long from,
+            @RequestParam(required = false) Long to) {
+        authorize(token);
+        ReportType type = reportType(report);
+        ReportVersion older = storedVersion(type, from);
+        ReportVersion newer = to != null ? storedVersion(type, to) : reportStore.current(type)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No version of " + report + " yet"));
+        return ResponseEntity.ok(ReportDiff.between(older, newer));
+    }
+
+    @PostMapping("/reports/recompute")
+    public ResponseEntity<Void> recomputeReports(@RequestHeader("Authorization") String token) {
+        authorize(token);
+        reportPipeline.trigger("request");
+        return ResponseEntity.accepted().build();
+    }
+
+    private ResponseEntity<Map<String, Object>> cached(String endpoint, List<Object> parameters, String token,
+                                                       Supplier<Map<String, Object>> loader) {
+        ResponseCache.Lookup<Map<String, Object>> lookup = responseCache.get(endpoint, parameters, token, loader);
+        return ResponseEntity.ok()
+                .header("X-BI-Cache", lookup.status().name())
+                .body(lookup.value());
+    }
+
+    // Serves the precomputed report, or a specific stored version; computes live only before
+    // the pipeline has published anything. Reports are built from the service-token snapshot, so
+    // every allowed role gets the same content and versions are not keyed by role.
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> report(
+            String token, ReportType report, Long version, Long deadlineMs,
+            Function<Deadline, ResponseEntity<Map<String, Object>>> live) {
+        authorize(token);
+        if (version != null) {
+            return CompletableFuture.completedFuture(served(storedVersion(report, version)));
+        }
+        return reportStore.current(report)
+                .map(current -> CompletableFuture.completedFuture(served(current)))
+                .orElseGet(() -> async(deadlineMs, live));
+    }
+
+    // Runs the handler on the request pool, leaving the servlet thread free, and answers 504 with
+    // the late sections named if the handler has not finished when the deadline expires. The
+    // handler runs under a RequestTrace whose stage timings come back in a Server-Timing header.
+    private <T> CompletableFuture<ResponseEntity<T>> async(Long deadlineMs, Function<Deadline, ResponseEntity<T>> handler) {
+        Deadline deadline = deadline(deadlineMs);
+        RequestTrace trace = startTrace();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                        try (RequestTrace.Scope scope = trace.bind()) {
+                            return handler.apply(deadline);
+                        }
+                    }, requestExecutor)
+                    .orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(failure -> deadlineExceeded(deadline, failure))
+                    .thenApply(response -> traced(response, trace));
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many BI requests in progress");
+        }
+    }
+
+    // Snapshot-derived data is only served to callers whose JWT verifies and carries an allowed role
+    private String authorize(String token) {
+        String role = roleResolver.role(token).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        if (!allowedRoles.contains(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Role " + role + " may not read BI data");
+        }
+        return role;
+    }
+
+    private boolean isChangeKey(String presented) {
+        return changeKey != null && !changeKey.isBlank() && presented != null
+                && MessageDigest.isEqual(changeKey.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Deadline deadline(Long deadlineMs) {
+        return Deadline.after(deadlineMs != null ? Math.min(deadlineMs, maxDeadlineMs) : defaultDeadlineMs);
+    }
+
+    private RequestTrace startTrace() {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        boolean debug = requestDebugEnabled && Boolean.parseBoolean(request.getHeader(DEBUG_HEADER));
+        return new RequestTrace(request.getMethod() + " " + request.getRequestURI(), debug);
+    }
+
+    private <T> ResponseEntity<T> traced(ResponseEntity<T> response, RequestTrace trace) {
+        traceLog.completed(trace, response.getStatusCode().value());
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header("Server-Timing", trace.serverTiming())
+                .header("X-BI-Request-Id", trace.getRequestId())
+                .body(response.getBody());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> deadlineExceeded(Deadline deadline, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (!Deadline.isTimeout(cause)) {
+            throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", cause instanceof DeadlineExceededException ? cause.getMessage()
+                : "No answer within " + deadline.budgetMillis() + " ms");
+        body.put("timedOutSections", cause instanceof DeadlineExceededException exceeded
+                ? exceeded.getTimedOutSections() : List.of("snapshot"));
+        body.put("deadlineMs", deadline.budgetMillis());
+        return (ResponseEntity<T>) ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(body);
+    }
+
+    private ResponseEntity<Map<String, Object>> served(ReportVersion version) {
+        Map<String, Object> body = new LinkedHashMap<>(version.body());
+        body.put("snapshotAgeMs", System.currentTimeMillis() - version.snapshotBuiltAt());
+        return ResponseEntity.ok()
+                .header("X-BI-Report-Version", String.valueOf(version.version()))
+                .header("X-BI-Report-Computed-At", String.valueOf(version.computedAt()))
+                .body(body);
+    }
+
+    private ReportVersion storedVersion(ReportType report, long version) {
+        return reportStore.version(report, version).orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND, "Version " + version + " of " + report.key() + " is not retained"));
+    }
+
+    private static ReportType reportType(String key) {
+        try {
+            return ReportType.from(key);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> describe(EntitySnapshot snapshot) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("loaded", snapshot != null);
+        if (snapshot != null) {
+            status.put("builtAt", snapshot.getBuiltAt());
+            status.put("snapshotAgeMs", snapshot.ageMillis());
+            status.put("buildTimeMs", snapshot.getBuildTimeMs());
+            status.put("fetchTimings", snapshot.getFetchTimings());
+            status.put("entities", snapshot.size());
+            status.put("products", snapshot.productCount());
+        }
+        status.put("coldStart", snapshotService.startupReport());
+        return status;
     }
 }
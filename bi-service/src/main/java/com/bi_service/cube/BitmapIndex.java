@@ -0,0 +1,129 @@
+package com.bi_service.cube;
+
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+import org.roaringbitmap.RangeBitmap;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.nio.IntBuffer;
+import java.util.function.IntPredicate;
+
+// Compressed row bitmaps over one snapshot: one per dimension value (plus one for rows where the
+// dimension is missing), one per entity flag, and a range index on createdAt. A conjunction of
+// filters is a bitmap AND and its size a cardinality, so counts never read the entity rows.
+public final class BitmapIndex {
+
+    private final int size;
+    private final RoaringBitmap[][] values = new RoaringBitmap[CubeDimension.values().length][];
+    private final RoaringBitmap[] missing = new RoaringBitmap[CubeDimension.values().length];
+    private final RoaringBitmap all;
+    private final RoaringBitmap withBusiness;
+    private final RoaringBitmap withContact;
+    private final RoaringBitmap withProducts;
+
+    // createdAt is stored as an offset from the earliest timestamp; rows without one get noTimestamp
+    private final RangeBitmap createdAt;
+    private final long createdAtOrigin;
+    private final long noTimestamp;
+
+    BitmapIndex(EntitySnapshot snapshot) {
+        this.size = snapshot.size();
+        this.all = RoaringBitmap.bitmapOfRange(0, size);
+        this.withBusiness = rowsWhere(snapshot::hasBusiness);
+        this.withContact = rowsWhere(snapshot::hasContact);
+        this.withProducts = rowsWhere(snapshot::hasProducts);
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            long timestamp = snapshot.createdAt(row);
+            if (timestamp != EntitySnapshot.NO_TIMESTAMP) {
+                first = Math.min(first, timestamp);
+                last = Math.max(last, timestamp);
+            }
+        }
+        this.createdAtOrigin = first == Long.MAX_VALUE ? 0 : first;
+        this.noTimestamp = first == Long.MAX_VALUE ? 0 : last - first + 1;
+        RangeBitmap.Appender appender = RangeBitmap.appender(noTimestamp);
+        for (int row = 0; row < size; row++) {
+            long timestamp = snapshot.createdAt(row);
+            appender.add(timestamp == EntitySnapshot.NO_TIMESTAMP ? noTimestamp : timestamp - createdAtOrigin);
+        }
+        this.createdAt = appender.build();
+    }
+
+    void addDimension(CubeDimension dimension, IntBuffer codes, int cardinality) {
+        RoaringBitmap[] rows = new RoaringBitmap[cardinality];
+        for (int code = 0; code < cardinality; code++) {
+            rows[code] = new RoaringBitmap();
+        }
+        RoaringBitmap none = new RoaringBitmap();
+        for (int row = 0; row < size; row++) {
+            int code = codes.get(row);
+            if (code == Dictionary.MISSING) none.add(row);
+            else rows[code].add(row);
+        }
+        for (RoaringBitmap bitmap : rows) {
+            bitmap.runOptimize();
+        }
+        none.runOptimize();
+        values[dimension.ordinal()] = rows;
+        missing[dimension.ordinal()] = none;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Rows holding the given code; Dictionary.MISSING selects the rows without a value
+    public RoaringBitmap rows(CubeDimension dimension, int code) {
+        return code == Dictionary.MISSING ? missing[dimension.ordinal()] : values[dimension.ordinal()][code];
+    }
+
+    public int cardinality(CubeDimension dimension) {
+        return values[dimension.ordinal()].length;
+    }
+
+    public RoaringBitmap all() {
+        return all;
+    }
+
+    public RoaringBitmap withBusiness() {
+        return withBusiness;
+    }
+
+    public RoaringBitmap withContact() {
+        return withContact;
+    }
+
+    public RoaringBitmap withProducts() {
+        return withProducts;
+    }
+
+    // Rows created within [fromEpochSecond, toEpochSecond], both inclusive; rows without createdAt never match
+    public RoaringBitmap createdBetween(long fromEpochSecond, long toEpochSecond) {
+        long from = Math.max(0, offset(fromEpochSecond));
+        long to = Math.min(noTimestamp - 1, offset(toEpochSecond));
+        return from > to ? new RoaringBitmap() : createdAt.between(from, to);
+    }
+
+    public RoaringBitmap createdAfter(long epochSecond) {
+        return epochSecond == Long.MAX_VALUE ? new RoaringBitmap() : createdBetween(epochSecond + 1, Long.MAX_VALUE);
+    }
+
+    private long offset(long epochSecond) {
+        // saturate instead of overflowing for open-ended bounds
+        if (epochSecond <= createdAtOrigin) return epochSecond == createdAtOrigin ? 0 : -1;
+        long offset = epochSecond - createdAtOrigin;
+        return offset < 0 ? Long.MAX_VALUE : offset;
+    }
+
+    private RoaringBitmap rowsWhere(IntPredicate predicate) {
+        RoaringBitmap rows = new RoaringBitmap();
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(row)) rows.add(row);
+        }
+        rows.runOptimize();
+        return rows;
+    }
+}
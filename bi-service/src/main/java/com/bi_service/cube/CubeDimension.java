@@ -0,0 +1,33 @@
+package com.bi_service.cube;
+
+import java.util.Locale;
+
+// Dimensions a cube query can filter and group on; key is the name used in requests and responses
+public enum CubeDimension {
+    SECTEUR("secteur"),
+    SOUS_SECTEUR("sousSecteur"),
+    REGION("region"),
+    FORME_JURIDIQUE("formeJuridique"),
+    TYPE_ENTREPRISE("typeEntrepriseId"),
+    TYPE("type"),
+    CREATED_MONTH("createdMonth");
+
+    private final String key;
+
+    CubeDimension(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static CubeDimension from(String key) {
+        for (CubeDimension dimension : values()) {
+            if (dimension.key.equalsIgnoreCase(key) || dimension.name().equals(key.toUpperCase(Locale.ROOT))) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cube dimension: " + key);
+    }
+}
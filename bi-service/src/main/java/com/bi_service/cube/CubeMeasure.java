@@ -0,0 +1,31 @@
+package com.bi_service.cube;
+
+// Numeric columns a cube query can aggregate. Missing values are stored as NaN and skipped.
+public enum CubeMeasure {
+    RISK("risk"),
+    BUSINESS_RISK("businessRisk"),
+    COMPANY_AGE("companyAge"),
+    TOME("tome"),
+    EFFECTIF("effectif"),
+    CAPITAL("capital"),
+    CHIFFRE_AFFAIRE("chiffreAffaire");
+
+    private final String key;
+
+    CubeMeasure(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static CubeMeasure from(String key) {
+        for (CubeMeasure measure : values()) {
+            if (measure.key.equalsIgnoreCase(key)) {
+                return measure;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cube measure: " + key);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bi_service.cube;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Values of one filtered dimension are ORed, filters on different dimensions are ANDed.
+// Every result group reports its row count; measures add aggregates such as "avg:capital".
+public record CubeQuery(Map<CubeDimension, Set<String>> filters, List<CubeDimension> groupBy,
+                        List<Measure> measures, int limit) {
+
+    public static final int DEFAULT_LIMIT = 1000;
+
+    public enum Aggregation { COUNT, SUM, AVG, MIN, MAX }
+
+    // COUNT counts the rows of the group where the measure is present
+    public record Measure(Aggregation aggregation, CubeMeasure column) {
+
+        public String label() {
+            return aggregation.name().toLowerCase(Locale.ROOT) + ":" + column.key();
+        }
+
+        static Measure parse(String spec) {
+            int separator = spec.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Measure must look like avg:capital, got: " + spec);
+            }
+            Aggregation aggregation;
+            try {
+                aggregation = Aggregation.valueOf(spec.substring(0, separator).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown aggregation in measure: " + spec);
+            }
+            return new Measure(aggregation, CubeMeasure.from(spec.substring(separator + 1).trim()));
+        }
+    }
+
+    public static CubeQuery parse(Map<String, List<String>> filters, List<String> groupBy,
+                                  List<String> measures, Integer limit) {
+        Map<CubeDimension, Set<String>> parsedFilters = new EnumMap<>(CubeDimension.class);
+        if (filters != null) {
+            filters.forEach((key, values) -> parsedFilters
+                .computeIfAbsent(CubeDimension.from(key), d -> new LinkedHashSet<>())
+                .addAll(values != null ? values : List.of()));
+        }
+
+        List<CubeDimension> parsedGroupBy = new ArrayList<>();
+        if (groupBy != null) {
+            for (String key : groupBy) {
+                CubeDimension dimension = CubeDimension.from(key);
+                if (!parsedGroupBy.contains(dimension)) parsedGroupBy.add(dimension);
+            }
+        }
+
+        List<Measure> parsedMeasures = new ArrayList<>();
+        if (measures != null) {
+            for (String spec : measures) {
+                // the row count is always reported
+                if (!"count".equalsIgnoreCase(spec.trim())) parsedMeasures.add(Measure.parse(spec));
+            }
+        }
+
+        int effectiveLimit = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        return new CubeQuery(parsedFilters, parsedGroupBy, parsedMeasures, effectiveLimit);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bi_service.cube;
+
+import java.util.List;
+import java.util.Map;
+
+// rows are sorted by descending count (ties in group-key order) and cut at the query limit; groups is the count before the cut
+public record CubeResult(long matchedRows, int groups, List<Map<String, Object>> rows, long elapsedMicros) {
+}
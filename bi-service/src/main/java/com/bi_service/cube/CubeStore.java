@@ -0,0 +1,22 @@
+package com.bi_service.cube;
+
+import com.bi_service.snapshot.EntitySnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Holds the cube built from the latest snapshot; a new snapshot replaces it on first query
+@Slf4j
+@Component
+public class CubeStore {
+
+    private EntityCube cube;
+
+    public synchronized EntityCube cube(EntitySnapshot snapshot) {
+        if (cube == null || cube.snapshot() != snapshot) {
+            long started = System.currentTimeMillis();
+            cube = EntityCube.build(snapshot);
+            log.debug("Entity cube built over {} rows in {} ms", cube.size(), System.currentTimeMillis() - started);
+        }
+        return cube;
+    }
+}
@@ -0,0 +1,320 @@
+package com.bi_service.cube;
+
+import com.bi_service.rollup.Granularity;
+import com.bi_service.rollup.TimeSeriesRollup;
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+// Read-only OLAP cube over one EntitySnapshot. Dimension codes and measures are held in direct
+// (off-heap) buffers, one per column, and every dimension value has a bitmap of its rows, so a
+// filter is a few bitmap ORs and ANDs. Count-only queries are answered from bitmap cardinalities;
+// only queries with measures scan the matching rows.
+public final class EntityCube {
+
+    // Above this many possible groups the cells are kept in a hash map instead of a dense array
+    private static final long DENSE_CELL_LIMIT = 1 << 20;
+    // Count-only queries with more possible groups than this fall back to the row scan
+    private static final long BITMAP_CELL_LIMIT = 4096;
+
+    private final EntitySnapshot snapshot;
+    private final int size;
+    private final IntBuffer[] codes = new IntBuffer[CubeDimension.values().length];
+    private final List<List<String>> labels = new ArrayList<>();
+    private final List<Map<String, Integer>> labelCodes = new ArrayList<>();
+    private final DoubleBuffer[] measures = new DoubleBuffer[CubeMeasure.values().length];
+    private final BitmapIndex index;
+
+    private EntityCube(EntitySnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.size = snapshot.size();
+        this.index = new BitmapIndex(snapshot);
+    }
+
+    public static EntityCube build(EntitySnapshot snapshot) {
+        EntityCube cube = new EntityCube(snapshot);
+        for (CubeDimension dimension : CubeDimension.values()) {
+            cube.addDimension(dimension);
+        }
+        for (CubeMeasure measure : CubeMeasure.values()) {
+            cube.addMeasure(measure);
+        }
+        return cube;
+    }
+
+    public EntitySnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public BitmapIndex index() {
+        return index;
+    }
+
+    // Distinct values of a dimension, indexed by code
+    public List<String> values(CubeDimension dimension) {
+        return labels.get(dimension.ordinal());
+    }
+
+    public CubeResult query(CubeQuery query) {
+        long started = System.nanoTime();
+        RoaringBitmap selection = select(query.filters());
+
+        List<CubeDimension> groupBy = query.groupBy();
+        int[] radix = new int[groupBy.size()];
+        long cellCount = 1;
+        for (int i = 0; i < radix.length; i++) {
+            // slot 0 of every dimension holds the rows where it is missing
+            radix[i] = labels.get(groupBy.get(i).ordinal()).size() + 1;
+            cellCount = Math.multiplyExact(cellCount, radix[i]);
+        }
+
+        List<CubeQuery.Measure> measureSpecs = query.measures();
+        CubeMeasure[] columns = measureSpecs.stream().map(CubeQuery.Measure::column).distinct()
+            .toArray(CubeMeasure[]::new);
+        List<Cell> cells = new ArrayList<>();
+        if (columns.length == 0 && cellCount <= BITMAP_CELL_LIMIT) {
+            countByBitmaps(selection, groupBy, radix, 0, 0, cells);
+        } else {
+            scanRows(selection, groupBy, radix, cellCount, columns, cells);
+        }
+
+        long matched = selection.getLongCardinality();
+        cells.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : Long.compare(a.key, b.key));
+        List<Map<String, Object>> rows = new ArrayList<>(Math.min(cells.size(), query.limit()));
+        for (Cell cell : cells.subList(0, Math.min(cells.size(), query.limit()))) {
+            rows.add(describe(cell, matched, groupBy, radix, measureSpecs, columns));
+        }
+        return new CubeResult(matched, cells.size(), rows, (System.nanoTime() - started) / 1_000);
+    }
+
+    // Depth-first over the group-by dimensions, ANDing one value bitmap per level; empty branches are pruned
+    private void countByBitmaps(RoaringBitmap rows, List<CubeDimension> groupBy, int[] radix, int depth,
+                                long keyPrefix, List<Cell> cells) {
+        if (depth == radix.length) {
+            Cell cell = new Cell(keyPrefix, 0);
+            cell.count = rows.getLongCardinality();
+            cells.add(cell);
+            return;
+        }
+        CubeDimension dimension = groupBy.get(depth);
+        boolean last = depth == radix.length - 1;
+        for (int slot = 0; slot < radix[depth]; slot++) {
+            RoaringBitmap valueRows = index.rows(dimension, slot - 1);
+            long key = keyPrefix * radix[depth] + slot;
+            if (last) {
+                long count = RoaringBitmap.andCardinality(rows, valueRows);
+                if (count > 0) {
+                    Cell cell = new Cell(key, 0);
+                    cell.count = count;
+                    cells.add(cell);
+                }
+            } else if (RoaringBitmap.intersects(rows, valueRows)) {
+                countByBitmaps(RoaringBitmap.and(rows, valueRows), groupBy, radix, depth + 1, key, cells);
+            }
+        }
+    }
+
+    private void scanRows(RoaringBitmap selection, List<CubeDimension> groupBy, int[] radix, long cellCount,
+                          CubeMeasure[] columns, List<Cell> cells) {
+        Cell[] dense = cellCount <= DENSE_CELL_LIMIT ? new Cell[(int) cellCount] : null;
+        Map<Long, Cell> sparse = dense == null ? new HashMap<>() : null;
+        PeekableIntIterator rowIterator = selection.getIntIterator();
+        while (rowIterator.hasNext()) {
+            int row = rowIterator.next();
+            long key = 0;
+            for (int i = 0; i < radix.length; i++) {
+                key = key * radix[i] + codes[groupBy.get(i).ordinal()].get(row) + 1;
+            }
+            Cell cell = dense != null ? dense[(int) key] : sparse.get(key);
+            if (cell == null) {
+                cell = new Cell(key, columns.length);
+                if (dense != null) dense[(int) key] = cell;
+                else sparse.put(key, cell);
+                cells.add(cell);
+            }
+            cell.add(row, columns, measures);
+        }
+    }
+
+    private RoaringBitmap select(Map<CubeDimension, Set<String>> filters) {
+        RoaringBitmap selection = index.all();
+        for (Map.Entry<CubeDimension, Set<String>> filter : filters.entrySet()) {
+            CubeDimension dimension = filter.getKey();
+            RoaringBitmap matching = new RoaringBitmap();
+            for (String value : filter.getValue()) {
+                Integer code = labelCodes.get(dimension.ordinal()).get(value);
+                if (code != null) {
+                    matching.or(index.rows(dimension, code));
+                }
+            }
+            selection = RoaringBitmap.and(selection, matching);
+        }
+        return selection;
+    }
+
+    private Map<String, Object> describe(Cell cell, long matched, List<CubeDimension> groupBy, int[] radix,
+                                         List<CubeQuery.Measure> measureSpecs, CubeMeasure[] columns) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        long key = cell.key;
+        String[] values = new String[radix.length];
+        for (int i = radix.length - 1; i >= 0; i--) {
+            int code = (int) (key % radix[i]) - 1;
+            key /= radix[i];
+            values[i] = code == Dictionary.MISSING ? null : labels.get(groupBy.get(i).ordinal()).get(code);
+        }
+        for (int i = 0; i < radix.length; i++) {
+            row.put(groupBy.get(i).key(), values[i]);
+        }
+        row.put("count", cell.count);
+        row.put("percentage", matched > 0 ? (double) cell.count / matched * 100 : 0.0);
+        for (CubeQuery.Measure measure : measureSpecs) {
+            int column = indexOf(columns, measure.column());
+            row.put(measure.label(), cell.value(column, measure.aggregation()));
+        }
+        return row;
+    }
+
+    private static int indexOf(CubeMeasure[] columns, CubeMeasure measure) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == measure) return i;
+        }
+        return -1;
+    }
+
+    private void addDimension(CubeDimension dimension) {
+        IntBuffer column = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        List<String> values = new ArrayList<>();
+        switch (dimension) {
+            case SECTEUR -> copyCodes(column, values, snapshot.secteurs(), snapshot::secteur);
+            case SOUS_SECTEUR -> copyCodes(column, values, snapshot.sousSecteurs(), snapshot::sousSecteur);
+            case REGION -> copyCodes(column, values, snapshot.regions(), snapshot::region);
+            case FORME_JURIDIQUE -> copyCodes(column, values, snapshot.formesJuridiques(), snapshot::formeJuridique);
+            case TYPE_ENTREPRISE -> copyCodes(column, values, snapshot.typeEntrepriseIds(), snapshot::typeEntreprise);
+            case TYPE -> copyCodes(column, values, snapshot.types(), snapshot::type);
+            case CREATED_MONTH -> encodeCreatedMonth(column, values);
+        }
+
+        Map<String, Integer> byLabel = new HashMap<>();
+        for (int code = 0; code < values.size(); code++) {
+            byLabel.putIfAbsent(values.get(code), code);
+        }
+        codes[dimension.ordinal()] = column;
+        labels.add(values);
+        labelCodes.add(byLabel);
+        index.addDimension(dimension, column, values.size());
+    }
+
+    private void copyCodes(IntBuffer column, List<String> values, Dictionary<?> dictionary,
+                           IntUnaryOperator codeOf) {
+        for (Object value : dictionary.values()) {
+            values.add(String.valueOf(value));
+        }
+        for (int row = 0; row < size; row++) {
+            column.put(row, codeOf.applyAsInt(row));
+        }
+    }
+
+    // Month codes are dense from the earliest month seen, so the labels come out in calendar order
+    private void encodeCreatedMonth(IntBuffer column, List<String> values) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            long createdAt = snapshot.createdAt(row);
+            if (createdAt != EntitySnapshot.NO_TIMESTAMP) {
+                long month = Granularity.MONTHLY.bucketOfDay(TimeSeriesRollup.epochDay(createdAt));
+                first = Math.min(first, month);
+                last = Math.max(last, month);
+            }
+        }
+        for (long month = first; month <= last; month++) {
+            values.add(Granularity.MONTHLY.label(month));
+        }
+        for (int row = 0; row < size; row++) {
+            long createdAt = snapshot.createdAt(row);
+            column.put(row, createdAt == EntitySnapshot.NO_TIMESTAMP ? Dictionary.MISSING
+                : (int) (Granularity.MONTHLY.bucketOfDay(TimeSeriesRollup.epochDay(createdAt)) - first));
+        }
+    }
+
+    private void addMeasure(CubeMeasure measure) {
+        DoubleBuffer column = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        for (int row = 0; row < size; row++) {
+            column.put(row, switch (measure) {
+                case RISK -> orNaN(snapshot.risk(row));
+                case BUSINESS_RISK -> orNaN(snapshot.businessRisk(row));
+                case COMPANY_AGE -> orNaN(snapshot.companyAge(row));
+                case TOME -> orNaN(snapshot.tome(row));
+                case EFFECTIF -> snapshot.effectif(row);
+                case CAPITAL -> snapshot.capital(row);
+                case CHIFFRE_AFFAIRE -> snapshot.chiffreAffaire(row);
+            });
+        }
+        measures[measure.ordinal()] = column;
+    }
+
+    private static double orNaN(int value) {
+        return value != EntitySnapshot.NO_VALUE ? value : Double.NaN;
+    }
+
+    private static final class Cell {
+        final long key;
+        long count;
+        final long[] present;
+        final double[] sum;
+        final double[] min;
+        final double[] max;
+
+        Cell(long key, int columns) {
+            this.key = key;
+            this.present = new long[columns];
+            this.sum = new double[columns];
+            this.min = new double[columns];
+            this.max = new double[columns];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int row, CubeMeasure[] columns, DoubleBuffer[] measures) {
+            count++;
+            for (int i = 0; i < columns.length; i++) {
+                double value = measures[columns[i].ordinal()].get(row);
+                if (Double.isNaN(value)) continue;
+                present[i]++;
+                sum[i] += value;
+                if (value < min[i]) min[i] = value;
+                if (value > max[i]) max[i] = value;
+            }
+        }
+
+        // null when the group has no value for the measure
+        Object value(int column, CubeQuery.Aggregation aggregation) {
+            if (aggregation == CubeQuery.Aggregation.COUNT) return present[column];
+            if (present[column] == 0) return null;
+            return switch (aggregation) {
+                case SUM -> sum[column];
+                case AVG -> sum[column] / present[column];
+                case MIN -> min[column];
+                case MAX -> max[column];
+                case COUNT -> present[column];
+            };
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.bi_service.dto.request;
+
+import lombok.Data;
+
+@Data
+public class ChangeNotificationRequest {
+    private String source; // entite-service, produit-service or parametrage-service
+    private String entity; // what was written, e.g. Entite or Produit
+}
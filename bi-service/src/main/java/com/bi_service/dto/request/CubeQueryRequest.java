@@ -0,0 +1,14 @@
+package com.bi_service.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class CubeQueryRequest {
+    private Map<String, List<String>> filters; // dimension -> accepted values, e.g. {"region": ["Casablanca-Settat"]}
+    private List<String> groupBy; // secteur, sousSecteur, region, formeJuridique, typeEntrepriseId, type, createdMonth
+    private List<String> measures; // aggregation:column, e.g. avg:capital, sum:chiffreAffaire, count:risk
+    private Integer limit; // maximum groups returned, largest first
+}
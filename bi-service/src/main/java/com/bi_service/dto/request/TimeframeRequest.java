@@ -9,4 +9,5 @@ public class TimeframeRequest {
     private String endDate;
     private String metric; // metric to analyze
     private String interval; // interval for analysis
+    private boolean includeForecast; // adds moving averages and forecasts to the response
 }
@@ -1,13 +1,16 @@
 package com.bi_service.dto.response;
 
 import lombok.Data;
+import java.util.List;
 import java.util.Map;
 
 @Data
 public class AggregatedMetricsResponse {
     private Long totalEntities;
-    private Long activeEntities;
     private Map<String, Object> businessMetrics;
     private Map<String, Object> trends;
     private Map<String, Object> correlations;
+    private Long snapshotAgeMs;
+    // Set only when the snapshot behind this response is missing sources that timed out
+    private List<String> timedOutSections;
 }
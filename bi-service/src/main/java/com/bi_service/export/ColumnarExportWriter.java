@@ -0,0 +1,149 @@
+package com.bi_service.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact big-endian columnar file, laid out like a minimal Parquet file:
+//
+//   header     magic "BIX1", version, column count, then per column its name and type ordinal
+//   row groups up to ROW_GROUP_ROWS rows each: the row count, then one contiguous chunk per column
+//   footer     group count, (offset, rows) per group, total rows, footer length, magic
+//
+// Chunks: LONG and TIMESTAMP are 8-byte values with NULL_LONG for missing, DOUBLE 8-byte values
+// with NaN for missing, BOOLEAN one bit per row, and STRING a per-chunk dictionary followed by
+// one 1, 2 or 4-byte code per row, where 0 is missing and n is dictionary entry n - 1. Strings are
+// length-prefixed UTF-8. A reader can find every group from the footer, read from the end.
+public final class ColumnarExportWriter implements ExportWriter {
+
+    static final int MAGIC = 0x42495831; // "BIX1"
+    static final int VERSION = 1;
+    static final int ROW_GROUP_ROWS = 65_536;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    @Override
+    public void write(ExportTable table, OutputStream out) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(new BufferedOutputStream(out, BUFFER_BYTES));
+        DataOutputStream data = new DataOutputStream(counting);
+        List<ExportColumn> columns = table.columns();
+
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(columns.size());
+        for (ExportColumn column : columns) {
+            writeString(data, column.name());
+            data.writeByte(column.type().ordinal());
+        }
+
+        List<long[]> groups = new ArrayList<>();
+        for (int from = 0; from < table.rows(); from += ROW_GROUP_ROWS) {
+            int to = Math.min(table.rows(), from + ROW_GROUP_ROWS);
+            groups.add(new long[]{counting.count, to - from});
+            data.writeInt(to - from);
+            for (ExportColumn column : columns) {
+                writeChunk(data, column, from, to);
+            }
+            data.flush();
+        }
+
+        long footerStart = counting.count;
+        data.writeInt(groups.size());
+        for (long[] group : groups) {
+            data.writeLong(group[0]);
+            data.writeInt((int) group[1]);
+        }
+        data.writeLong(table.rows());
+        data.writeInt((int) (counting.count - footerStart));
+        data.writeInt(MAGIC);
+        data.flush();
+    }
+
+    private static void writeChunk(DataOutputStream data, ExportColumn column, int from, int to) throws IOException {
+        switch (column.type()) {
+            case LONG, TIMESTAMP -> {
+                for (int row = from; row < to; row++) data.writeLong(column.longValue(row));
+            }
+            case DOUBLE -> {
+                for (int row = from; row < to; row++) data.writeDouble(column.doubleValue(row));
+            }
+            case BOOLEAN -> {
+                int bits = 0;
+                for (int row = from; row < to; row++) {
+                    if (column.longValue(row) != 0) bits |= 1 << ((row - from) & 7);
+                    if (((row - from) & 7) == 7 || row == to - 1) {
+                        data.writeByte(bits);
+                        bits = 0;
+                    }
+                }
+            }
+            case STRING -> writeStringChunk(data, column, from, to);
+        }
+    }
+
+    private static void writeStringChunk(DataOutputStream data, ExportColumn column, int from, int to) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        for (int row = from; row < to; row++) {
+            String value = column.stringValue(row);
+            if (value != null && dictionary.putIfAbsent(value, entries.size() + 1) == null) {
+                entries.add(value);
+            }
+        }
+        data.writeInt(entries.size());
+        for (String entry : entries) {
+            writeString(data, entry);
+        }
+        int width = codeWidth(entries.size());
+        for (int row = from; row < to; row++) {
+            String value = column.stringValue(row);
+            int code = value == null ? 0 : dictionary.get(value);
+            switch (width) {
+                case 1 -> data.writeByte(code);
+                case 2 -> data.writeShort(code);
+                default -> data.writeInt(code);
+            }
+        }
+    }
+
+    // Bytes per code for a dictionary of the given size; code 0 is reserved for missing
+    static int codeWidth(int dictionarySize) {
+        if (dictionarySize < 0xFF) return 1;
+        if (dictionarySize < 0xFFFF) return 2;
+        return 4;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(utf8.length);
+        data.write(utf8);
+    }
+
+    // Tracks the file offset for the footer; DataOutputStream.size() stops at Integer.MAX_VALUE
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
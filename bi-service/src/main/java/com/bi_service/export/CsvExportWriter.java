@@ -0,0 +1,87 @@
+package com.bi_service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+// RFC 4180 CSV with a header row; missing values are empty fields and timestamps are ISO-8601 UTC
+public final class CsvExportWriter implements ExportWriter {
+
+    static final int CHUNK_ROWS = 4096;
+    private static final int BUFFER_CHARS = 64 * 1024;
+    // Integral doubles below this magnitude are printed without a fraction or exponent
+    private static final double PLAIN_LIMIT = 1e15;
+
+    @Override
+    public void write(ExportTable table, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        List<ExportColumn> columns = table.columns();
+        for (int column = 0; column < columns.size(); column++) {
+            if (column > 0) writer.write(',');
+            writeText(writer, columns.get(column).name());
+        }
+        writer.write("\r\n");
+
+        for (int row = 0; row < table.rows(); row++) {
+            for (int column = 0; column < columns.size(); column++) {
+                if (column > 0) writer.write(',');
+                writeCell(writer, columns.get(column), row);
+            }
+            writer.write("\r\n");
+            if ((row + 1) % CHUNK_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCell(Writer writer, ExportColumn column, int row) throws IOException {
+        switch (column.type()) {
+            case LONG -> {
+                long value = column.longValue(row);
+                if (value != ExportColumn.NULL_LONG) writer.write(Long.toString(value));
+            }
+            case TIMESTAMP -> {
+                long value = column.longValue(row);
+                if (value != ExportColumn.NULL_LONG) writer.write(Instant.ofEpochSecond(value).toString());
+            }
+            case BOOLEAN -> writer.write(column.longValue(row) != 0 ? "true" : "false");
+            case DOUBLE -> {
+                double value = column.doubleValue(row);
+                if (!Double.isNaN(value)) writer.write(formatDouble(value));
+            }
+            case STRING -> {
+                String value = column.stringValue(row);
+                if (value != null) writeText(writer, value);
+            }
+        }
+    }
+
+    static String formatDouble(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < PLAIN_LIMIT) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    // Quoted only when the value holds a separator, quote or line break
+    private static void writeText(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,73 @@
+package com.bi_service.export;
+
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+// One column of an export: a name, a type and an accessor reading row i straight from the
+// underlying snapshot or rollup, so nothing is copied before it is written. Missing values are
+// NULL_LONG for LONG and TIMESTAMP, NaN for DOUBLE and null for STRING.
+public final class ExportColumn {
+
+    public enum Type { LONG, DOUBLE, STRING, BOOLEAN, TIMESTAMP }
+
+    public static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final String name;
+    private final Type type;
+    private final IntToLongFunction longs;
+    private final IntToDoubleFunction doubles;
+    private final IntFunction<String> strings;
+
+    private ExportColumn(String name, Type type, IntToLongFunction longs, IntToDoubleFunction doubles,
+                         IntFunction<String> strings) {
+        this.name = name;
+        this.type = type;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.strings = strings;
+    }
+
+    public static ExportColumn longs(String name, IntToLongFunction values) {
+        return new ExportColumn(name, Type.LONG, values, null, null);
+    }
+
+    // Epoch seconds
+    public static ExportColumn timestamps(String name, IntToLongFunction values) {
+        return new ExportColumn(name, Type.TIMESTAMP, values, null, null);
+    }
+
+    public static ExportColumn doubles(String name, IntToDoubleFunction values) {
+        return new ExportColumn(name, Type.DOUBLE, null, values, null);
+    }
+
+    public static ExportColumn strings(String name, IntFunction<String> values) {
+        return new ExportColumn(name, Type.STRING, null, null, values);
+    }
+
+    public static ExportColumn booleans(String name, IntPredicate values) {
+        return new ExportColumn(name, Type.BOOLEAN, row -> values.test(row) ? 1 : 0, null, null);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    // LONG, TIMESTAMP and BOOLEAN (0 or 1) columns
+    public long longValue(int row) {
+        return longs.applyAsLong(row);
+    }
+
+    public double doubleValue(int row) {
+        return doubles.applyAsDouble(row);
+    }
+
+    public String stringValue(int row) {
+        return strings.apply(row);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bi_service.export;
+
+// Datasets /api/bi/export can stream; key is the path segment
+public enum ExportDataset {
+    ENTITIES("entities"),
+    DISTRIBUTIONS("distributions"),
+    TIMESERIES("timeseries");
+
+    private final String key;
+
+    ExportDataset(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static ExportDataset from(String key) {
+        for (ExportDataset dataset : values()) {
+            if (dataset.key.equals(key)) {
+                return dataset;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export dataset: " + key);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bi_service.export;
+
+import java.util.Locale;
+
+// Output formats of /api/bi/export; key is the value of the format parameter
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8", "csv", new CsvExportWriter()),
+    COLUMNAR("columnar", "application/vnd.bi-columnar", "bix", new ColumnarExportWriter());
+
+    private final String key;
+    private final String contentType;
+    private final String extension;
+    private final ExportWriter writer;
+
+    ExportFormat(String key, String contentType, String extension, ExportWriter writer) {
+        this.key = key;
+        this.contentType = contentType;
+        this.extension = extension;
+        this.writer = writer;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public ExportWriter writer() {
+        return writer;
+    }
+
+    public static ExportFormat from(String key) {
+        for (ExportFormat format : values()) {
+            if (format.key.equals(key.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + key);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bi_service.export;
+
+import com.bi_service.cube.CubeStore;
+import com.bi_service.fetch.Deadline;
+import com.bi_service.rollup.Granularity;
+import com.bi_service.rollup.TimeSeriesRollupStore;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+// Streams export tables straight from the current snapshot. At most max-concurrent exports run at
+// once; each holds only the snapshot reference and the writer's fixed-size buffers, whatever the
+// row count.
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    private final SnapshotService snapshotService;
+    private final CubeStore cubeStore;
+    private final TimeSeriesRollupStore rollupStore;
+    private final Semaphore permits;
+
+    public ExportService(SnapshotService snapshotService,
+                         CubeStore cubeStore,
+                         TimeSeriesRollupStore rollupStore,
+                         @Value("${bi.export.max-concurrent:4}") int maxConcurrent) {
+        this.snapshotService = snapshotService;
+        this.cubeStore = cubeStore;
+        this.rollupStore = rollupStore;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public ExportTable table(ExportDataset dataset, Granularity granularity, Deadline deadline) {
+        EntitySnapshot snapshot = snapshotService.getSnapshot(deadline);
+        return switch (dataset) {
+            case ENTITIES -> ExportTables.entities(snapshot);
+            case DISTRIBUTIONS -> ExportTables.distributions(cubeStore.cube(snapshot));
+            case TIMESERIES -> ExportTables.timeseries(
+                rollupStore.entities(snapshot, granularity), rollupStore.products(snapshot, granularity));
+        };
+    }
+
+    // Reserves an export slot; every successful call must be followed by stream() or release()
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    // Writes the table and frees the slot. Gzip output is sync-flushed with every chunk, so the
+    // client can decompress rows as they arrive.
+    public StreamingResponseBody stream(ExportTable table, ExportFormat format, boolean gzip) {
+        return out -> {
+            long started = System.currentTimeMillis();
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_BYTES, true);
+                    format.writer().write(table, compressed);
+                    compressed.finish();
+                } else {
+                    format.writer().write(table, out);
+                }
+                log.debug("Exported {} {} rows as {}{} in {} ms", table.rows(), table.name(), format.key(),
+                    gzip ? " (gzip)" : "", System.currentTimeMillis() - started);
+            } catch (IOException e) {
+                log.info("Export of {} as {} aborted after {} ms: {}", table.name(), format.key(),
+                    System.currentTimeMillis() - started, e.getMessage());
+                throw e;
+            } finally {
+                permits.release();
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.bi_service.export;
+
+import java.util.List;
+
+// Rows 0..rows-1 of the given columns
+public record ExportTable(String name, List<ExportColumn> columns, int rows) {
+}
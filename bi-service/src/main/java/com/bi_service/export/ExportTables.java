@@ -0,0 +1,98 @@
+package com.bi_service.export;
+
+import com.bi_service.cube.BitmapIndex;
+import com.bi_service.cube.CubeDimension;
+import com.bi_service.cube.EntityCube;
+import com.bi_service.rollup.RollupSlice;
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+// Export views over the snapshot, the cube and the rollups. Entity rows are read from the
+// snapshot columns as they are written; only the distribution rows, one per dimension value,
+// are gathered up front.
+public final class ExportTables {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private ExportTables() {
+    }
+
+    public static ExportTable entities(EntitySnapshot snapshot) {
+        return new ExportTable("entities", List.of(
+            ExportColumn.longs("id", snapshot::id),
+            ExportColumn.timestamps("createdAt", snapshot::createdAt),
+            ExportColumn.strings("type", row -> snapshot.types().value(snapshot.type(row))),
+            ExportColumn.strings("region", row -> snapshot.regions().value(snapshot.region(row))),
+            ExportColumn.longs("typeEntrepriseId", row -> {
+                Long id = snapshot.typeEntrepriseIds().value(snapshot.typeEntreprise(row));
+                return id != null ? id : ExportColumn.NULL_LONG;
+            }),
+            ExportColumn.strings("secteur", row -> snapshot.secteurs().value(snapshot.secteur(row))),
+            ExportColumn.strings("sousSecteur", row -> snapshot.sousSecteurs().value(snapshot.sousSecteur(row))),
+            ExportColumn.strings("formeJuridique", row -> snapshot.formesJuridiques().value(snapshot.formeJuridique(row))),
+            ints("tome", snapshot::tome),
+            ExportColumn.doubles("effectif", snapshot::effectif),
+            ExportColumn.doubles("capital", snapshot::capital),
+            ExportColumn.doubles("chiffreAffaire", snapshot::chiffreAffaire),
+            ints("risk", snapshot::risk),
+            ints("businessRisk", snapshot::businessRisk),
+            ints("companyAge", snapshot::companyAge),
+            ExportColumn.booleans("hasBusiness", snapshot::hasBusiness),
+            ExportColumn.booleans("hasContact", snapshot::hasContact),
+            ExportColumn.booleans("hasProducts", snapshot::hasProducts)),
+            snapshot.size());
+    }
+
+    // Entity count per value of every cube dimension, from the bitmap cardinalities; rows where
+    // a dimension is missing are reported with an empty value
+    public static ExportTable distributions(EntityCube cube) {
+        BitmapIndex index = cube.index();
+        List<String> dimensions = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        for (CubeDimension dimension : CubeDimension.values()) {
+            List<String> labels = cube.values(dimension);
+            for (int code = Dictionary.MISSING; code < labels.size(); code++) {
+                long count = index.rows(dimension, code).getLongCardinality();
+                if (count == 0) continue;
+                dimensions.add(dimension.key());
+                values.add(code == Dictionary.MISSING ? null : labels.get(code));
+                counts.add(count);
+            }
+        }
+        int total = index.size();
+        return new ExportTable("distributions", List.of(
+            ExportColumn.strings("dimension", dimensions::get),
+            ExportColumn.strings("value", values::get),
+            ExportColumn.longs("count", counts::get),
+            ExportColumn.doubles("share", row -> total == 0 ? 0.0 : (double) counts.get(row) / total)),
+            counts.size());
+    }
+
+    // Entity rows first, then product rows, each in bucket order
+    public static ExportTable timeseries(RollupSlice entities, RollupSlice products) {
+        int split = entities.length();
+        return new ExportTable("timeseries", List.of(
+            ExportColumn.strings("series", row -> row < split ? "entities" : "products"),
+            ExportColumn.strings("period", row -> row < split ? entities.label(row) : products.label(row - split)),
+            ExportColumn.timestamps("periodStart", row -> row < split
+                ? periodStart(entities, row) : periodStart(products, row - split)),
+            ExportColumn.longs("count", row -> row < split ? entities.count(row) : products.count(row - split))),
+            split + products.length());
+    }
+
+    private static long periodStart(RollupSlice slice, int index) {
+        return slice.granularity().firstDay(slice.firstBucket() + index) * SECONDS_PER_DAY;
+    }
+
+    private static ExportColumn ints(String name, IntUnaryOperator column) {
+        return ExportColumn.longs(name, row -> {
+            int value = column.applyAsInt(row);
+            return value == EntitySnapshot.NO_VALUE ? ExportColumn.NULL_LONG : value;
+        });
+    }
+}
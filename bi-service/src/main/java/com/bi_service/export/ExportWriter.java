@@ -0,0 +1,11 @@
+package com.bi_service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Writes a table to a stream in bounded chunks, flushing after each one, so a slow reader blocks
+// the writer instead of letting output pile up in memory
+public interface ExportWriter {
+
+    void write(ExportTable table, OutputStream out) throws IOException;
+}
@@ -1,8 +1,15 @@
 package com.bi_service.feign;
 
+import com.bi_service.feign.dto.AggregateSummaryRecord;
+import com.bi_service.feign.dto.GroupCountRecord;
+import feign.Request;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "entite-service")
 public interface EntiteClient {
@@ -12,4 +19,21 @@ public interface EntiteClient {
     
     @GetMapping("/api/entites")
     Object getEntiteStatistics(@RequestHeader("Authorization") String token);
+
+    // Undecoded body for EntitePayloadDecoder; the caller must close the response
+    @GetMapping("/api/entites")
+    Response streamAllEntites(@RequestHeader("Authorization") String token, Request.Options options);
+
+    // Aggregates grouped in entite-service's database, used by AggregatePushdown; a few rows instead
+    // of the full entity payload. groupBy: type, region, typeEntrepriseId, secteur, sousSecteur or
+    // formeJuridique. since is an ISO-8601 local date-time, or null for no bound.
+
+    @GetMapping("/api/entites/aggregates/counts")
+    List<GroupCountRecord> getEntiteCounts(@RequestHeader("Authorization") String token,
+                                           @RequestParam("groupBy") String groupBy,
+                                           @RequestParam(value = "since", required = false) String since,
+                                           Request.Options options);
+
+    @GetMapping("/api/entites/aggregates/summary")
+    AggregateSummaryRecord getAggregateSummary(@RequestHeader("Authorization") String token, Request.Options options);
 }
@@ -3,9 +3,9 @@ package com.bi_service.feign;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
-import feign.Logger;
+import feign.Request;
 
-@FeignClient(name = "parametrage-service", url = "${parametrage.service.url}", configuration = ParametrageClient.Configuration.class)
+@FeignClient(name = "parametrage-service", url = "${parametrage.service.url}")
 public interface ParametrageClient {
     
     @GetMapping("/api/secteurs")
@@ -17,9 +17,14 @@ public interface ParametrageClient {
     @GetMapping("/api/type-entreprises")
     Object getAllTypeEntreprises(@RequestHeader("Authorization") String token);
 
-    class Configuration {
-        public Logger.Level feignLoggerLevel() {
-            return Logger.Level.FULL;
-        }
-    }
+    // Same calls with per-request timeouts (see Deadline.callOptions); null options use the defaults
+
+    @GetMapping("/api/secteurs")
+    Object getAllSecteurs(@RequestHeader("Authorization") String token, Request.Options options);
+
+    @GetMapping("/api/sous-secteurs")
+    Object getAllSousSecteurs(@RequestHeader("Authorization") String token, Request.Options options);
+
+    @GetMapping("/api/type-entreprises")
+    Object getAllTypeEntreprises(@RequestHeader("Authorization") String token, Request.Options options);
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.bi_service.feign;
 
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -8,4 +9,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 public interface ProductClient {
     @GetMapping("/api/produits")
     Object getAllProduits(@RequestHeader("Authorization") String token);
+
+    @GetMapping("/api/produits")
+    Object getAllProduits(@RequestHeader("Authorization") String token, Request.Options options);
 } 
\ No newline at end of file
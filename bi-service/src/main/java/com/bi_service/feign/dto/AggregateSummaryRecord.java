@@ -0,0 +1,13 @@
+package com.bi_service.feign.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AggregateSummaryRecord(
+        Long totalEntities,
+        Long withBusiness,
+        Long withContact,
+        Long withProducts,
+        Long riskSum,
+        Long riskCount) {
+}
@@ -0,0 +1,17 @@
+package com.bi_service.feign.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Projection of entite-service's EntiteBusiness restricted to the fields BI reads
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EntiteBusinessRecord(
+        Integer risk,
+        Integer tome,
+        String dateCreation,
+        String secteur,
+        String sousSecteur,
+        String formeJuridique,
+        String effectif,
+        String capital,
+        String chiffreAffaire) {
+}
@@ -0,0 +1,18 @@
+package com.bi_service.feign.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Projection of entite-service's EntiteFullDTO restricted to the fields BI reads.
+// Unknown properties are skipped while parsing, so the rest of the payload is never materialized.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EntiteRecord(
+        Long id,
+        String type,
+        String region,
+        Integer risk,
+        Long typeEntrepriseId,
+        String createdAt,
+        EntiteBusinessRecord entiteBusiness,
+        SectionMarker entiteContact,
+        SectionMarker entiteProducts) {
+}
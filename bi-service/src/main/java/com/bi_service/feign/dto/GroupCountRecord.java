@@ -0,0 +1,8 @@
+package com.bi_service.feign.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// One row of entite-service's /api/entites/aggregates/counts or /created-at; key is null for the unset group
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GroupCountRecord(String key, Long count) {
+}
@@ -0,0 +1,8 @@
+package com.bi_service.feign.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Stands in for a child section whose content BI ignores; only its presence is recorded
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SectionMarker() {
+}
@@ -0,0 +1,56 @@
+package com.bi_service.fetch;
+
+import feign.Request;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Point in time by which a request must be answered. It is handed down to every downstream call
+// made on the request's behalf, so no call is allowed to outlive the request that needed it.
+public final class Deadline {
+
+    // Downstream calls get at least this much, so a nearly spent deadline still fails cleanly
+    private static final long MIN_CALL_MS = 50;
+
+    private final long expiresAtNanos;
+    private final long budgetMs;
+
+    private Deadline(long budgetMs) {
+        this.budgetMs = budgetMs;
+        this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    public static Deadline after(long budgetMs) {
+        return new Deadline(Math.max(0, budgetMs));
+    }
+
+    public long budgetMillis() {
+        return budgetMs;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    // Feign options for one call: both the connect and the read timeout end at the deadline
+    public Request.Options callOptions() {
+        long remaining = Math.max(MIN_CALL_MS, remainingMillis());
+        return new Request.Options(remaining, TimeUnit.MILLISECONDS, remaining, TimeUnit.MILLISECONDS, true);
+    }
+
+    // True for a CompletableFuture timeout as well as a Feign read or connect timeout
+    public static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException
+                    || cause instanceof DeadlineExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bi_service.fetch;
+
+import java.util.List;
+
+// A required downstream section did not arrive before the request's deadline
+public class DeadlineExceededException extends RuntimeException {
+
+    private final List<String> timedOutSections;
+
+    public DeadlineExceededException(List<String> timedOutSections, long budgetMs) {
+        super("No answer from " + String.join(", ", timedOutSections) + " within " + budgetMs + " ms");
+        this.timedOutSections = List.copyOf(timedOutSections);
+    }
+
+    public List<String> getTimedOutSections() {
+        return timedOutSections;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bi_service.fetch;
+
+import feign.Request;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Scope for the downstream calls made while serving one logical request. Calls are issued
+// concurrently on the shared fetch executor; identical calls (same name and token) made within
+// the same context share a single in-flight future, and each call's wall time is recorded.
+// With a deadline, every call's future fails with a TimeoutException once the deadline passes.
+public class FetchContext {
+
+    private final Executor executor;
+    private final String token;
+    private final Deadline deadline;
+    private final long startedAt = System.nanoTime();
+    private final Map<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public FetchContext(Executor executor, String token) {
+        this(executor, token, null);
+    }
+
+    public FetchContext(Executor executor, String token, Deadline deadline) {
+        this.executor = executor;
+        this.token = token;
+        this.deadline = deadline;
+    }
+
+    public CompletableFuture<Object> fetch(String name, Function<String, Object> call) {
+        return calls.computeIfAbsent(name, key -> {
+            CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return call.apply(token);
+                } finally {
+                    timings.put(key, (System.nanoTime() - start) / 1_000_000);
+                }
+            }, executor);
+            return deadline != null ? future.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS) : future;
+        });
+    }
+
+    // Per-call Feign options bounded by the deadline; null (Feign's defaults) without one
+    public Request.Options callOptions() {
+        return deadline != null ? deadline.callOptions() : null;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    // Milliseconds spent in each completed call, in completion order
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bi_service.precompute;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Field-level difference between two versions of a report. Nested maps are flattened into
+// dotted paths; lists and scalars are compared as whole values.
+public final class ReportDiff {
+
+    private ReportDiff() {
+    }
+
+    public static Map<String, Object> between(ReportVersion from, ReportVersion to) {
+        Map<String, Object> before = new LinkedHashMap<>();
+        Map<String, Object> after = new LinkedHashMap<>();
+        flatten("", from.body(), before);
+        flatten("", to.body(), after);
+
+        Map<String, Object> added = new LinkedHashMap<>();
+        Map<String, Object> removed = new LinkedHashMap<>();
+        Map<String, Object> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!Objects.equals(before.get(entry.getKey()), entry.getValue())) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("from", before.get(entry.getKey()));
+                change.put("to", entry.getValue());
+                changed.put(entry.getKey(), change);
+            }
+        }
+        for (Map.Entry<String, Object> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("report", to.report().key());
+        diff.put("from", from.describe());
+        diff.put("to", to.describe());
+        diff.put("added", added);
+        diff.put("removed", removed);
+        diff.put("changed", changed);
+        return diff;
+    }
+
+    private static void flatten(String prefix, Map<?, ?> map, Map<String, Object> into) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String path = prefix.isEmpty() ? String.valueOf(entry.getKey()) : prefix + "." + entry.getKey();
+            if (entry.getValue() instanceof Map<?, ?> nested && !nested.isEmpty()) {
+                flatten(path, nested, into);
+            } else {
+                into.put(path, entry.getValue());
+            }
+        }
+    }
+}
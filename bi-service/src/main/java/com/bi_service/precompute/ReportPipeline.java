@@ -0,0 +1,126 @@
+package com.bi_service.precompute;
+
+import com.bi_service.cache.DataChangedEvent;
+import com.bi_service.service.BIService;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotRebuiltEvent;
+import com.bi_service.snapshot.SnapshotService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Recomputes every report off the request path: on a schedule, when a new snapshot is built,
+// and at startup (covering a warm-started snapshot). A data change asks the snapshot for a
+// background rebuild, whose event then triggers the recomputation. Runs are serialized on one
+// thread and requests arriving during a run are coalesced into a single follow-up run.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportPipeline {
+
+    // Request-time values that would make every run look like a new version
+    private static final Set<String> VOLATILE_KEYS = Set.of("snapshotAgeMs", "computeTimeMs");
+
+    private final BIService biService;
+    private final SnapshotService snapshotService;
+    private final ReportStore reportStore;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bi-precompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    @Value("${bi.precompute.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${bi.precompute.interval-ms:300000}",
+               initialDelayString = "${bi.precompute.interval-ms:300000}")
+    public void scheduledRun() {
+        trigger("schedule");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        trigger("startup");
+    }
+
+    @EventListener
+    public void onSnapshotRebuilt(SnapshotRebuiltEvent event) {
+        trigger("snapshot rebuilt");
+    }
+
+    @Order(3)
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        if (enabled) {
+            snapshotService.requestRefresh();
+        }
+    }
+
+    public void trigger(String reason) {
+        if (!enabled || !pending.compareAndSet(false, true)) {
+            return;
+        }
+        worker.execute(() -> {
+            pending.set(false);
+            EntitySnapshot snapshot = snapshotService.peek();
+            if (snapshot == null) {
+                log.debug("Skipping report precomputation ({}): no snapshot loaded", reason);
+                return;
+            }
+            for (ReportType report : ReportType.values()) {
+                publish(report, snapshot);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void publish(ReportType report, EntitySnapshot snapshot) {
+        long started = System.nanoTime();
+        try {
+            Map<String, Object> body = new HashMap<>(compute(report, snapshot));
+            if (body.containsKey("error")) {
+                log.warn("Report {} came back with an error, keeping the previous version: {}", report.key(), body.get("error"));
+                return;
+            }
+            body.keySet().removeAll(VOLATILE_KEYS);
+            long computeMs = (System.nanoTime() - started) / 1_000_000;
+            ReportVersion version = reportStore.publish(report, snapshot.getBuiltAt(), computeMs, body);
+            log.debug("Report {} computed in {} ms, serving version {}", report.key(), computeMs, version.version());
+        } catch (Exception e) {
+            log.warn("Precomputing report {} failed, keeping the previous version: {}", report.key(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> compute(ReportType report, EntitySnapshot snapshot) {
+        return switch (report) {
+            case SCORECARD -> biService.getBusinessScorecard(snapshot);
+            case SECTOR_ANALYSIS -> biService.getSectorAnalysis(snapshot);
+            case BUSINESS_CORRELATIONS -> biService.getBusinessCorrelations(snapshot);
+            case CORRELATION_MATRIX -> biService.getCorrelationMatrix(snapshot);
+        };
+    }
+}
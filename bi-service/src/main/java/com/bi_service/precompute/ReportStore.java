@@ -0,0 +1,64 @@
+package com.bi_service.precompute;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Keeps the last few versions of every report. Each report's history is an immutable list
+// behind an AtomicReference, so publishing swaps the served version in a single step and
+// readers never see a half-written result.
+@Component
+public class ReportStore {
+
+    @Value("${bi.precompute.history:10}")
+    private int historySize = 10;
+
+    private final Map<ReportType, AtomicReference<List<ReportVersion>>> histories = new EnumMap<>(ReportType.class);
+
+    public ReportStore() {
+        for (ReportType report : ReportType.values()) {
+            histories.put(report, new AtomicReference<>(List.of()));
+        }
+    }
+
+    // Stores body as the next version unless it equals the one being served; returns the served version
+    public ReportVersion publish(ReportType report, long snapshotBuiltAt, long computeMs, Map<String, Object> body) {
+        AtomicReference<List<ReportVersion>> history = histories.get(report);
+        while (true) {
+            List<ReportVersion> versions = history.get();
+            ReportVersion latest = versions.isEmpty() ? null : versions.get(versions.size() - 1);
+            if (latest != null && latest.body().equals(body)) {
+                return latest;
+            }
+            ReportVersion next = new ReportVersion(report, latest != null ? latest.version() + 1 : 1,
+                System.currentTimeMillis(), snapshotBuiltAt, computeMs, Collections.unmodifiableMap(body));
+            List<ReportVersion> updated = new ArrayList<>(
+                versions.subList(Math.max(0, versions.size() - historySize + 1), versions.size()));
+            updated.add(next);
+            if (history.compareAndSet(versions, List.copyOf(updated))) {
+                return next;
+            }
+        }
+    }
+
+    public Optional<ReportVersion> current(ReportType report) {
+        List<ReportVersion> versions = histories.get(report).get();
+        return versions.isEmpty() ? Optional.empty() : Optional.of(versions.get(versions.size() - 1));
+    }
+
+    public Optional<ReportVersion> version(ReportType report, long version) {
+        return histories.get(report).get().stream().filter(v -> v.version() == version).findFirst();
+    }
+
+    // Oldest first
+    public List<ReportVersion> versions(ReportType report) {
+        return histories.get(report).get();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bi_service.precompute;
+
+// Reports the precomputation pipeline keeps versions of; key is the name used in /api/bi/reports
+public enum ReportType {
+    SCORECARD("scorecard"),
+    SECTOR_ANALYSIS("sector-analysis"),
+    BUSINESS_CORRELATIONS("business-correlations"),
+    CORRELATION_MATRIX("correlation-matrix");
+
+    private final String key;
+
+    ReportType(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static ReportType from(String key) {
+        for (ReportType type : values()) {
+            if (type.key.equals(key)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report: " + key);
+    }
+}
@@ -0,0 +1,19 @@
+package com.bi_service.precompute;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One immutable computation of a report. Versions of a report increase by one per published change.
+public record ReportVersion(ReportType report, long version, long computedAt, long snapshotBuiltAt,
+                            long computeMs, Map<String, Object> body) {
+
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("report", report.key());
+        description.put("version", version);
+        description.put("computedAt", computedAt);
+        description.put("snapshotBuiltAt", snapshotBuiltAt);
+        description.put("computeMs", computeMs);
+        return description;
+    }
+}
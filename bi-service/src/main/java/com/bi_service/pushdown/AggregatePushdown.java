@@ -0,0 +1,67 @@
+package com.bi_service.pushdown;
+
+import com.bi_service.fetch.Deadline;
+import com.bi_service.feign.EntiteClient;
+import com.bi_service.feign.ParametrageClient;
+import com.bi_service.feign.dto.GroupCountRecord;
+import com.bi_service.snapshot.TypeEntrepriseRef;
+import feign.Request;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Count-only questions answered by entite-service's GROUP BY endpoints. Used while no snapshot
+// is loaded, so an endpoint that needs a handful of counts does not wait for the full entity fetch.
+@Component
+@RequiredArgsConstructor
+public class AggregatePushdown {
+
+    private final EntiteClient entiteClient;
+    private final ParametrageClient parametrageClient;
+
+    @Value("${bi.pushdown.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long totalEntities(String token, Deadline deadline) {
+        Long total = entiteClient.getAggregateSummary(token, callOptions(deadline)).totalEntities();
+        return total != null ? total : 0L;
+    }
+
+    // Entities without a typeEntrepriseId are left out, as in the snapshot's dictionary
+    public Map<Long, Long> countsByTypeEntrepriseId(String token, Deadline deadline) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (GroupCountRecord row : entiteClient.getEntiteCounts(token, "typeEntrepriseId", null, callOptions(deadline))) {
+            if (row.key() != null && row.count() != null) {
+                counts.put(Long.valueOf(row.key()), row.count());
+            }
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<TypeEntrepriseRef> typeEntreprises(String token, Deadline deadline) {
+        Object payload = parametrageClient.getAllTypeEntreprises(token, callOptions(deadline));
+        List<TypeEntrepriseRef> refs = new ArrayList<>();
+        if (payload instanceof List<?> rows) {
+            for (Object row : rows) {
+                if (row instanceof Map) {
+                    refs.add(TypeEntrepriseRef.fromRow((Map<String, Object>) row));
+                }
+            }
+        }
+        return refs;
+    }
+
+    private static Request.Options callOptions(Deadline deadline) {
+        return deadline != null ? deadline.callOptions() : null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bi_service.rollup;
+
+// Dense counts for a contiguous run of bucket indexes. counts[0] holds bucket "origin"; the
+// array grows in either direction when a bucket outside the current span is incremented.
+final class BucketArray {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long origin;
+    private long[] counts = new long[0];
+
+    void increment(long bucket) {
+        add(bucket, 1);
+    }
+
+    void add(long bucket, long amount) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_CAPACITY];
+            origin = bucket - INITIAL_CAPACITY / 2;
+        }
+        if (bucket < origin || bucket >= origin + counts.length) {
+            growToInclude(bucket);
+        }
+        counts[(int) (bucket - origin)] += amount;
+    }
+
+    long count(long bucket) {
+        if (bucket < origin || bucket >= origin + counts.length) {
+            return 0;
+        }
+        return counts[(int) (bucket - origin)];
+    }
+
+    // Sum over [from, to], both inclusive
+    long sum(long from, long to) {
+        long lo = Math.max(from, origin);
+        long hi = Math.min(to, origin + counts.length - 1);
+        long total = 0;
+        for (long bucket = lo; bucket <= hi; bucket++) {
+            total += counts[(int) (bucket - origin)];
+        }
+        return total;
+    }
+
+    // Copies the counts of [from, to] into a new array, zero-filled outside the stored span
+    long[] slice(long from, long to) {
+        long[] slice = new long[Math.toIntExact(to - from + 1)];
+        long lo = Math.max(from, origin);
+        long hi = Math.min(to, origin + counts.length - 1);
+        if (lo <= hi) {
+            System.arraycopy(counts, (int) (lo - origin), slice, (int) (lo - from), (int) (hi - lo + 1));
+        }
+        return slice;
+    }
+
+    private void growToInclude(long bucket) {
+        long newOrigin = Math.min(origin, bucket);
+        long newEnd = Math.max(origin + counts.length, bucket + 1);
+        // Leave headroom on the side that grew so that series appended to in order resize rarely
+        long headroom = Math.max(INITIAL_CAPACITY, (newEnd - newOrigin) / 2);
+        if (bucket < origin) newOrigin -= headroom; else newEnd += headroom;
+
+        long[] grown = new long[Math.toIntExact(newEnd - newOrigin)];
+        System.arraycopy(counts, 0, grown, (int) (origin - newOrigin), counts.length);
+        counts = grown;
+        origin = newOrigin;
+    }
+}
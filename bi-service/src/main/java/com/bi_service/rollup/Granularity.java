@@ -0,0 +1,110 @@
+package com.bi_service.rollup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Bucket widths of the time-series rollups. Buckets are numbered from the epoch so that a
+// timestamp maps to its bucket with integer arithmetic only; weeks start on Monday.
+public enum Granularity {
+
+    DAILY {
+        @Override
+        public long bucketOfDay(long epochDay) {
+            return epochDay;
+        }
+
+        @Override
+        public long firstDay(long bucket) {
+            return bucket;
+        }
+
+        @Override
+        public String label(long bucket) {
+            return LocalDate.ofEpochDay(bucket).toString();
+        }
+    },
+    WEEKLY {
+        @Override
+        public long bucketOfDay(long epochDay) {
+            // 1970-01-01 was a Thursday, three days after the Monday opening week 0
+            return Math.floorDiv(epochDay + 3, 7);
+        }
+
+        @Override
+        public long firstDay(long bucket) {
+            return bucket * 7 - 3;
+        }
+
+        @Override
+        public String label(long bucket) {
+            return LocalDate.ofEpochDay(firstDay(bucket)).toString();
+        }
+    },
+    MONTHLY {
+        @Override
+        public long bucketOfDay(long epochDay) {
+            return monthIndex(epochDay);
+        }
+
+        @Override
+        public long firstDay(long bucket) {
+            return LocalDate.of((int) Math.floorDiv(bucket, 12), (int) Math.floorMod(bucket, 12) + 1, 1).toEpochDay();
+        }
+
+        @Override
+        public String label(long bucket) {
+            return YearMonth.of((int) Math.floorDiv(bucket, 12), (int) Math.floorMod(bucket, 12) + 1).toString();
+        }
+    },
+    QUARTERLY {
+        @Override
+        public long bucketOfDay(long epochDay) {
+            return Math.floorDiv(monthIndex(epochDay), 3);
+        }
+
+        @Override
+        public long firstDay(long bucket) {
+            return MONTHLY.firstDay(bucket * 3);
+        }
+
+        @Override
+        public String label(long bucket) {
+            return Math.floorDiv(bucket, 4) + "-Q" + (Math.floorMod(bucket, 4) + 1);
+        }
+    };
+
+    public abstract long bucketOfDay(long epochDay);
+
+    public abstract long firstDay(long bucket);
+
+    public abstract String label(long bucket);
+
+    public long lastDay(long bucket) {
+        return firstDay(bucket + 1) - 1;
+    }
+
+    // Unknown or missing intervals fall back to daily buckets, as the time-series endpoint always did
+    public static Granularity from(String interval) {
+        if (interval != null) {
+            for (Granularity granularity : values()) {
+                if (granularity.name().equalsIgnoreCase(interval)) {
+                    return granularity;
+                }
+            }
+        }
+        return DAILY;
+    }
+
+    // year * 12 + (month - 1) of an epoch day, using the days-to-civil conversion without allocating a LocalDate
+    static long monthIndex(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+}
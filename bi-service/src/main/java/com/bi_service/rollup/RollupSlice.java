@@ -0,0 +1,21 @@
+package com.bi_service.rollup;
+
+// Counts for consecutive buckets starting at firstBucket; counts[i] belongs to bucket firstBucket + i
+public record RollupSlice(Granularity granularity, long firstBucket, long[] counts) {
+
+    static RollupSlice empty(Granularity granularity) {
+        return new RollupSlice(granularity, 0, new long[0]);
+    }
+
+    public int length() {
+        return counts.length;
+    }
+
+    public long count(int index) {
+        return counts[index];
+    }
+
+    public String label(int index) {
+        return granularity.label(firstBucket + index);
+    }
+}
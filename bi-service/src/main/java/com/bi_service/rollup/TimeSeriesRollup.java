@@ -0,0 +1,87 @@
+package com.bi_service.rollup;
+
+import com.bi_service.snapshot.TemporalIndex;
+
+// Counts of timestamped events rolled up at every Granularity at once. Each add() touches one
+// bucket per granularity, and a range query copies a slice of the matching bucket array, so its
+// cost depends on the number of buckets returned and not on the number of events.
+public final class TimeSeriesRollup {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final BucketArray[] buckets = new BucketArray[Granularity.values().length];
+    private long firstDay = Long.MAX_VALUE;
+    private long lastDay = Long.MIN_VALUE;
+    private long total;
+
+    public TimeSeriesRollup() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new BucketArray();
+        }
+    }
+
+    public void add(long epochSecond) {
+        addDay(epochDay(epochSecond), 1);
+    }
+
+    // Same as add() for every timestamp in the index. Each day is a contiguous run of the sorted
+    // timestamps, found with one binary search, so the buckets are touched once per day.
+    public void addAll(TemporalIndex index) {
+        int position = 0;
+        while (position < index.size()) {
+            long day = epochDay(index.get(position));
+            int next = index.lowerBound((day + 1) * SECONDS_PER_DAY);
+            addDay(day, next - position);
+            position = next;
+        }
+    }
+
+    private void addDay(long day, long count) {
+        for (Granularity granularity : Granularity.values()) {
+            buckets[granularity.ordinal()].add(granularity.bucketOfDay(day), count);
+        }
+        firstDay = Math.min(firstDay, day);
+        lastDay = Math.max(lastDay, day);
+        total += count;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public RollupSlice all(Granularity granularity) {
+        if (total == 0) {
+            return RollupSlice.empty(granularity);
+        }
+        return range(granularity, firstDay, lastDay);
+    }
+
+    // Buckets covering the epoch days [startDay, endDay]. Buckets cut by either end of the range
+    // are recounted from the daily series so they only include the days inside it.
+    public RollupSlice range(Granularity granularity, long startDay, long endDay) {
+        if (total == 0 || startDay > endDay) {
+            return RollupSlice.empty(granularity);
+        }
+        long from = Math.max(startDay, firstDay);
+        long to = Math.min(endDay, lastDay);
+        if (from > to) {
+            return RollupSlice.empty(granularity);
+        }
+
+        long firstBucket = granularity.bucketOfDay(from);
+        long lastBucket = granularity.bucketOfDay(to);
+        long[] counts = buckets[granularity.ordinal()].slice(firstBucket, lastBucket);
+        if (granularity != Granularity.DAILY) {
+            BucketArray daily = buckets[Granularity.DAILY.ordinal()];
+            counts[0] = daily.sum(from, Math.min(to, granularity.lastDay(firstBucket)));
+            if (lastBucket != firstBucket) {
+                counts[counts.length - 1] = daily.sum(granularity.firstDay(lastBucket), to);
+            }
+        }
+        return new RollupSlice(granularity, firstBucket, counts);
+    }
+
+    public static long epochDay(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+}
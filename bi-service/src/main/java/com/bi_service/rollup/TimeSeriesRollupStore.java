@@ -0,0 +1,76 @@
+package com.bi_service.rollup;
+
+import com.bi_service.snapshot.EntitySnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Keeps the entity and product rollups in step with the latest EntitySnapshot. Entity ids come
+// from an identity column, so a snapshot whose rows up to the previous highest id are exactly the
+// rows already seen only appended entities; those are added to the existing rollup instead of
+// rebuilding it. Products carry no id in the snapshot and are rolled up again per snapshot.
+@Slf4j
+@Component
+public class TimeSeriesRollupStore {
+
+    private EntitySnapshot syncedSnapshot;
+    private TimeSeriesRollup entities = new TimeSeriesRollup();
+    private TimeSeriesRollup products = new TimeSeriesRollup();
+    private long maxEntityId = Long.MIN_VALUE;
+    private int entityCount;
+
+    public synchronized RollupSlice entities(EntitySnapshot snapshot, Granularity granularity, long startDay, long endDay) {
+        sync(snapshot);
+        return entities.range(granularity, startDay, endDay);
+    }
+
+    public synchronized RollupSlice entities(EntitySnapshot snapshot, Granularity granularity) {
+        sync(snapshot);
+        return entities.all(granularity);
+    }
+
+    public synchronized RollupSlice products(EntitySnapshot snapshot, Granularity granularity) {
+        sync(snapshot);
+        return products.all(granularity);
+    }
+
+    private void sync(EntitySnapshot snapshot) {
+        if (snapshot == syncedSnapshot) {
+            return;
+        }
+        int previouslySeen = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (snapshot.id(row) <= maxEntityId) previouslySeen++;
+        }
+
+        int appended = 0;
+        if (syncedSnapshot != null && previouslySeen == entityCount) {
+            for (int row = 0; row < snapshot.size(); row++) {
+                if (snapshot.id(row) > maxEntityId) {
+                    addEntity(entities, snapshot, row);
+                    appended++;
+                }
+            }
+        } else {
+            entities = new TimeSeriesRollup();
+            entities.addAll(snapshot.createdAtIndex());
+        }
+
+        products = new TimeSeriesRollup();
+        products.addAll(snapshot.productCreatedAtIndex());
+
+        long highestId = Long.MIN_VALUE;
+        for (int row = 0; row < snapshot.size(); row++) {
+            highestId = Math.max(highestId, snapshot.id(row));
+        }
+        maxEntityId = highestId;
+        entityCount = snapshot.size();
+        log.debug("Time-series rollups synced: {} entities ({} appended), {} products",
+            entities.total(), appended, products.total());
+        syncedSnapshot = snapshot;
+    }
+
+    private static void addEntity(TimeSeriesRollup rollup, EntitySnapshot snapshot, int row) {
+        long createdAt = snapshot.createdAt(row);
+        if (createdAt != EntitySnapshot.NO_TIMESTAMP) rollup.add(createdAt);
+    }
+}
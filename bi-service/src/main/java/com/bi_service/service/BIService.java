@@ -1,16 +1,41 @@
 package com.bi_service.service;
 
+import com.bi_service.aggregation.ScorecardAggregates;
+import com.bi_service.analytics.CorrelationMatrix;
+import com.bi_service.analytics.ForecastEngine;
+import com.bi_service.aggregation.ScorecardKernel;
+import com.bi_service.aggregation.SectorAggregates;
+import com.bi_service.aggregation.SectorGrowthKernel;
+import com.bi_service.cube.BitmapIndex;
+import com.bi_service.cube.CubeDimension;
+import com.bi_service.cube.CubeQuery;
+import com.bi_service.cube.CubeResult;
+import com.bi_service.cube.CubeStore;
+import com.bi_service.dto.request.CubeQueryRequest;
 import com.bi_service.dto.request.TimeframeRequest;
 import com.bi_service.dto.response.AggregatedMetricsResponse;
-import com.bi_service.feign.EntiteClient;
-import com.bi_service.feign.ProductClient;
-import com.bi_service.feign.ParametrageClient;
+import com.bi_service.fetch.Deadline;
+import com.bi_service.fetch.DeadlineExceededException;
+import com.bi_service.pushdown.AggregatePushdown;
+import com.bi_service.rollup.Granularity;
+import com.bi_service.rollup.RollupSlice;
+import com.bi_service.rollup.TimeSeriesRollup;
+import com.bi_service.rollup.TimeSeriesRollupStore;
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotService;
+import com.bi_service.snapshot.TimestampParser;
+import com.bi_service.snapshot.TypeEntrepriseRef;
+import com.bi_service.trace.RequestTrace;
+import com.bi_service.trace.TraceLog;
+import com.bi_service.util.StatisticsUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -18,68 +43,63 @@ import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
 import java.util.Set;
-import java.util.Objects;
 import java.util.stream.Collectors;
-import java.time.temporal.TemporalAdjuster;
-import java.time.temporal.TemporalAdjusters;
-import java.time.DayOfWeek;
-import java.util.TreeMap;
+import java.util.function.IntToLongFunction;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BIService {
 
-    private final EntiteClient entiteClient;
+    private final SnapshotService snapshotService;
     private final DataProcessingService dataProcessingService;
-    private final ProductClient productClient;
-    private final ParametrageClient parametrageClient;
+    private final ScorecardKernel scorecardKernel;
+    private final SectorGrowthKernel sectorGrowthKernel;
+    private final TimeSeriesRollupStore rollupStore;
+    private final ForecastEngine forecastEngine;
+    private final AggregatePushdown aggregatePushdown;
+    private final CubeStore cubeStore;
+    private final TraceLog traceLog;
 
-    public AggregatedMetricsResponse getAggregatedMetrics(String token, TimeframeRequest request) {
-        Object entiteData = entiteClient.getAllEntites(token);
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    public AggregatedMetricsResponse getAggregatedMetrics(String token, TimeframeRequest request, Deadline deadline) {
         AggregatedMetricsResponse response = new AggregatedMetricsResponse();
-        
-        if (entiteData != null) {
-            try {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                
-                // Calculate total and active entities
-                response.setTotalEntities((long) entities.size());
-                response.setActiveEntities(entities.stream()
-                    .filter(e -> Boolean.TRUE.equals(e.get("active")))
-                    .count());
-                
-                // Process entity metrics
-                Map<String, Object> entityMetrics = dataProcessingService.processEntityData(entities);
-                response.setTrends(entityMetrics);
-                
-                // Calculate business metrics
-                Map<String, Object> businessMetrics = new HashMap<>();
-                businessMetrics.put("totalEntities", response.getTotalEntities());
-                businessMetrics.put("activeEntities", response.getActiveEntities());
-                businessMetrics.put("entityTypes", entityMetrics.get("distribution"));
-                businessMetrics.put("performance", entityMetrics.get("performance"));
-                response.setBusinessMetrics(businessMetrics);
-                
-                // Calculate correlations
-                Map<String, Object> correlations = new HashMap<>();
-                if (entityMetrics.containsKey("performance")) {
-                    Map<String, Object> performance = (Map<String, Object>) entityMetrics.get("performance");
-                    correlations.put("entityPerformance", calculateCorrelations(performance));
-                }
-                response.setCorrelations(correlations);
-                
-            } catch (Exception e) {
-                // If processing fails, set empty metrics
-                response.setTrends(new HashMap<>());
-                response.setBusinessMetrics(new HashMap<>());
-                response.setCorrelations(new HashMap<>());
+        EntitySnapshot snapshot = snapshotService.getSnapshot(deadline);
+
+        try {
+            response.setSnapshotAgeMs(snapshot.ageMillis());
+            response.setTimedOutSections(snapshot.isPartial() ? snapshot.getTimedOutSections() : null);
+
+            // Calculate total entities
+            response.setTotalEntities((long) snapshot.size());
+
+            // Process entity metrics
+            Map<String, Object> entityMetrics = dataProcessingService.processEntityData(snapshot);
+            response.setTrends(entityMetrics);
+
+            // Calculate business metrics
+            Map<String, Object> businessMetrics = new HashMap<>();
+            businessMetrics.put("totalEntities", response.getTotalEntities());
+            businessMetrics.put("entityTypes", entityMetrics.get("distribution"));
+            businessMetrics.put("performance", entityMetrics.get("performance"));
+            response.setBusinessMetrics(businessMetrics);
+
+            // Calculate correlations
+            Map<String, Object> correlations = new HashMap<>();
+            if (entityMetrics.containsKey("performance")) {
+                Map<String, Object> performance = (Map<String, Object>) entityMetrics.get("performance");
+                correlations.put("entityPerformance", calculateCorrelations(performance));
             }
-        } else {
+            response.setCorrelations(correlations);
+
+        } catch (Exception e) {
+            // If processing fails, set empty metrics
             response.setTrends(new HashMap<>());
             response.setBusinessMetrics(new HashMap<>());
             response.setCorrelations(new HashMap<>());
         }
-        
+
         return response;
     }
 
@@ -96,7 +116,7 @@ public class BIService {
                     }
                 }
             });
-            
+
             // Calculate correlations between metrics
             List<String> metricKeys = new ArrayList<>(metrics.keySet());
             for (int i = 0; i < metricKeys.size(); i++) {
@@ -105,9 +125,9 @@ public class BIService {
                     String metric2 = metricKeys.get(j);
                     List<Double> values1 = metrics.get(metric1);
                     List<Double> values2 = metrics.get(metric2);
-                    
+
                     if (values1 != null && values2 != null && values1.size() == values2.size()) {
-                        double correlation = calculatePearsonCorrelation(values1, values2);
+                        double correlation = StatisticsUtils.calculateCorrelation(values1, values2);
                         correlations.put(metric1 + "_" + metric2, correlation);
                     }
                 }
@@ -118,735 +138,585 @@ public class BIService {
         return correlations;
     }
 
-    private double calculatePearsonCorrelation(List<Double> x, List<Double> y) {
-        if (x.size() != y.size() || x.isEmpty()) {
-            return 0.0;
-        }
-
-        double sumX = 0.0, sumY = 0.0, sumXY = 0.0;
-        double sumX2 = 0.0, sumY2 = 0.0;
-        int n = x.size();
-
-        for (int i = 0; i < n; i++) {
-            sumX += x.get(i);
-            sumY += y.get(i);
-            sumXY += x.get(i) * y.get(i);
-            sumX2 += x.get(i) * x.get(i);
-            sumY2 += y.get(i) * y.get(i);
-        }
-
-        double numerator = n * sumXY - sumX * sumY;
-        double denominator = Math.sqrt((n * sumX2 - sumX * sumX) * (n * sumY2 - sumY * sumY));
-
-        return denominator == 0 ? 0 : numerator / denominator;
-    }
-
-    public Map<String, Object> getTimeSeriesAnalysis(String token, TimeframeRequest request) {
+    public Map<String, Object> getTimeSeriesAnalysis(String token, TimeframeRequest request, Deadline deadline) {
         Map<String, Object> timeSeriesData = new HashMap<>();
         List<Map<String, Object>> chartData = new ArrayList<>();
+        Map<String, Object> movingAverages = new HashMap<>();
+        Map<String, Object> forecasts = new HashMap<>();
+        EntitySnapshot snapshot = snapshotService.getSnapshot(deadline);
 
         try {
-            System.out.println("Time Series Analysis: Fetching entities...");
-            Object entiteData = entiteClient.getAllEntites(token);
-
-            if (entiteData != null && entiteData instanceof List) {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                System.out.println("Time Series Analysis: " + entities.size() + " entities fetched.");
-                if (!entities.isEmpty()) {
-                    System.out.println("Time Series Analysis: First entity raw data: " + entities.get(0));
-                }
+            putSnapshotState(timeSeriesData, snapshot);
 
-                // Filter by date range if provided
-                List<Map<String, Object>> filteredEntities = entities.stream()
-                    .filter(entity -> {
-                        // Log for debugging createdAt presence and value
-                        if (!entity.containsKey("createdAt")) {
-                            System.out.println("Time Series Analysis: Entity missing createdAt: " + entity.get("id"));
-                            return false;
-                        }
-                        Object createdAtObj = entity.get("createdAt");
-                        if (!(createdAtObj instanceof String)) {
-                            System.out.println("Time Series Analysis: createdAt is not a String for entity " + entity.get("id") + ": " + createdAtObj);
-                            return false;
-                        }
-                        String createdAtStr = (String) createdAtObj;
-                        System.out.println("Time Series Analysis: Processing entity " + entity.get("id") + " createdAt: " + createdAtStr);
-
-                        LocalDateTime entityCreatedAt = LocalDateTime.parse(createdAtStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                        if (request.getStartDate() != null) {
-                            LocalDateTime startDate = LocalDateTime.parse(request.getStartDate(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                            if (entityCreatedAt.isBefore(startDate)) return false;
-                        }
-                        if (request.getEndDate() != null) {
-                            LocalDateTime entityCreatedAtForEndDateCheck = LocalDateTime.parse(createdAtStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                            LocalDateTime endDate = LocalDateTime.parse(request.getEndDate(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                            if (entityCreatedAtForEndDateCheck.isAfter(endDate)) return false;
-                        }
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-
-                System.out.println("Time Series Analysis: " + filteredEntities.size() + " entities after date filtering.");
-
-                // Aggregate data by interval
-                Map<String, Long> aggregatedCounts = new TreeMap<>(); // TreeMap to keep dates sorted
-                DateTimeFormatter formatter;
-                TemporalAdjuster adjuster = null;
-
-                switch (request.getInterval().toLowerCase()) {
-                    case "daily":
-                        formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                        break;
-                    case "weekly":
-                        formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd"); // Start of week
-                        adjuster = TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY);
-                        break;
-                    case "monthly":
-                        formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-                        break;
-                    case "quarterly":
-                        formatter = DateTimeFormatter.ofPattern("yyyy-Q"); // Custom for quarter
-                        break;
-                    default:
-                        formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            // The rollups are kept per day, so the requested range is widened to whole days
+            Granularity granularity = Granularity.from(request.getInterval());
+            RollupSlice slice;
+            try (RequestTrace.Span span = RequestTrace.span("timeseries.rollup")) {
+                if (request.getStartDate() == null && request.getEndDate() == null) {
+                    slice = rollupStore.entities(snapshot, granularity);
+                    timeSeriesData.put("totalInRange", snapshot.createdAtIndex().size());
+                } else {
+                    long startDay = request.getStartDate() != null ? requestDay(request.getStartDate(), "startDate") : Long.MIN_VALUE;
+                    long endDay = request.getEndDate() != null ? requestDay(request.getEndDate(), "endDate") : Long.MAX_VALUE;
+                    slice = rollupStore.entities(snapshot, granularity, startDay, endDay);
+                    timeSeriesData.put("totalInRange", snapshot.createdAtIndex().count(
+                        startDay == Long.MIN_VALUE ? Long.MIN_VALUE : startDay * SECONDS_PER_DAY,
+                        endDay == Long.MAX_VALUE ? Long.MAX_VALUE : (endDay + 1) * SECONDS_PER_DAY - 1));
                 }
+            }
 
-                for (Map<String, Object> entity : filteredEntities) {
-                    if (entity.containsKey("createdAt")) {
-                        LocalDateTime createdAt = LocalDateTime.parse((String) entity.get("createdAt"), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                        String key;
-
-                        if ("quarterly".equals(request.getInterval().toLowerCase())) {
-                            int quarter = (createdAt.getMonthValue() - 1) / 3 + 1;
-                            key = createdAt.getYear() + "-Q" + quarter;
-                        } else if ("weekly".equals(request.getInterval().toLowerCase()) && adjuster != null) {
-                            key = createdAt.with(adjuster).format(formatter);
-                        } else {
-                            key = createdAt.format(formatter);
-                        }
-                        aggregatedCounts.merge(key, 1L, Long::sum);
-                    }
+            // Prepare data for chart, skipping empty buckets
+            for (int i = 0; i < slice.length(); i++) {
+                if (slice.count(i) == 0) {
+                    continue;
                 }
+                Map<String, Object> dataPoint = new HashMap<>();
+                dataPoint.put("date", slice.label(i));
+                dataPoint.put("value", slice.count(i));
+                chartData.add(dataPoint);
+            }
+            log.debug("Time series: {} entities, {} data points", snapshot.size(), chartData.size());
 
-                // Prepare data for chart
-                for (Map.Entry<String, Long> entry : aggregatedCounts.entrySet()) {
-                    Map<String, Object> dataPoint = new HashMap<>();
-                    dataPoint.put("date", entry.getKey());
-                    dataPoint.put("value", entry.getValue());
-                    chartData.add(dataPoint);
+            if (request.isIncludeForecast()) {
+                try (RequestTrace.Span span = RequestTrace.span("timeseries.forecast")) {
+                    movingAverages = forecastEngine.movingAverages(slice);
+                    forecasts = forecastEngine.forecasts(slice);
                 }
-                System.out.println("Time Series Analysis: Chart data prepared: " + chartData.size() + " data points.");
             }
         } catch (Exception e) {
-            System.err.println("Error in getTimeSeriesAnalysis: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error in getTimeSeriesAnalysis: {}", e.getMessage(), e);
             timeSeriesData.put("error", "Failed to generate time series: " + e.getMessage());
         }
 
         timeSeriesData.put("timeSeriesData", chartData);
-        timeSeriesData.put("movingAverages", new HashMap<>()); // Placeholder
-        timeSeriesData.put("forecasts", new HashMap<>());    // Placeholder
+        timeSeriesData.put("movingAverages", movingAverages);
+        timeSeriesData.put("forecasts", forecasts);
 
         return timeSeriesData;
     }
 
-    public Map<String, Object> getTimeSeriesAnalysis(String token, String metric, String interval, String startDate, String endDate, boolean includeForecast) {
+    // Epoch day of a request bound, read with the same parser as the snapshot's timestamps
+    private static long requestDay(String value, String name) {
+        long epochSecond = TimestampParser.parse(value);
+        if (epochSecond == EntitySnapshot.NO_TIMESTAMP) {
+            throw new IllegalArgumentException("Unreadable " + name + ": " + value);
+        }
+        return TimeSeriesRollup.epochDay(epochSecond);
+    }
+
+    public Map<String, Object> getTimeSeriesAnalysis(String token, String metric, String interval, String startDate, String endDate,
+                                                     boolean includeForecast, Deadline deadline) {
         TimeframeRequest request = new TimeframeRequest();
         request.setMetric(metric);
         request.setInterval(interval);
         request.setStartDate(startDate);
         request.setEndDate(endDate);
-        return getTimeSeriesAnalysis(token, request);
+        request.setIncludeForecast(includeForecast);
+        return getTimeSeriesAnalysis(token, request, deadline);
     }
 
-    public Map<String, Object> getEntityAnalytics(String token) {
+    public Map<String, Object> getEntityAnalytics(String token, Deadline deadline) {
         Map<String, Object> result = new HashMap<>();
-        
+        EntitySnapshot snapshot = snapshotService.peek();
+        if (snapshot != null || !aggregatePushdown.isEnabled()) {
+            snapshot = snapshotService.getSnapshot(deadline);
+        }
+
         try {
-            // Get entities from entite service
-            Object entiteData = entiteClient.getAllEntites(token);
-            // Get type entreprises from parametrage service
-            Object typeEntreprisesData = parametrageClient.getAllTypeEntreprises(token);
-            
-            if (entiteData != null && typeEntreprisesData != null) {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                List<Map<String, Object>> typeEntreprises = (List<Map<String, Object>>) typeEntreprisesData;
-                
-                // Initialize distribution map
-                Map<String, Long> typeEntrepriseDistribution = new HashMap<>();
-                Map<String, Object> typeEntrepriseDetails = new HashMap<>();
-                
-                // First, initialize all type entreprises with 0 count
-                for (Map<String, Object> type : typeEntreprises) {
-                    String typeName = (String) type.get("nom");
-                    if (typeName != null) {
-                        typeEntrepriseDistribution.put(typeName, 0L);
-                        typeEntrepriseDetails.put(typeName, new HashMap<String, Object>() {{
-                            put("id", type.get("id"));
-                            put("description", type.get("description"));
-                            put("type", type.get("type"));
-                            put("status", type.get("status"));
-                        }});
-                    }
+            List<TypeEntrepriseRef> typeEntreprises;
+            Map<Long, Long> countsByTypeId;
+            long totalEntities;
+            if (snapshot == null) {
+                // No snapshot loaded yet: fetch the grouped counts rather than every entity
+                typeEntreprises = aggregatePushdown.typeEntreprises(token, deadline);
+                countsByTypeId = aggregatePushdown.countsByTypeEntrepriseId(token, deadline);
+                totalEntities = aggregatePushdown.totalEntities(token, deadline);
+                result.put("source", "aggregates");
+            } else {
+                putSnapshotState(result, snapshot);
+                typeEntreprises = snapshot.typeEntreprises();
+                countsByTypeId = countByTypeEntrepriseId(snapshot, cubeStore.cube(snapshot).index());
+                totalEntities = snapshot.size();
+            }
+
+            // Initialize distribution map
+            Map<String, Long> typeEntrepriseDistribution = new HashMap<>();
+            Map<String, Object> typeEntrepriseDetails = new HashMap<>();
+            Map<Long, String> typeNamesById = new HashMap<>();
+
+            // First, initialize all type entreprises with 0 count
+            for (TypeEntrepriseRef type : typeEntreprises) {
+                String typeName = type.nom();
+                if (type.id() != null) {
+                    typeNamesById.putIfAbsent(type.id(), typeName);
                 }
-                
-                // Count entities for each type entreprise
-                for (Map<String, Object> entity : entities) {
-                    Long typeEntrepriseId = (Long) entity.get("typeEntrepriseId");
-                    if (typeEntrepriseId != null) {
-                        // Find the type entreprise name for this ID
-                        for (Map<String, Object> type : typeEntreprises) {
-                            if (typeEntrepriseId.equals(type.get("id"))) {
-                                String typeName = (String) type.get("nom");
-                                if (typeName != null) {
-                                    typeEntrepriseDistribution.merge(typeName, 1L, Long::sum);
-                                }
-                                break;
-                            }
-                        }
-                    }
+                if (typeName != null) {
+                    typeEntrepriseDistribution.put(typeName, 0L);
+                    Map<String, Object> details = new HashMap<>();
+                    details.put("id", type.id());
+                    details.put("description", type.description());
+                    details.put("type", type.type());
+                    details.put("status", type.status());
+                    typeEntrepriseDetails.put(typeName, details);
                 }
-                
-                // Calculate percentages and additional metrics
-                Map<String, Object> performance = new HashMap<>();
-                for (String typeName : typeEntrepriseDistribution.keySet()) {
-                    Map<String, Object> metrics = new HashMap<>();
-                    Long count = typeEntrepriseDistribution.get(typeName);
-                    metrics.put("count", count);
-                    metrics.put("percentage", (double) count / entities.size() * 100);
-                    metrics.put("details", typeEntrepriseDetails.get(typeName));
-                    performance.put(typeName, metrics);
+            }
+
+            // Resolve each typeEntrepriseId to its name once
+            for (Map.Entry<Long, Long> entry : countsByTypeId.entrySet()) {
+                String typeName = typeNamesById.get(entry.getKey());
+                if (typeName != null && entry.getValue() > 0) {
+                    typeEntrepriseDistribution.merge(typeName, entry.getValue(), Long::sum);
                 }
-                
-                result.put("entityDistribution", typeEntrepriseDistribution);
-                result.put("performance", performance);
-                result.put("totalEntities", (long) entities.size());
-                result.put("totalTypes", (long) typeEntreprises.size());
             }
+
+            // Calculate percentages and additional metrics
+            Map<String, Object> performance = new HashMap<>();
+            for (String typeName : typeEntrepriseDistribution.keySet()) {
+                Map<String, Object> metrics = new HashMap<>();
+                Long count = typeEntrepriseDistribution.get(typeName);
+                metrics.put("count", count);
+                metrics.put("percentage", (double) count / totalEntities * 100);
+                metrics.put("details", typeEntrepriseDetails.get(typeName));
+                performance.put(typeName, metrics);
+            }
+
+            result.put("entityDistribution", typeEntrepriseDistribution);
+            result.put("performance", performance);
+            result.put("totalEntities", totalEntities);
+            result.put("totalTypes", (long) typeEntreprises.size());
         } catch (Exception e) {
-            System.out.println("Error processing entity analytics: " + e.getMessage());
-            e.printStackTrace();
+            if (deadline != null && Deadline.isTimeout(e)) {
+                throw new DeadlineExceededException(List.of("aggregates"), deadline.budgetMillis());
+            }
+            log.warn("Error processing entity analytics: {}", e.getMessage(), e);
         }
-        
+
         // Ensure we always return all required fields, even if empty
         if (!result.containsKey("entityDistribution")) result.put("entityDistribution", new HashMap<>());
         if (!result.containsKey("performance")) result.put("performance", new HashMap<>());
         if (!result.containsKey("totalEntities")) result.put("totalEntities", 0L);
         if (!result.containsKey("totalTypes")) result.put("totalTypes", 0L);
-        
+
         return result;
     }
 
-    public Map<String, Object> getSectorAnalysis(String token) {
+    // Snapshot age, plus the sources that were left out when the snapshot is partial
+    private static void putSnapshotState(Map<String, Object> result, EntitySnapshot snapshot) {
+        result.put("snapshotAgeMs", snapshot.ageMillis());
+        if (snapshot.isPartial()) {
+            result.put("timedOutSections", snapshot.getTimedOutSections());
+        }
+    }
+
+    private static Map<Long, Long> countByTypeEntrepriseId(EntitySnapshot snapshot, BitmapIndex index) {
+        Dictionary<Long> typeIds = snapshot.typeEntrepriseIds();
+        Map<Long, Long> counts = new HashMap<>();
+        for (int code = 0; code < typeIds.size(); code++) {
+            counts.put(typeIds.value(code), index.rows(CubeDimension.TYPE_ENTREPRISE, code).getLongCardinality());
+        }
+        return counts;
+    }
+
+    public Map<String, Object> getSectorAnalysis(String token, Deadline deadline) {
+        return getSectorAnalysis(snapshotService.getSnapshot(deadline));
+    }
+
+    public Map<String, Object> getSectorAnalysis(EntitySnapshot snapshot) {
         Map<String, Object> result = new HashMap<>();
-        
+
         try {
-            // Get sector definitions from parametrage service
-            System.out.println("Fetching sectors from parametrage service...");
-            Object secteursData = parametrageClient.getAllSecteurs(token);
-            System.out.println("Secteurs data received: " + secteursData);
-            
-            System.out.println("Fetching sous-secteurs from parametrage service...");
-            Object sousSecteursData = parametrageClient.getAllSousSecteurs(token);
-            System.out.println("Sous-secteurs data received: " + sousSecteursData);
-            
-            // Get entity data
-            System.out.println("Fetching entities from entite service...");
-            Object entiteData = entiteClient.getAllEntites(token);
-            System.out.println("Entities data received: " + entiteData);
-            
-            if (entiteData != null && secteursData != null && sousSecteursData != null) {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                List<Map<String, Object>> secteurs = (List<Map<String, Object>>) secteursData;
-                List<Map<String, Object>> sousSecteurs = (List<Map<String, Object>>) sousSecteursData;
-                
-                System.out.println("Number of entities: " + entities.size());
-                System.out.println("Number of sectors: " + secteurs.size());
-                System.out.println("Number of sous-secteurs: " + sousSecteurs.size());
-                
-                // Initialize maps for sector analysis
-                Map<String, Long> sectorDistribution = new HashMap<>();
-                Map<String, Long> sousSecteurDistribution = new HashMap<>();
-                Map<String, Object> sectorPerformance = new HashMap<>();
-                Map<String, Object> sectorTrends = new HashMap<>();
-                
-                // First, initialize all sectors with 0 count
-                for (Map<String, Object> secteur : secteurs) {
-                    String secteurName = (String) secteur.get("nom");
-                    if (secteurName != null) {
-                        sectorDistribution.put(secteurName, 0L);
-                        System.out.println("Initialized sector: " + secteurName);
-                    }
-                }
-                
-                // Initialize all sub-sectors with 0 count
-                for (Map<String, Object> sousSecteur : sousSecteurs) {
-                    String sousSecteurName = (String) sousSecteur.get("nom");
-                    if (sousSecteurName != null) {
-                        sousSecteurDistribution.put(sousSecteurName, 0L);
-                        System.out.println("Initialized sous-secteur: " + sousSecteurName);
-                    }
-                }
-                
-                // Process each entity's business data
-                int processedEntities = 0;
-                for (Map<String, Object> entity : entities) {
-                    if (entity.containsKey("entiteBusiness")) {
-                        Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                        System.out.println("Processing entity business data: " + business);
-                        
-                        // Get sector name directly from business data
-                        String secteurName = (String) business.get("secteur");
-                        if (secteurName != null) {
-                            System.out.println("Found secteur: " + secteurName);
-                            sectorDistribution.merge(secteurName, 1L, Long::sum);
-                            System.out.println("Added entity to sector: " + secteurName);
-                        } else {
-                            System.out.println("No secteur found for entity");
-                        }
-                        
-                        // Get sub-sector name directly from business data
-                        String sousSecteurName = (String) business.get("sousSecteur");
-                        if (sousSecteurName != null) {
-                            System.out.println("Found sous-secteur: " + sousSecteurName);
-                            sousSecteurDistribution.merge(sousSecteurName, 1L, Long::sum);
-                            System.out.println("Added entity to sous-secteur: " + sousSecteurName);
-                        } else {
-                            System.out.println("No sous-secteur found for entity");
-                        }
-                        processedEntities++;
-                    } else {
-                        System.out.println("Entity has no business data: " + entity);
-                    }
-                }
-                
-                System.out.println("Processed " + processedEntities + " entities with business data");
-                System.out.println("Final sector distribution: " + sectorDistribution);
-                System.out.println("Final sous-secteur distribution: " + sousSecteurDistribution);
-                
-                // Calculate sector performance metrics
-                for (String secteur : sectorDistribution.keySet()) {
-                    Map<String, Object> metrics = new HashMap<>();
-                    metrics.put("count", sectorDistribution.get(secteur));
-                    metrics.put("percentage", (double) sectorDistribution.get(secteur) / entities.size() * 100);
-                    sectorPerformance.put(secteur, metrics);
-                }
-                
-                // Calculate trends
-                for (String secteur : sectorDistribution.keySet()) {
-                    Map<String, Object> trend = new HashMap<>();
-                    trend.put("total", sectorDistribution.get(secteur));
-                    trend.put("growth", calculateSectorGrowth(entities, secteur));
-                    sectorTrends.put(secteur, trend);
-                }
-                
-                // Build the response
-                result.put("secteurs", sectorDistribution);
-                result.put("sousSecteurs", sousSecteurDistribution);
-                result.put("performance", sectorPerformance);
-                result.put("trends", sectorTrends);
-                
-                System.out.println("Final sector analysis result: " + result);
-            } else {
-                System.out.println("Missing data - entiteData: " + (entiteData != null) + 
-                                 ", secteursData: " + (secteursData != null) + 
-                                 ", sousSecteursData: " + (sousSecteursData != null));
+            putSnapshotState(result, snapshot);
+            log.debug("Sector analysis: {} entities, {} sectors, {} sous-secteurs",
+                snapshot.size(), snapshot.secteurNames().size(), snapshot.sousSecteurNames().size());
+
+            // Initialize maps for sector analysis
+            Map<String, Long> sectorDistribution = new HashMap<>();
+            Map<String, Long> sousSecteurDistribution = new HashMap<>();
+            Map<String, Object> sectorPerformance = new HashMap<>();
+            Map<String, Object> sectorTrends = new HashMap<>();
+
+            // First, initialize all sectors with 0 count
+            for (String secteurName : snapshot.secteurNames()) {
+                sectorDistribution.put(secteurName, 0L);
+            }
+
+            // Initialize all sub-sectors with 0 count
+            for (String sousSecteurName : snapshot.sousSecteurNames()) {
+                sousSecteurDistribution.put(sousSecteurName, 0L);
+            }
+
+            // Count sectors, sub-sectors and their recent entities from the bitmap index
+            SectorAggregates aggregates;
+            try (RequestTrace.Span span = RequestTrace.span("sector.aggregate")) {
+                aggregates = sectorGrowthKernel.aggregate(cubeStore.cube(snapshot).index());
             }
+            for (int code = 0; code < snapshot.secteurs().size(); code++) {
+                sectorDistribution.merge(snapshot.secteurs().value(code), aggregates.secteurCount(code), Long::sum);
+            }
+            for (int code = 0; code < snapshot.sousSecteurs().size(); code++) {
+                sousSecteurDistribution.merge(snapshot.sousSecteurs().value(code), aggregates.sousSecteurCount(code), Long::sum);
+            }
+
+            // Calculate performance metrics and trends for sectors and sub-sectors
+            Map<String, Object> sousSecteurPerformance = new HashMap<>();
+            Map<String, Object> sousSecteurTrends = new HashMap<>();
+            fillSectorMetrics(snapshot, sectorDistribution, snapshot.secteurs(), aggregates::secteurGrowth,
+                aggregates.windowDays(), sectorPerformance, sectorTrends);
+            fillSectorMetrics(snapshot, sousSecteurDistribution, snapshot.sousSecteurs(), aggregates::sousSecteurGrowth,
+                aggregates.windowDays(), sousSecteurPerformance, sousSecteurTrends);
+
+            // Build the response
+            result.put("secteurs", sectorDistribution);
+            result.put("sousSecteurs", sousSecteurDistribution);
+            result.put("performance", sectorPerformance);
+            result.put("trends", sectorTrends);
+            result.put("sousSecteurPerformance", sousSecteurPerformance);
+            result.put("sousSecteurTrends", sousSecteurTrends);
+
+            traceLog.payload("sector-analysis", () -> result);
         } catch (Exception e) {
-            System.out.println("Error processing sector analysis: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error processing sector analysis: {}", e.getMessage(), e);
         }
-        
+
         // Ensure we always return all required fields, even if empty
         if (!result.containsKey("secteurs")) result.put("secteurs", new HashMap<>());
         if (!result.containsKey("sousSecteurs")) result.put("sousSecteurs", new HashMap<>());
         if (!result.containsKey("performance")) result.put("performance", new HashMap<>());
         if (!result.containsKey("trends")) result.put("trends", new HashMap<>());
-        
+
         return result;
     }
 
-    private double calculateSectorGrowth(List<Map<String, Object>> entities, String secteur) {
-        // Count entities in this sector created in the last 30 days
-        long recentCount = entities.stream()
-            .filter(e -> {
-                if (e.containsKey("entiteBusiness")) {
-                    Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                    String entitySecteur = (String) business.get("secteur");
-                    return secteur.equals(entitySecteur) && 
-                           isRecentEntity(e.get("createdAt"));
-                }
-                return false;
-            })
-            .count();
-        
-        // Calculate growth rate
-        long totalInSector = entities.stream()
-            .filter(e -> {
-                if (e.containsKey("entiteBusiness")) {
-                    Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                    return secteur.equals(business.get("secteur"));
-                }
-                return false;
-            })
-            .count();
-        
-        return totalInSector > 0 ? (double) recentCount / totalInSector * 100 : 0.0;
-    }
+    private void fillSectorMetrics(EntitySnapshot snapshot, Map<String, Long> distribution, Dictionary<String> dictionary,
+                                   GrowthLookup growth, int[] windowDays,
+                                   Map<String, Object> performance, Map<String, Object> trends) {
+        for (Map.Entry<String, Long> entry : distribution.entrySet()) {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("count", entry.getValue());
+            metrics.put("percentage", (double) entry.getValue() / snapshot.size() * 100);
+            performance.put(entry.getKey(), metrics);
 
-    private boolean isRecentEntity(Object createdAt) {
-        if (createdAt == null) return false;
-        
-        try {
-            LocalDateTime date;
-            if (createdAt instanceof String) {
-                String dateStr = (String) createdAt;
-                try {
-                    date = LocalDateTime.parse(dateStr);
-                } catch (Exception e) {
-                    date = OffsetDateTime.parse(dateStr, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
-                        .toLocalDateTime();
-                }
-            } else {
-                return false;
+            // "growth" keeps its 30-day meaning; every configured window is listed under growthWindows
+            int code = dictionary.code(entry.getKey());
+            Map<String, Double> windows = new LinkedHashMap<>();
+            double thirtyDayGrowth = 0.0;
+            for (int w = 0; w < windowDays.length; w++) {
+                double value = code != Dictionary.MISSING ? growth.growth(w, code) : 0.0;
+                windows.put(windowDays[w] + "d", value);
+                if (windowDays[w] == 30) thirtyDayGrowth = value;
             }
-            
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            return date.isAfter(thirtyDaysAgo);
-        } catch (Exception e) {
-            return false;
+            Map<String, Object> trend = new HashMap<>();
+            trend.put("total", entry.getValue());
+            trend.put("growth", thirtyDayGrowth);
+            trend.put("growthWindows", windows);
+            trends.put(entry.getKey(), trend);
         }
     }
 
-    public Map<String, Object> getProductTimeSeries(String token, String interval) {
-        Object produitsData = productClient.getAllProduits(token);
-        List<Map<String, Object>> produits = (List<Map<String, Object>>) produitsData;
+    @FunctionalInterface
+    private interface GrowthLookup {
+        double growth(int window, int code);
+    }
+
+    public Map<String, Object> getProductTimeSeries(String token, String interval, boolean includeForecast, Deadline deadline) {
+        EntitySnapshot snapshot = snapshotService.getSnapshot(deadline);
         Map<String, Integer> timeSeries = new LinkedHashMap<>();
 
-        for (Map<String, Object> produit : produits) {
-            String createdAt = (String) produit.get("created_at");
-            if (createdAt == null) {
-                createdAt = (String) produit.get("createdAt"); // try camelCase if snake_case not found
-            }
-            System.out.println("createdAt: " + createdAt);
-            if (createdAt != null) {
-                try {
-                    java.time.LocalDateTime date;
-                    try {
-                        // Try ISO_LOCAL_DATE_TIME first
-                        date = java.time.LocalDateTime.parse(createdAt);
-                    } catch (Exception e1) {
-                        try {
-                            // Try ISO_OFFSET_DATE_TIME (handles the +00:00)
-                            date = OffsetDateTime.parse(createdAt, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toLocalDateTime();
-                        } catch (Exception e2) {
-                            // Try your custom format as a last resort
-                            java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                            date = java.time.LocalDateTime.parse(createdAt, formatter);
-                        }
-                    }
-                    System.out.println("Parsed date: " + date);
-                    String key;
-                    if ("monthly".equalsIgnoreCase(interval)) {
-                        key = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-                    } else if ("daily".equalsIgnoreCase(interval)) {
-                        key = date.toLocalDate().toString();
-                    } else {
-                        key = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-                    }
-                    timeSeries.put(key, timeSeries.getOrDefault(key, 0) + 1);
-                } catch (Exception e) {
-                    System.out.println("Failed to parse date: " + createdAt);
-                }
+        // Products are bucketed daily or, for any other interval, monthly
+        Granularity granularity = "daily".equalsIgnoreCase(interval) ? Granularity.DAILY : Granularity.MONTHLY;
+        RollupSlice slice = rollupStore.products(snapshot, granularity);
+        for (int i = 0; i < slice.length(); i++) {
+            if (slice.count(i) > 0) {
+                timeSeries.put(slice.label(i), (int) slice.count(i));
             }
         }
-        System.out.println("Aggregated time series: " + timeSeries);
+        traceLog.payload("product-timeseries", () -> timeSeries);
         Map<String, Object> response = new HashMap<>();
         response.put("timeSeriesData", timeSeries);
+        putSnapshotState(response, snapshot);
+        if (includeForecast) {
+            response.put("movingAverages", forecastEngine.movingAverages(slice));
+            response.put("forecasts", forecastEngine.forecasts(slice));
+        }
+        return response;
+    }
+
+    // Ad-hoc filter + group-by + measure query over the entity cube
+    public Map<String, Object> queryCube(String token, CubeQueryRequest request, Deadline deadline) {
+        CubeQuery query;
+        try {
+            query = CubeQuery.parse(request.getFilters(), request.getGroupBy(), request.getMeasures(), request.getLimit());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        EntitySnapshot snapshot = snapshotService.getSnapshot(deadline);
+        CubeResult result = cubeStore.cube(snapshot).query(query);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rows", result.rows());
+        response.put("groups", result.groups());
+        response.put("matchedRows", result.matchedRows());
+        response.put("totalRows", snapshot.size());
+        response.put("elapsedMicros", result.elapsedMicros());
+        putSnapshotState(response, snapshot);
         return response;
     }
 
     // Enhanced correlation analysis for business insights
-    public Map<String, Object> getBusinessCorrelations(String token) {
+    public Map<String, Object> getBusinessCorrelations(String token, Deadline deadline) {
+        return getBusinessCorrelations(snapshotService.getSnapshot(deadline));
+    }
+
+    public Map<String, Object> getBusinessCorrelations(EntitySnapshot snapshot) {
         Map<String, Object> result = new HashMap<>();
-        
+
         try {
-            Object entiteData = entiteClient.getAllEntites(token);
-            if (entiteData != null) {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                
-                // Business Performance Correlations
-                Map<String, Object> businessCorrelations = analyzeBusinessCorrelations(entities);
-                result.put("businessCorrelations", businessCorrelations);
-                
-                // Sector Performance Correlations
-                Map<String, Object> sectorCorrelations = analyzeSectorCorrelations(entities);
-                result.put("sectorCorrelations", sectorCorrelations);
-                
-                // Geographic Correlations
-                Map<String, Object> geographicCorrelations = analyzeGeographicCorrelations(entities);
-                result.put("geographicCorrelations", geographicCorrelations);
-                
-                // Risk Analysis Correlations
-                Map<String, Object> riskCorrelations = analyzeRiskCorrelations(entities);
-                result.put("riskCorrelations", riskCorrelations);
-                
-                // Summary insights
-                Map<String, Object> insights = generateCorrelationInsights(businessCorrelations, sectorCorrelations, geographicCorrelations, riskCorrelations);
-                result.put("insights", insights);
-            }
+            putSnapshotState(result, snapshot);
+
+            // Business Performance Correlations
+            Map<String, Object> businessCorrelations = analyzeBusinessCorrelations(snapshot);
+            result.put("businessCorrelations", businessCorrelations);
+
+            // Sector Performance Correlations
+            Map<String, Object> sectorCorrelations = analyzeSectorCorrelations(snapshot);
+            result.put("sectorCorrelations", sectorCorrelations);
+
+            // Geographic Correlations
+            Map<String, Object> geographicCorrelations = analyzeGeographicCorrelations(snapshot);
+            result.put("geographicCorrelations", geographicCorrelations);
+
+            // Risk Analysis Correlations
+            Map<String, Object> riskCorrelations = analyzeRiskCorrelations(snapshot);
+            result.put("riskCorrelations", riskCorrelations);
+
+            // Summary insights
+            Map<String, Object> insights = generateCorrelationInsights(businessCorrelations, sectorCorrelations, geographicCorrelations, riskCorrelations);
+            result.put("insights", insights);
         } catch (Exception e) {
-            System.out.println("Error calculating business correlations: " + e.getMessage());
+            log.warn("Error calculating business correlations: {}", e.getMessage(), e);
         }
-        
+
+        return result;
+    }
+
+    // Pearson and Spearman matrices over every numeric entity field
+    public Map<String, Object> getCorrelationMatrix(String token, Deadline deadline) {
+        return getCorrelationMatrix(snapshotService.getSnapshot(deadline));
+    }
+
+    public Map<String, Object> getCorrelationMatrix(EntitySnapshot snapshot) {
+        long started = System.nanoTime();
+
+        NumericField[] fields = NumericField.values();
+        List<String> names = new ArrayList<>(fields.length);
+        double[][] columns = new double[fields.length][];
+        for (int i = 0; i < fields.length; i++) {
+            names.add(fields[i].label);
+            columns[i] = numericColumn(snapshot, fields[i]);
+        }
+        CorrelationMatrix matrix = CorrelationMatrix.compute(names, columns);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("fields", matrix.fields());
+        result.put("pearson", matrix.pearsonRows());
+        result.put("spearman", matrix.spearmanRows());
+        result.put("pairCounts", matrix.pairCountRows());
+        result.put("rows", snapshot.size());
+        result.put("computeTimeMs", (System.nanoTime() - started) / 1_000_000);
+        putSnapshotState(result, snapshot);
         return result;
     }
 
+    private enum NumericField {
+        ENTITE_RISK("entiteRisk"),
+        RISK("risk"),
+        TOME("tome"),
+        COMPANY_AGE("companyAge"),
+        EFFECTIF("effectif"),
+        CAPITAL("capital"),
+        CHIFFRE_AFFAIRE("chiffreAffaire");
+
+        private final String label;
+
+        NumericField(String label) {
+            this.label = label;
+        }
+    }
+
+    // Column of the field for every snapshot row, NaN where the entity has no value
+    private static double[] numericColumn(EntitySnapshot snapshot, NumericField field) {
+        double[] column = new double[snapshot.size()];
+        for (int row = 0; row < column.length; row++) {
+            column[row] = switch (field) {
+                case ENTITE_RISK -> orNaN(snapshot.risk(row));
+                case RISK -> orNaN(snapshot.businessRisk(row));
+                case TOME -> orNaN(snapshot.tome(row));
+                case COMPANY_AGE -> orNaN(snapshot.companyAge(row));
+                case EFFECTIF -> snapshot.effectif(row);
+                case CAPITAL -> snapshot.capital(row);
+                case CHIFFRE_AFFAIRE -> snapshot.chiffreAffaire(row);
+            };
+        }
+        return column;
+    }
+
+    private static double orNaN(int value) {
+        return value != EntitySnapshot.NO_VALUE ? value : Double.NaN;
+    }
+
     // Business Intelligence Scorecard
-    public Map<String, Object> getBusinessScorecard(String token) {
+    public Map<String, Object> getBusinessScorecard(String token, Deadline deadline) {
+        return getBusinessScorecard(snapshotService.getSnapshot(deadline));
+    }
+
+    public Map<String, Object> getBusinessScorecard(EntitySnapshot snapshot) {
         Map<String, Object> result = new HashMap<>();
-        
+
         try {
-            System.out.println("=== Starting Business Scorecard Generation ===");
-            System.out.println("Token received: " + (token != null ? "Yes" : "No"));
-            
-            // Get data from services
-            System.out.println("Calling entite service...");
-            Object entiteData = entiteClient.getAllEntites(token);
-            System.out.println("Entite data received: " + (entiteData != null));
-            
-            System.out.println("Calling parametrage service for type entreprises...");
-            Object typeEntreprisesData = parametrageClient.getAllTypeEntreprises(token);
-            System.out.println("Type entreprises data received: " + (typeEntreprisesData != null));
-            
-            System.out.println("Calling parametrage service for secteurs...");
-            Object secteursData = parametrageClient.getAllSecteurs(token);
-            System.out.println("Secteurs data received: " + (secteursData != null));
-            
-            if (entiteData != null) {
-                List<Map<String, Object>> entities = (List<Map<String, Object>>) entiteData;
-                System.out.println("Number of entities: " + entities.size());
-                
-                if (entities.isEmpty()) {
-                    System.out.println("No entities found in the data");
-                    result.put("error", "No entities found in the system");
-                    return result;
-                }
-                
-                // Log first entity structure for debugging
-                if (!entities.isEmpty()) {
-                    Map<String, Object> firstEntity = entities.get(0);
-                    System.out.println("First entity keys: " + firstEntity.keySet());
-                    System.out.println("First entity has entiteBusiness: " + firstEntity.containsKey("entiteBusiness"));
-                    System.out.println("First entity has entiteContact: " + firstEntity.containsKey("entiteContact"));
-                    System.out.println("First entity has region: " + firstEntity.containsKey("region"));
-                    System.out.println("First entity has risk: " + firstEntity.containsKey("risk"));
-                }
-                
-                // KPI Dashboard - Only calculate what we can actually get
-                System.out.println("Calculating KPIs...");
-                Map<String, Object> kpis = calculateBasicKPIs(entities);
-                result.put("kpis", kpis);
-                System.out.println("KPIs calculated: " + kpis.keySet());
-                
-                // Performance Rankings - Based on available data
-                System.out.println("Generating rankings...");
-                Map<String, Object> rankings = generateBasicRankings(entities);
-                result.put("rankings", rankings);
-                System.out.println("Rankings generated: " + rankings.keySet());
-                
-                // Action Items - Simplified based on actual data
-                System.out.println("Generating action items...");
-                Map<String, Object> actionItems = generateBasicActionItems(entities);
-                result.put("actionItems", actionItems);
-                System.out.println("Action items generated: " + actionItems.keySet());
-                
-                // Scorecard Summary
-                System.out.println("Generating summary...");
-                Map<String, Object> summary = generateBasicSummary(kpis, rankings, actionItems);
-                result.put("summary", summary);
-                System.out.println("Summary generated: " + summary.keySet());
-                
-                System.out.println("Scorecard generated successfully with " + result.size() + " sections");
-            } else {
-                System.out.println("No entite data available");
-                result.put("error", "No entity data available");
+            putSnapshotState(result, snapshot);
+
+            if (snapshot.size() == 0) {
+                log.debug("Scorecard skipped: no entities in the snapshot");
+                result.put("error", "No entities found in the system");
+                return result;
             }
+
+            // Every counter the scorecard sections need, gathered in a single pass
+            ScorecardAggregates aggregates;
+            try (RequestTrace.Span span = RequestTrace.span("scorecard.aggregate")) {
+                aggregates = scorecardKernel.aggregate(snapshot);
+            }
+
+            // KPI Dashboard - Only calculate what we can actually get
+            Map<String, Object> kpis = calculateBasicKPIs(snapshot, aggregates);
+            result.put("kpis", kpis);
+
+            // Performance Rankings - Based on available data
+            Map<String, Object> rankings = generateBasicRankings(snapshot, aggregates);
+            result.put("rankings", rankings);
+
+            // Action Items - Simplified based on actual data
+            Map<String, Object> actionItems = generateBasicActionItems(snapshot, aggregates);
+            result.put("actionItems", actionItems);
+
+            // Scorecard Summary
+            Map<String, Object> summary = generateBasicSummary(kpis, rankings, actionItems);
+            result.put("summary", summary);
+
+            traceLog.payload("scorecard", () -> result);
         } catch (Exception e) {
-            System.out.println("Error generating business scorecard: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error generating business scorecard: {}", e.getMessage(), e);
             result.put("error", "Error generating scorecard: " + e.getMessage());
         }
-        
+
         return result;
     }
 
+    // The scorecard and correlation stages are package-private so the JMH facade
+    // (src/jmh/java, BIAggregationFacade) can time each of them on its own
+
     // Simplified KPI calculation based on available data
-    private Map<String, Object> calculateBasicKPIs(List<Map<String, Object>> entities) {
+    Map<String, Object> calculateBasicKPIs(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
         Map<String, Object> kpis = new HashMap<>();
-        
-        long totalEntities = entities.size();
+
+        long totalEntities = aggregates.getTotalEntities();
         kpis.put("totalEntities", totalEntities);
-        
-        // Calculate entities with business data
-        long entitiesWithBusiness = entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness") && e.get("entiteBusiness") != null)
-            .count();
-        kpis.put("entitiesWithBusiness", entitiesWithBusiness);
-        kpis.put("businessDataCompleteness", totalEntities > 0 ? (double) entitiesWithBusiness / totalEntities * 100 : 0);
-        
-        // Calculate entities with contact data
-        long entitiesWithContact = entities.stream()
-            .filter(e -> e.containsKey("entiteContact") && e.get("entiteContact") != null)
-            .count();
-        kpis.put("entitiesWithContact", entitiesWithContact);
-        kpis.put("contactDataCompleteness", totalEntities > 0 ? (double) entitiesWithContact / totalEntities * 100 : 0);
-        
-        // Calculate entities with products data
-        long entitiesWithProducts = entities.stream()
-            .filter(e -> e.containsKey("entiteProducts") && e.get("entiteProducts") != null)
-            .count();
-        kpis.put("entitiesWithProducts", entitiesWithProducts);
-        kpis.put("productsDataCompleteness", totalEntities > 0 ? (double) entitiesWithProducts / totalEntities * 100 : 0);
-        
-        // Calculate sector diversity
+
+        // Calculate entities with business, contact and products data
+        kpis.put("entitiesWithBusiness", aggregates.getWithBusiness());
+        kpis.put("businessDataCompleteness", totalEntities > 0 ? (double) aggregates.getWithBusiness() / totalEntities * 100 : 0);
+        kpis.put("entitiesWithContact", aggregates.getWithContact());
+        kpis.put("contactDataCompleteness", totalEntities > 0 ? (double) aggregates.getWithContact() / totalEntities * 100 : 0);
+        kpis.put("entitiesWithProducts", aggregates.getWithProducts());
+        kpis.put("productsDataCompleteness", totalEntities > 0 ? (double) aggregates.getWithProducts() / totalEntities * 100 : 0);
+
+        // Calculate sector diversity, ignoring blank sector names
         Set<String> sectors = new HashSet<>();
-        for (Map<String, Object> entity : entities) {
-            if (entity.containsKey("entiteBusiness")) {
-                Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                if (business != null && business.containsKey("secteur")) {
-                    String secteur = (String) business.get("secteur");
-                    if (secteur != null && !secteur.trim().isEmpty()) {
-                        sectors.add(secteur);
-                    }
-                }
+        for (int code = 0; code < snapshot.secteurs().size(); code++) {
+            if (aggregates.sectorCount(code) > 0 && !snapshot.secteurs().isBlank(code)) {
+                sectors.add(snapshot.secteurs().value(code));
             }
         }
         kpis.put("sectorDiversity", sectors.size());
         kpis.put("sectors", new ArrayList<>(sectors));
-        
+
         // Calculate regional diversity
         Set<String> regions = new HashSet<>();
-        for (Map<String, Object> entity : entities) {
-            String region = (String) entity.get("region");
-            if (region != null && !region.trim().isEmpty()) {
-                regions.add(region);
+        for (int code = 0; code < snapshot.regions().size(); code++) {
+            if (aggregates.regionCount(code) > 0 && !snapshot.regions().isBlank(code)) {
+                regions.add(snapshot.regions().value(code));
             }
         }
         kpis.put("regionalDiversity", regions.size());
         kpis.put("regions", new ArrayList<>(regions));
-        
+
         // Calculate risk distribution (if available)
         Map<String, Long> riskDistribution = new HashMap<>();
-        for (Map<String, Object> entity : entities) {
-            Integer risk = (Integer) entity.get("risk");
-            if (risk != null) {
-                String riskLevel = risk <= 2 ? "Low" : risk <= 4 ? "Medium" : "High";
-                riskDistribution.merge(riskLevel, 1L, Long::sum);
-            }
-        }
+        if (aggregates.getRiskLow() > 0) riskDistribution.put("Low", aggregates.getRiskLow());
+        if (aggregates.getRiskMedium() > 0) riskDistribution.put("Medium", aggregates.getRiskMedium());
+        if (aggregates.getRiskHigh() > 0) riskDistribution.put("High", aggregates.getRiskHigh());
         kpis.put("riskDistribution", riskDistribution);
-        
-        // Calculate average risk
-        double avgRisk = entities.stream()
-            .mapToDouble(e -> {
-                Integer risk = (Integer) e.get("risk");
-                return risk != null ? risk : 0.0;
-            })
-            .average()
-            .orElse(0.0);
+
+        // Calculate average risk, entities without a risk count as 0
+        double avgRisk = totalEntities > 0 ? aggregates.getRiskSum() / totalEntities : 0.0;
         kpis.put("averageRisk", avgRisk);
-        
+
         // KPI Status indicators
         kpis.put("businessDataStatus", getKPIStatus((Double) kpis.get("businessDataCompleteness"), 80.0, 60.0));
         kpis.put("contactDataStatus", getKPIStatus((Double) kpis.get("contactDataCompleteness"), 80.0, 60.0));
         kpis.put("sectorDiversityStatus", getKPIStatus((Integer) kpis.get("sectorDiversity"), 5, 3));
         kpis.put("regionalDiversityStatus", getKPIStatus((Integer) kpis.get("regionalDiversity"), 5, 3));
-        
+
         return kpis;
     }
 
-    private Map<String, Object> generateBasicRankings(List<Map<String, Object>> entities) {
+    Map<String, Object> generateBasicRankings(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
         Map<String, Object> rankings = new HashMap<>();
-        
-        // Top sectors by entity count
-        Map<String, Long> sectorCounts = new HashMap<>();
-        for (Map<String, Object> entity : entities) {
-            if (entity.containsKey("entiteBusiness")) {
-                Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                if (business != null && business.containsKey("secteur")) {
-                    String secteur = (String) business.get("secteur");
-                    if (secteur != null && !secteur.trim().isEmpty()) {
-                        sectorCounts.merge(secteur, 1L, Long::sum);
-                    }
-                }
-            }
-        }
-        
-        List<Map<String, Object>> topSectors = sectorCounts.entrySet().stream()
-            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-            .limit(5)
-            .map(entry -> {
-                Map<String, Object> sector = new HashMap<>();
-                sector.put("name", entry.getKey());
-                sector.put("count", entry.getValue());
-                sector.put("percentage", (double) entry.getValue() / entities.size() * 100);
-                return sector;
-            })
-            .collect(Collectors.toList());
-        
-        // Top regions by entity count
-        Map<String, Long> regionCounts = new HashMap<>();
-        for (Map<String, Object> entity : entities) {
-            String region = (String) entity.get("region");
-            if (region != null && !region.trim().isEmpty()) {
-                regionCounts.merge(region, 1L, Long::sum);
+
+        // Top sectors and regions by entity count
+        long total = aggregates.getTotalEntities();
+        rankings.put("topSectors", topByCount(snapshot.secteurs(), aggregates::sectorCount, total));
+        rankings.put("topRegions", topByCount(snapshot.regions(), aggregates::regionCount, total));
+
+        return rankings;
+    }
+
+    private List<Map<String, Object>> topByCount(Dictionary<String> dictionary, IntToLongFunction counts, long total) {
+        Map<String, Long> namedCounts = new HashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            long count = counts.applyAsLong(code);
+            if (count > 0 && !dictionary.isBlank(code)) {
+                namedCounts.put(dictionary.value(code), count);
             }
         }
-        
-        List<Map<String, Object>> topRegions = regionCounts.entrySet().stream()
+        return namedCounts.entrySet().stream()
             .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
             .limit(5)
             .map(entry -> {
-                Map<String, Object> region = new HashMap<>();
-                region.put("name", entry.getKey());
-                region.put("count", entry.getValue());
-                region.put("percentage", (double) entry.getValue() / entities.size() * 100);
-                return region;
+                Map<String, Object> ranked = new HashMap<>();
+                ranked.put("name", entry.getKey());
+                ranked.put("count", entry.getValue());
+                ranked.put("percentage", (double) entry.getValue() / total * 100);
+                return ranked;
             })
             .collect(Collectors.toList());
-        
-        rankings.put("topSectors", topSectors);
-        rankings.put("topRegions", topRegions);
-        
-        return rankings;
     }
 
-    private Map<String, Object> generateBasicActionItems(List<Map<String, Object>> entities) {
+    Map<String, Object> generateBasicActionItems(EntitySnapshot snapshot, ScorecardAggregates aggregates) {
         Map<String, Object> actionItems = new HashMap<>();
         List<Map<String, Object>> highPriority = new ArrayList<>();
         List<Map<String, Object>> mediumPriority = new ArrayList<>();
         List<Map<String, Object>> lowPriority = new ArrayList<>();
-        
-        // Calculate metrics for action items
-        double businessDataCompleteness = entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness") && e.get("entiteBusiness") != null)
-            .count() * 100.0 / entities.size();
-        
-        double contactDataCompleteness = entities.stream()
-            .filter(e -> e.containsKey("entiteContact") && e.get("entiteContact") != null)
-            .count() * 100.0 / entities.size();
-        
-        int sectorDiversity = (int) entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness"))
-            .map(e -> {
-                Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                return business != null ? business.get("secteur") : null;
-            })
-            .filter(Objects::nonNull)
-            .distinct()
-            .count();
-        
+
+        // Calculate metrics for action items; unlike the KPI, blank sector names count towards diversity here
+        int sectorDiversity = 0;
+        for (int code = 0; code < snapshot.secteurs().size(); code++) {
+            if (aggregates.sectorCount(code) > 0) sectorDiversity++;
+        }
+        double businessDataCompleteness = aggregates.getWithBusiness() * 100.0 / aggregates.getTotalEntities();
+        double contactDataCompleteness = aggregates.getWithContact() * 100.0 / aggregates.getTotalEntities();
+
         // High Priority Actions
         if (businessDataCompleteness < 80.0) {
             Map<String, Object> action = new HashMap<>();
@@ -858,7 +728,7 @@ public class BIService {
             action.put("timeline", "30 days");
             highPriority.add(action);
         }
-        
+
         if (contactDataCompleteness < 80.0) {
             Map<String, Object> action = new HashMap<>();
             action.put("title", "Improve Contact Data Completeness");
@@ -869,7 +739,7 @@ public class BIService {
             action.put("timeline", "30 days");
             highPriority.add(action);
         }
-        
+
         // Medium Priority Actions
         if (sectorDiversity < 5) {
             Map<String, Object> action = new HashMap<>();
@@ -881,7 +751,7 @@ public class BIService {
             action.put("timeline", "60 days");
             mediumPriority.add(action);
         }
-        
+
         // Low Priority Actions
         Map<String, Object> action = new HashMap<>();
         action.put("title", "Regular Data Quality Review");
@@ -891,16 +761,16 @@ public class BIService {
         action.put("effort", "Low");
         action.put("timeline", "Ongoing");
         lowPriority.add(action);
-        
+
         actionItems.put("highPriority", highPriority);
         actionItems.put("mediumPriority", mediumPriority);
         actionItems.put("lowPriority", lowPriority);
         actionItems.put("totalActions", highPriority.size() + mediumPriority.size() + lowPriority.size());
-        
+
         return actionItems;
     }
 
-    private Map<String, Object> generateBasicSummary(Map<String, Object> kpis, Map<String, Object> rankings, Map<String, Object> actionItems) {
+    Map<String, Object> generateBasicSummary(Map<String, Object> kpis, Map<String, Object> rankings, Map<String, Object> actionItems) {
         Map<String, Object> summary = new HashMap<>();
         
         // Calculate overall score based on available metrics
@@ -1003,185 +873,171 @@ public class BIService {
         else return "F";
     }
 
-    private Map<String, Object> analyzeBusinessCorrelations(List<Map<String, Object>> entities) {
+    Map<String, Object> analyzeBusinessCorrelations(EntitySnapshot snapshot) {
         Map<String, Object> correlations = new HashMap<>();
-        
+
         // Extract business metrics
-        List<Double> riskLevels = new ArrayList<>();
-        List<Double> companyAges = new ArrayList<>();
-        List<String> legalForms = new ArrayList<>();
-        List<String> sectors = new ArrayList<>();
-        List<String> regions = new ArrayList<>();
-        
-        for (Map<String, Object> entity : entities) {
-            if (entity.containsKey("entiteBusiness")) {
-                Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                
-                // Risk level
-                Object risk = business.get("risk");
-                if (risk != null) {
-                    riskLevels.add(((Number) risk).doubleValue());
-                }
-                
-                // Company age (from creation date)
-                String creationDate = (String) business.get("dateCreation");
-                if (creationDate != null) {
-                    try {
-                        int age = calculateCompanyAge(creationDate);
-                        companyAges.add((double) age);
-                    } catch (Exception e) {
-                        // Skip invalid dates
-                    }
-                }
-                
-                // Legal form
-                String legalForm = (String) business.get("formeJuridique");
-                if (legalForm != null) {
-                    legalForms.add(legalForm);
-                }
-                
-                // Sector
-                String sector = (String) business.get("secteur");
-                if (sector != null) {
-                    sectors.add(sector);
-                }
-                
-                // Region
-                String region = (String) entity.get("region");
-                if (region != null) {
-                    regions.add(region);
-                }
+        long[] legalFormCounts = new long[snapshot.formesJuridiques().size()];
+        long[] sectorCounts = new long[snapshot.secteurs().size()];
+        long[] regionCounts = new long[snapshot.regions().size()];
+
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (!snapshot.hasBusiness(row)) {
+                continue;
             }
+
+            // Legal form, sector and region
+            int legalForm = snapshot.formeJuridique(row);
+            if (legalForm != Dictionary.MISSING) legalFormCounts[legalForm]++;
+            int sector = snapshot.secteur(row);
+            if (sector != Dictionary.MISSING) sectorCounts[sector]++;
+            int region = snapshot.region(row);
+            if (region != Dictionary.MISSING) regionCounts[region]++;
         }
-        
-        // Calculate correlations
-        if (riskLevels.size() > 1 && companyAges.size() > 1) {
-            double riskAgeCorrelation = calculatePearsonCorrelation(riskLevels, companyAges);
-            correlations.put("risk_vs_age", riskAgeCorrelation);
+
+        // Calculate correlations over entities that have both a risk and an age
+        CorrelationMatrix riskAge = CorrelationMatrix.compute(List.of("risk", "companyAge"), new double[][]{
+            numericColumn(snapshot, NumericField.RISK), numericColumn(snapshot, NumericField.COMPANY_AGE)});
+        if (riskAge.pairCount(0, 1) > 1) {
+            double riskAgeCorrelation = riskAge.pearson(0, 1);
+            correlations.put("risk_vs_age", Double.isNaN(riskAgeCorrelation) ? 0.0 : riskAgeCorrelation);
         }
-        
-        // Sector distribution analysis
-        Map<String, Long> sectorDistribution = sectors.stream()
-            .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
-        correlations.put("sector_distribution", sectorDistribution);
-        
-        // Region distribution analysis
-        Map<String, Long> regionDistribution = regions.stream()
-            .collect(Collectors.groupingBy(r -> r, Collectors.counting()));
-        correlations.put("region_distribution", regionDistribution);
-        
-        // Legal form distribution
-        Map<String, Long> legalFormDistribution = legalForms.stream()
-            .collect(Collectors.groupingBy(lf -> lf, Collectors.counting()));
-        correlations.put("legal_form_distribution", legalFormDistribution);
-        
+
+        correlations.put("sector_distribution", toDistribution(snapshot.secteurs(), sectorCounts));
+        correlations.put("region_distribution", toDistribution(snapshot.regions(), regionCounts));
+        correlations.put("legal_form_distribution", toDistribution(snapshot.formesJuridiques(), legalFormCounts));
+
         return correlations;
     }
 
-    private Map<String, Object> analyzeSectorCorrelations(List<Map<String, Object>> entities) {
+    Map<String, Object> analyzeSectorCorrelations(EntitySnapshot snapshot) {
         Map<String, Object> correlations = new HashMap<>();
-        
-        // Group entities by sector and analyze performance metrics
-        Map<String, List<Map<String, Object>>> sectorGroups = new HashMap<>();
-        
-        for (Map<String, Object> entity : entities) {
-            if (entity.containsKey("entiteBusiness")) {
-                Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                String sector = (String) business.get("secteur");
-                if (sector != null) {
-                    sectorGroups.computeIfAbsent(sector, k -> new ArrayList<>()).add(entity);
-                }
+
+        // Accumulate per-sector counts, risk and age sums by sector code
+        int sectorCount = snapshot.secteurs().size();
+        int[] entityCounts = new int[sectorCount];
+        double[] riskSums = new double[sectorCount];
+        double[] ageSums = new double[sectorCount];
+
+        for (int row = 0; row < snapshot.size(); row++) {
+            int sector = snapshot.secteur(row);
+            if (snapshot.hasBusiness(row) && sector != Dictionary.MISSING) {
+                entityCounts[sector]++;
+                riskSums[sector] += riskOrZero(snapshot.businessRisk(row));
+                ageSums[sector] += ageOrZero(snapshot.companyAge(row));
             }
         }
-        
+
         // Calculate sector performance metrics
         Map<String, Object> sectorPerformance = new HashMap<>();
-        for (Map.Entry<String, List<Map<String, Object>>> entry : sectorGroups.entrySet()) {
-            String sector = entry.getKey();
-            List<Map<String, Object>> sectorEntities = entry.getValue();
-            
+        for (int sector = 0; sector < sectorCount; sector++) {
+            if (entityCounts[sector] == 0) {
+                continue;
+            }
             Map<String, Object> metrics = new HashMap<>();
-            metrics.put("entity_count", sectorEntities.size());
-            metrics.put("average_risk", calculateAverageRisk(sectorEntities));
-            metrics.put("average_age", calculateAverageAge(sectorEntities));
-            
-            sectorPerformance.put(sector, metrics);
+            metrics.put("entity_count", entityCounts[sector]);
+            metrics.put("average_risk", riskSums[sector] / entityCounts[sector]);
+            metrics.put("average_age", ageSums[sector] / entityCounts[sector]);
+
+            sectorPerformance.put(snapshot.secteurs().value(sector), metrics);
         }
-        
+
         correlations.put("sector_performance", sectorPerformance);
         return correlations;
     }
 
-    private Map<String, Object> analyzeGeographicCorrelations(List<Map<String, Object>> entities) {
+    Map<String, Object> analyzeGeographicCorrelations(EntitySnapshot snapshot) {
         Map<String, Object> correlations = new HashMap<>();
-        
+
         // Group entities by region
-        Map<String, List<Map<String, Object>>> regionGroups = new HashMap<>();
-        
-        for (Map<String, Object> entity : entities) {
-            String region = (String) entity.get("region");
-            if (region != null) {
-                regionGroups.computeIfAbsent(region, k -> new ArrayList<>()).add(entity);
+        int regionCount = snapshot.regions().size();
+        int[] entityCounts = new int[regionCount];
+        int[] businessCounts = new int[regionCount];
+        double[] riskSums = new double[regionCount];
+        List<Set<Integer>> regionSectors = new ArrayList<>(regionCount);
+        for (int region = 0; region < regionCount; region++) {
+            regionSectors.add(new HashSet<>());
+        }
+
+        for (int row = 0; row < snapshot.size(); row++) {
+            int region = snapshot.region(row);
+            if (region == Dictionary.MISSING) {
+                continue;
+            }
+            entityCounts[region]++;
+            if (snapshot.hasBusiness(row)) {
+                businessCounts[region]++;
+                riskSums[region] += riskOrZero(snapshot.businessRisk(row));
+                int sector = snapshot.secteur(row);
+                if (sector != Dictionary.MISSING) {
+                    regionSectors.get(region).add(sector);
+                }
             }
         }
-        
+
         // Calculate regional performance metrics
         Map<String, Object> regionalPerformance = new HashMap<>();
-        for (Map.Entry<String, List<Map<String, Object>>> entry : regionGroups.entrySet()) {
-            String region = entry.getKey();
-            List<Map<String, Object>> regionEntities = entry.getValue();
-            
+        for (int region = 0; region < regionCount; region++) {
+            if (entityCounts[region] == 0) {
+                continue;
+            }
             Map<String, Object> metrics = new HashMap<>();
-            metrics.put("entity_count", regionEntities.size());
-            metrics.put("sector_diversity", calculateSectorDiversity(regionEntities));
-            metrics.put("average_risk", calculateAverageRisk(regionEntities));
-            
-            regionalPerformance.put(region, metrics);
+            metrics.put("entity_count", entityCounts[region]);
+            metrics.put("sector_diversity", regionSectors.get(region).size());
+            metrics.put("average_risk", businessCounts[region] > 0 ? riskSums[region] / businessCounts[region] : 0.0);
+
+            regionalPerformance.put(snapshot.regions().value(region), metrics);
         }
-        
+
         correlations.put("regional_performance", regionalPerformance);
         return correlations;
     }
 
-    private Map<String, Object> analyzeRiskCorrelations(List<Map<String, Object>> entities) {
+    Map<String, Object> analyzeRiskCorrelations(EntitySnapshot snapshot) {
         Map<String, Object> correlations = new HashMap<>();
-        
+
         // Risk level analysis
-        Map<String, List<Map<String, Object>>> riskGroups = new HashMap<>();
-        
-        for (Map<String, Object> entity : entities) {
-            if (entity.containsKey("entiteBusiness")) {
-                Map<String, Object> business = (Map<String, Object>) entity.get("entiteBusiness");
-                Object risk = business.get("risk");
-                if (risk != null) {
-                    String riskLevel = getRiskLevel(((Number) risk).intValue());
-                    riskGroups.computeIfAbsent(riskLevel, k -> new ArrayList<>()).add(entity);
-                }
+        Map<String, int[]> riskGroups = new HashMap<>();
+        Map<String, Map<String, Long>> riskSectors = new HashMap<>();
+        Map<String, double[]> riskAgeSums = new HashMap<>();
+
+        for (int row = 0; row < snapshot.size(); row++) {
+            int risk = snapshot.businessRisk(row);
+            if (!snapshot.hasBusiness(row) || risk == EntitySnapshot.NO_VALUE) {
+                continue;
+            }
+            String riskLevel = getRiskLevel(risk);
+            riskGroups.computeIfAbsent(riskLevel, k -> new int[1])[0]++;
+            riskAgeSums.computeIfAbsent(riskLevel, k -> new double[1])[0] += ageOrZero(snapshot.companyAge(row));
+            int sector = snapshot.secteur(row);
+            if (sector != Dictionary.MISSING) {
+                riskSectors.computeIfAbsent(riskLevel, k -> new HashMap<>())
+                    .merge(snapshot.secteurs().value(sector), 1L, Long::sum);
             }
         }
-        
+
         // Calculate risk-based metrics
         Map<String, Object> riskAnalysis = new HashMap<>();
-        for (Map.Entry<String, List<Map<String, Object>>> entry : riskGroups.entrySet()) {
+        for (Map.Entry<String, int[]> entry : riskGroups.entrySet()) {
             String riskLevel = entry.getKey();
-            List<Map<String, Object>> riskEntities = entry.getValue();
-            
+            int entityCount = entry.getValue()[0];
+
             Map<String, Object> metrics = new HashMap<>();
-            metrics.put("entity_count", riskEntities.size());
-            metrics.put("sector_distribution", getSectorDistribution(riskEntities));
-            metrics.put("average_age", calculateAverageAge(riskEntities));
-            
+            metrics.put("entity_count", entityCount);
+            metrics.put("sector_distribution", riskSectors.getOrDefault(riskLevel, new HashMap<>()));
+            metrics.put("average_age", riskAgeSums.get(riskLevel)[0] / entityCount);
+
             riskAnalysis.put(riskLevel, metrics);
         }
-        
+
         correlations.put("risk_analysis", riskAnalysis);
         return correlations;
     }
 
-    private Map<String, Object> generateCorrelationInsights(Map<String, Object> businessCorrelations, 
-                                                           Map<String, Object> sectorCorrelations,
-                                                           Map<String, Object> geographicCorrelations,
-                                                           Map<String, Object> riskCorrelations) {
+    Map<String, Object> generateCorrelationInsights(Map<String, Object> businessCorrelations, 
+                                                   Map<String, Object> sectorCorrelations,
+                                                   Map<String, Object> geographicCorrelations,
+                                                   Map<String, Object> riskCorrelations) {
         Map<String, Object> insights = new HashMap<>();
         List<String> keyInsights = new ArrayList<>();
         
@@ -1221,50 +1077,12 @@ public class BIService {
     }
 
     // Helper methods
-    private int calculateCompanyAge(String creationDate) {
-        // Simple age calculation - can be enhanced with proper date parsing
-        try {
-            int year = Integer.parseInt(creationDate.substring(0, 4));
-            return 2024 - year; // Assuming current year is 2024
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
-    private double calculateAverageRisk(List<Map<String, Object>> entities) {
-        return entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness"))
-            .mapToDouble(e -> {
-                Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                Object risk = business.get("risk");
-                return risk != null ? ((Number) risk).doubleValue() : 0.0;
-            })
-            .average()
-            .orElse(0.0);
-    }
-
-    private double calculateAverageAge(List<Map<String, Object>> entities) {
-        return entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness"))
-            .mapToDouble(e -> {
-                Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                String creationDate = (String) business.get("dateCreation");
-                return creationDate != null ? calculateCompanyAge(creationDate) : 0.0;
-            })
-            .average()
-            .orElse(0.0);
+    private static double riskOrZero(int risk) {
+        return risk != EntitySnapshot.NO_VALUE ? risk : 0.0;
     }
 
-    private int calculateSectorDiversity(List<Map<String, Object>> entities) {
-        Set<String> sectors = entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness"))
-            .map(e -> {
-                Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                return (String) business.get("secteur");
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-        return sectors.size();
+    private static double ageOrZero(int age) {
+        return age != EntitySnapshot.NO_VALUE ? age : 0.0;
     }
 
     private String getRiskLevel(int riskValue) {
@@ -1273,15 +1091,14 @@ public class BIService {
         else return "High";
     }
 
-    private Map<String, Long> getSectorDistribution(List<Map<String, Object>> entities) {
-        return entities.stream()
-            .filter(e -> e.containsKey("entiteBusiness"))
-            .map(e -> {
-                Map<String, Object> business = (Map<String, Object>) e.get("entiteBusiness");
-                return (String) business.get("secteur");
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
+    private Map<String, Long> toDistribution(Dictionary<String> dictionary, long[] counts) {
+        Map<String, Long> distribution = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                distribution.put(dictionary.value(code), counts[code]);
+            }
+        }
+        return distribution;
     }
 
     private String findTopPerformingSector(Map<String, Object> sectorPerformance) {
@@ -1289,9 +1106,9 @@ public class BIService {
             .max((e1, e2) -> {
                 Map<String, Object> metrics1 = (Map<String, Object>) e1.getValue();
                 Map<String, Object> metrics2 = (Map<String, Object>) e2.getValue();
-                Long count1 = (Long) metrics1.get("entity_count");
-                Long count2 = (Long) metrics2.get("entity_count");
-                return count1.compareTo(count2);
+                long count1 = ((Number) metrics1.get("entity_count")).longValue();
+                long count2 = ((Number) metrics2.get("entity_count")).longValue();
+                return Long.compare(count1, count2);
             })
             .map(Map.Entry::getKey)
             .orElse(null);
@@ -1309,14 +1126,4 @@ public class BIService {
             .map(Map.Entry::getKey)
             .orElse(null);
     }
-
-    private int calculateRegionalCoverage(List<Map<String, Object>> entities) {
-        Set<String> regions = entities.stream()
-            .map(e -> (String) e.get("region"))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-        return regions.size();
-    }
 }
-
-
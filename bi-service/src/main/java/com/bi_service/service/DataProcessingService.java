@@ -1,6 +1,10 @@
 package com.bi_service.service;
 
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
 import com.bi_service.util.DateUtils;
+import com.bi_service.util.QuantileSketch;
+import com.bi_service.util.RunningStats;
 import com.bi_service.util.StatisticsUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -77,31 +81,31 @@ public class DataProcessingService {
             }
         });
 
-        // Process performance metrics
-        Map<String, List<Double>> performanceMetrics = new HashMap<>();
+        // Process performance metrics, summarizing each type as its values arrive
+        Map<String, GroupSummary> performanceMetrics = new HashMap<>();
         rawData.forEach(data -> {
             if (data != null) {
                 String type = (String) data.get("type");
                 Object valueObj = data.get("value");
                 if (type != null && valueObj != null) {
                     try {
-                        Double value = ((Number) valueObj).doubleValue();
-                        performanceMetrics.computeIfAbsent(type, k -> new ArrayList<>()).add(value);
-                    } catch (ClassCastException | NullPointerException e) {
+                        double value = ((Number) valueObj).doubleValue();
+                        performanceMetrics.computeIfAbsent(type, k -> new GroupSummary()).accept(value);
+                    } catch (ClassCastException e) {
                         // Skip invalid values
                     }
                 }
             }
         });
 
-        performanceMetrics.forEach((type, values) -> {
-            if (values != null && !values.isEmpty()) {
-                Map<String, Object> metrics = new HashMap<>();
-                metrics.put("mean", StatisticsUtils.calculateMean(values));
-                metrics.put("median", StatisticsUtils.calculateMedian(values));
-                metrics.put("stdDev", StatisticsUtils.calculateStandardDeviation(values));
-                performance.put(type, metrics);
-            }
+        performanceMetrics.forEach((type, summary) -> {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("mean", summary.stats.mean());
+            metrics.put("median", summary.quantiles.median());
+            // Exact for groups of fewer than QuantileSketch.DEFAULT_K values, a sketch estimate above
+            metrics.put("medianApproximate", !summary.quantiles.isExact());
+            metrics.put("stdDev", summary.stats.standardDeviation());
+            performance.put(type, metrics);
         });
 
         result.put("distribution", distribution);
@@ -111,6 +115,32 @@ public class DataProcessingService {
         return result;
     }
 
+    // Snapshot counterpart of processEntityData: the entite payload carries no "value" field,
+    // so only the type distribution is populated
+    public Map<String, Object> processEntityData(EntitySnapshot snapshot) {
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Long> distribution = new HashMap<>();
+
+        long[] counts = new long[snapshot.types().size()];
+        for (int row = 0; row < snapshot.size(); row++) {
+            int code = snapshot.type(row);
+            if (code != Dictionary.MISSING) {
+                counts[code]++;
+            }
+        }
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                distribution.put(snapshot.types().value(code), counts[code]);
+            }
+        }
+
+        result.put("distribution", distribution);
+        result.put("performance", new HashMap<String, Object>());
+        result.put("growth", new HashMap<String, Object>());
+
+        return result;
+    }
+
     public Map<String, Object> processSectorData(List<Map<String, Object>> rawData) {
         Map<String, Object> result = new HashMap<>();
         Map<String, Long> distribution = new HashMap<>();
@@ -123,20 +153,22 @@ public class DataProcessingService {
             distribution.merge(sector, 1L, Long::sum);
         });
 
-        // Process performance metrics
-        Map<String, List<Double>> performanceMetrics = new HashMap<>();
+        // Process performance metrics, summarizing each sector as its values arrive
+        Map<String, GroupSummary> performanceMetrics = new HashMap<>();
         rawData.forEach(data -> {
             String sector = (String) data.get("sector");
-            Double value = ((Number) data.get("value")).doubleValue();
-            performanceMetrics.computeIfAbsent(sector, k -> new ArrayList<>()).add(value);
+            double value = ((Number) data.get("value")).doubleValue();
+            performanceMetrics.computeIfAbsent(sector, k -> new GroupSummary()).accept(value);
         });
 
-        performanceMetrics.forEach((sector, values) -> {
+        performanceMetrics.forEach((sector, summary) -> {
             Map<String, Object> metrics = new HashMap<>();
-            metrics.put("mean", StatisticsUtils.calculateMean(values));
-            metrics.put("median", StatisticsUtils.calculateMedian(values));
-            metrics.put("stdDev", StatisticsUtils.calculateStandardDeviation(values));
-            metrics.put("growthRate", StatisticsUtils.calculateGrowthRate(values));
+            metrics.put("mean", summary.stats.mean());
+            metrics.put("median", summary.quantiles.median());
+            // Exact for groups of fewer than QuantileSketch.DEFAULT_K values, a sketch estimate above
+            metrics.put("medianApproximate", !summary.quantiles.isExact());
+            metrics.put("stdDev", summary.stats.standardDeviation());
+            metrics.put("growthRate", StatisticsUtils.calculateGrowthRate(summary.stats));
             performance.put(sector, metrics);
         });
 
@@ -146,4 +178,15 @@ public class DataProcessingService {
 
         return result;
     }
+
+    // Moments and a quantile sketch for one group, so groups never hold their raw values
+    private static final class GroupSummary {
+        private final RunningStats stats = new RunningStats();
+        private final QuantileSketch quantiles = new QuantileSketch();
+
+        void accept(double value) {
+            stats.accept(value);
+            quantiles.accept(value);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.bi_service.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maps the distinct values of a dimension to dense int codes so columns can be stored as int[]
+public final class Dictionary<T> {
+
+    public static final int MISSING = -1;
+
+    private final List<T> values = new ArrayList<>();
+    private final Map<T, Integer> codes = new HashMap<>();
+
+    int encode(T value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    public int code(T value) {
+        if (value == null) {
+            return MISSING;
+        }
+        return codes.getOrDefault(value, MISSING);
+    }
+
+    public T value(int code) {
+        return code == MISSING ? null : values.get(code);
+    }
+
+    public boolean isBlank(int code) {
+        T value = value(code);
+        return value instanceof String && ((String) value).trim().isEmpty();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<T> values() {
+        return Collections.unmodifiableList(values);
+    }
+}
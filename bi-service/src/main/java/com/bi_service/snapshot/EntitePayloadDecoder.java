@@ -0,0 +1,49 @@
+package com.bi_service.snapshot;
+
+import com.bi_service.feign.dto.EntiteRecord;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+// Reads the /api/entites array element by element and hands each projected EntiteRecord to a
+// sink, so only one entity is alive at a time instead of the whole List<Map<String, Object>> tree.
+@Component
+public class EntitePayloadDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader entiteReader;
+
+    public EntitePayloadDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.entiteReader = objectMapper.readerFor(EntiteRecord.class);
+    }
+
+    public int decode(InputStream body, Consumer<EntiteRecord> sink) throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                return 0;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of entites but got " + first);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                sink.accept(entiteReader.readValue(parser));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public SnapshotBuilder decodeInto(InputStream body, SnapshotBuilder builder) throws IOException {
+        decode(body, builder::addEntity);
+        return builder;
+    }
+}
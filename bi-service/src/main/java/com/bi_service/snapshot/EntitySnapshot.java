@@ -0,0 +1,253 @@
+package com.bi_service.snapshot;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Immutable, column-oriented view of the entities, their business data and the parametrage
+// reference data. Row i of every column describes the same entity.
+public final class EntitySnapshot {
+
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    static final byte HAS_BUSINESS = 1;
+    static final byte HAS_CONTACT = 1 << 1;
+    static final byte HAS_PRODUCTS = 1 << 2;
+
+    private final long builtAt;
+    private final long buildTimeMs;
+    private final int size;
+
+    private final long[] ids;
+    private final long[] createdAt;
+    private final byte[] flags;
+    private final int[] risk;
+    private final int[] businessRisk;
+    private final int[] companyAge;
+    private final int[] type;
+    private final int[] region;
+    private final int[] typeEntreprise;
+    private final int[] secteur;
+    private final int[] sousSecteur;
+    private final int[] formeJuridique;
+    private final int[] tome;
+    private final double[] effectif;
+    private final double[] capital;
+    private final double[] chiffreAffaire;
+
+    private final Dictionary<String> types;
+    private final Dictionary<String> regions;
+    private final Dictionary<Long> typeEntrepriseIds;
+    private final Dictionary<String> secteurs;
+    private final Dictionary<String> sousSecteurs;
+    private final Dictionary<String> formesJuridiques;
+
+    private final List<String> secteurNames;
+    private final List<String> sousSecteurNames;
+    private final List<TypeEntrepriseRef> typeEntreprises;
+
+    private final long[] productCreatedAt;
+    private final TemporalIndex createdAtIndex;
+    private final TemporalIndex productCreatedAtIndex;
+    private final Map<String, Long> fetchTimings;
+    private final List<String> timedOutSections;
+
+    EntitySnapshot(SnapshotBuilder builder, long builtAt, long buildTimeMs) {
+        this.builtAt = builtAt;
+        this.buildTimeMs = buildTimeMs;
+        this.size = builder.size;
+        this.ids = builder.ids;
+        this.createdAt = builder.createdAt;
+        this.flags = builder.flags;
+        this.risk = builder.risk;
+        this.businessRisk = builder.businessRisk;
+        this.companyAge = builder.companyAge;
+        this.type = builder.type;
+        this.region = builder.region;
+        this.typeEntreprise = builder.typeEntreprise;
+        this.secteur = builder.secteur;
+        this.sousSecteur = builder.sousSecteur;
+        this.formeJuridique = builder.formeJuridique;
+        this.tome = builder.tome;
+        this.effectif = builder.effectif;
+        this.capital = builder.capital;
+        this.chiffreAffaire = builder.chiffreAffaire;
+        this.types = builder.types;
+        this.regions = builder.regions;
+        this.typeEntrepriseIds = builder.typeEntrepriseIds;
+        this.secteurs = builder.secteurs;
+        this.sousSecteurs = builder.sousSecteurs;
+        this.formesJuridiques = builder.formesJuridiques;
+        this.secteurNames = Collections.unmodifiableList(builder.secteurNames);
+        this.sousSecteurNames = Collections.unmodifiableList(builder.sousSecteurNames);
+        this.typeEntreprises = Collections.unmodifiableList(builder.typeEntreprises);
+        this.productCreatedAt = builder.productCreatedAt;
+        this.createdAtIndex = TemporalIndex.of(createdAt, size);
+        this.productCreatedAtIndex = TemporalIndex.of(productCreatedAt, productCreatedAt.length);
+        this.fetchTimings = Collections.unmodifiableMap(builder.fetchTimings);
+        this.timedOutSections = List.copyOf(builder.timedOutSections);
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getBuildTimeMs() {
+        return buildTimeMs;
+    }
+
+    // Milliseconds each downstream call took while this snapshot was being fetched
+    public Map<String, Long> getFetchTimings() {
+        return fetchTimings;
+    }
+
+    // Optional sources (reference data, products) that missed the build's deadline or failed and are empty here
+    public List<String> getTimedOutSections() {
+        return timedOutSections;
+    }
+
+    public boolean isPartial() {
+        return !timedOutSections.isEmpty();
+    }
+
+    public long ageMillis() {
+        return System.currentTimeMillis() - builtAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    // Epoch seconds of Entite.createdAt read as UTC, or NO_TIMESTAMP
+    public long createdAt(int row) {
+        return createdAt[row];
+    }
+
+    public boolean hasBusiness(int row) {
+        return (flags[row] & HAS_BUSINESS) != 0;
+    }
+
+    public boolean hasContact(int row) {
+        return (flags[row] & HAS_CONTACT) != 0;
+    }
+
+    public boolean hasProducts(int row) {
+        return (flags[row] & HAS_PRODUCTS) != 0;
+    }
+
+    // Entite.risk, or NO_VALUE
+    public int risk(int row) {
+        return risk[row];
+    }
+
+    // EntiteBusiness.risk, or NO_VALUE
+    public int businessRisk(int row) {
+        return businessRisk[row];
+    }
+
+    // Age derived from EntiteBusiness.dateCreation, or NO_VALUE when the date is absent
+    public int companyAge(int row) {
+        return companyAge[row];
+    }
+
+    // EntiteBusiness.tome, or NO_VALUE
+    public int tome(int row) {
+        return tome[row];
+    }
+
+    // Numeric reading of EntiteBusiness.effectif, or NaN when absent or not numeric
+    public double effectif(int row) {
+        return effectif[row];
+    }
+
+    public double capital(int row) {
+        return capital[row];
+    }
+
+    public double chiffreAffaire(int row) {
+        return chiffreAffaire[row];
+    }
+
+    public int type(int row) {
+        return type[row];
+    }
+
+    public int region(int row) {
+        return region[row];
+    }
+
+    public int typeEntreprise(int row) {
+        return typeEntreprise[row];
+    }
+
+    public int secteur(int row) {
+        return secteur[row];
+    }
+
+    public int sousSecteur(int row) {
+        return sousSecteur[row];
+    }
+
+    public int formeJuridique(int row) {
+        return formeJuridique[row];
+    }
+
+    public Dictionary<String> types() {
+        return types;
+    }
+
+    public Dictionary<String> regions() {
+        return regions;
+    }
+
+    public Dictionary<Long> typeEntrepriseIds() {
+        return typeEntrepriseIds;
+    }
+
+    public Dictionary<String> secteurs() {
+        return secteurs;
+    }
+
+    public Dictionary<String> sousSecteurs() {
+        return sousSecteurs;
+    }
+
+    public Dictionary<String> formesJuridiques() {
+        return formesJuridiques;
+    }
+
+    public List<String> secteurNames() {
+        return secteurNames;
+    }
+
+    public List<String> sousSecteurNames() {
+        return sousSecteurNames;
+    }
+
+    public List<TypeEntrepriseRef> typeEntreprises() {
+        return typeEntreprises;
+    }
+
+    public int productCount() {
+        return productCreatedAt.length;
+    }
+
+    // Epoch seconds of Produit.createdAt read as UTC, or NO_TIMESTAMP
+    public long productCreatedAt(int row) {
+        return productCreatedAt[row];
+    }
+
+    // createdAt of every entity that has one, sorted; built once when the snapshot is frozen
+    public TemporalIndex createdAtIndex() {
+        return createdAtIndex;
+    }
+
+    public TemporalIndex productCreatedAtIndex() {
+        return productCreatedAtIndex;
+    }
+}
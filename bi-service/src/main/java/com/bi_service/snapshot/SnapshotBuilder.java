@@ -0,0 +1,317 @@
+package com.bi_service.snapshot;
+
+import com.bi_service.feign.dto.EntiteBusinessRecord;
+import com.bi_service.feign.dto.EntiteRecord;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Accumulates rows into growable primitive columns, then freezes them into an EntitySnapshot
+public final class SnapshotBuilder {
+
+    int size;
+    long[] ids;
+    long[] createdAt;
+    byte[] flags;
+    int[] risk;
+    int[] businessRisk;
+    int[] companyAge;
+    int[] type;
+    int[] region;
+    int[] typeEntreprise;
+    int[] secteur;
+    int[] sousSecteur;
+    int[] formeJuridique;
+    int[] tome;
+    double[] effectif;
+    double[] capital;
+    double[] chiffreAffaire;
+
+    final Dictionary<String> types = new Dictionary<>();
+    final Dictionary<String> regions = new Dictionary<>();
+    final Dictionary<Long> typeEntrepriseIds = new Dictionary<>();
+    final Dictionary<String> secteurs = new Dictionary<>();
+    final Dictionary<String> sousSecteurs = new Dictionary<>();
+    final Dictionary<String> formesJuridiques = new Dictionary<>();
+
+    final List<String> secteurNames = new ArrayList<>();
+    final List<String> sousSecteurNames = new ArrayList<>();
+    final List<TypeEntrepriseRef> typeEntreprises = new ArrayList<>();
+
+    long[] productCreatedAt = new long[0];
+    Map<String, Long> fetchTimings = Collections.emptyMap();
+    List<String> timedOutSections = Collections.emptyList();
+
+    private final long startedAt = System.currentTimeMillis();
+
+    public SnapshotBuilder() {
+        this(1024);
+    }
+
+    public SnapshotBuilder(int expectedEntities) {
+        int capacity = Math.max(16, expectedEntities);
+        ids = new long[capacity];
+        createdAt = new long[capacity];
+        flags = new byte[capacity];
+        risk = new int[capacity];
+        businessRisk = new int[capacity];
+        companyAge = new int[capacity];
+        type = new int[capacity];
+        region = new int[capacity];
+        typeEntreprise = new int[capacity];
+        secteur = new int[capacity];
+        sousSecteur = new int[capacity];
+        formeJuridique = new int[capacity];
+        tome = new int[capacity];
+        effectif = new double[capacity];
+        capital = new double[capacity];
+        chiffreAffaire = new double[capacity];
+    }
+
+    public SnapshotBuilder addEntity(EntiteRecord entity) {
+        if (entity == null) {
+            return this;
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+
+        ids[row] = entity.id() != null ? entity.id() : 0L;
+        createdAt[row] = parseTimestamp(entity.createdAt());
+        risk[row] = intOrMissing(entity.risk());
+        type[row] = types.encode(entity.type());
+        region[row] = regions.encode(entity.region());
+        typeEntreprise[row] = typeEntrepriseIds.encode(entity.typeEntrepriseId());
+
+        byte rowFlags = 0;
+        if (entity.entiteContact() != null) rowFlags |= EntitySnapshot.HAS_CONTACT;
+        if (entity.entiteProducts() != null) rowFlags |= EntitySnapshot.HAS_PRODUCTS;
+
+        EntiteBusinessRecord business = entity.entiteBusiness();
+        if (business != null) {
+            rowFlags |= EntitySnapshot.HAS_BUSINESS;
+            businessRisk[row] = intOrMissing(business.risk());
+            companyAge[row] = business.dateCreation() != null ? companyAge(business.dateCreation()) : EntitySnapshot.NO_VALUE;
+            secteur[row] = secteurs.encode(business.secteur());
+            sousSecteur[row] = sousSecteurs.encode(business.sousSecteur());
+            formeJuridique[row] = formesJuridiques.encode(business.formeJuridique());
+            tome[row] = intOrMissing(business.tome());
+            effectif[row] = parseAmount(business.effectif());
+            capital[row] = parseAmount(business.capital());
+            chiffreAffaire[row] = parseAmount(business.chiffreAffaire());
+        } else {
+            businessRisk[row] = EntitySnapshot.NO_VALUE;
+            companyAge[row] = EntitySnapshot.NO_VALUE;
+            secteur[row] = Dictionary.MISSING;
+            sousSecteur[row] = Dictionary.MISSING;
+            formeJuridique[row] = Dictionary.MISSING;
+            tome[row] = EntitySnapshot.NO_VALUE;
+            effectif[row] = Double.NaN;
+            capital[row] = Double.NaN;
+            chiffreAffaire[row] = Double.NaN;
+        }
+        flags[row] = rowFlags;
+        return this;
+    }
+
+    public SnapshotBuilder secteurs(List<Map<String, Object>> rows) {
+        for (Map<String, Object> secteur : rows) {
+            String nom = asString(secteur.get("nom"));
+            if (nom != null) {
+                secteurNames.add(nom);
+            }
+        }
+        return this;
+    }
+
+    public SnapshotBuilder sousSecteurs(List<Map<String, Object>> rows) {
+        for (Map<String, Object> sousSecteur : rows) {
+            String nom = asString(sousSecteur.get("nom"));
+            if (nom != null) {
+                sousSecteurNames.add(nom);
+            }
+        }
+        return this;
+    }
+
+    public SnapshotBuilder typeEntreprises(List<Map<String, Object>> types) {
+        for (Map<String, Object> type : types) {
+            typeEntreprises.add(TypeEntrepriseRef.fromRow(type));
+        }
+        return this;
+    }
+
+    public SnapshotBuilder produits(List<Map<String, Object>> produits) {
+        long[] timestamps = new long[produits.size()];
+        int count = 0;
+        for (Map<String, Object> produit : produits) {
+            Object value = produit.get("created_at");
+            if (value == null) {
+                value = produit.get("createdAt");
+            }
+            long timestamp = parseTimestamp(value);
+            if (timestamp != EntitySnapshot.NO_TIMESTAMP) {
+                timestamps[count++] = timestamp;
+            }
+        }
+        // Kept sorted, so the snapshot's product index wraps the array instead of sorting a copy
+        productCreatedAt = Arrays.copyOf(timestamps, count);
+        Arrays.sort(productCreatedAt);
+        return this;
+    }
+
+    public SnapshotBuilder fetchTimings(Map<String, Long> timings) {
+        fetchTimings = timings;
+        return this;
+    }
+
+    public SnapshotBuilder timedOutSections(List<String> sections) {
+        timedOutSections = sections;
+        return this;
+    }
+
+    public EntitySnapshot build() {
+        long now = System.currentTimeMillis();
+        trim();
+        return new EntitySnapshot(this, now, now - startedAt);
+    }
+
+    // Freezes columns read back from a SnapshotFile, keeping the original build time
+    EntitySnapshot restore(long builtAt, long buildTimeMs) {
+        trim();
+        return new EntitySnapshot(this, builtAt, buildTimeMs);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        grow(Math.max(required, ids.length + (ids.length >> 1)));
+    }
+
+    private void trim() {
+        if (size != ids.length) {
+            grow(size);
+        }
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        risk = Arrays.copyOf(risk, capacity);
+        businessRisk = Arrays.copyOf(businessRisk, capacity);
+        companyAge = Arrays.copyOf(companyAge, capacity);
+        type = Arrays.copyOf(type, capacity);
+        region = Arrays.copyOf(region, capacity);
+        typeEntreprise = Arrays.copyOf(typeEntreprise, capacity);
+        secteur = Arrays.copyOf(secteur, capacity);
+        sousSecteur = Arrays.copyOf(sousSecteur, capacity);
+        formeJuridique = Arrays.copyOf(formeJuridique, capacity);
+        tome = Arrays.copyOf(tome, capacity);
+        effectif = Arrays.copyOf(effectif, capacity);
+        capital = Arrays.copyOf(capital, capacity);
+        chiffreAffaire = Arrays.copyOf(chiffreAffaire, capacity);
+    }
+
+    static long parseTimestamp(Object value) {
+        return value instanceof String text ? TimestampParser.parse(text) : EntitySnapshot.NO_TIMESTAMP;
+    }
+
+    // Same rule as BIService used on the raw payload: 2024 minus the year prefix, 0 when unreadable
+    static int companyAge(String creationDate) {
+        try {
+            int year = Integer.parseInt(creationDate.substring(0, 4));
+            return 2024 - year;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    // Reads the free-text amounts of EntiteBusiness ("10 000 000 MAD", "50-100", "5 MDH", "1.5M").
+    // Spaces and three-digit groups after '.' or ',' are thousands separators, a range yields its
+    // midpoint, and k/M/Md style suffixes scale the value. NaN when the text holds no number.
+    static double parseAmount(String text) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        double[] numbers = new double[2];
+        double[] scales = new double[2];
+        int found = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length && found < 2) {
+            if (!Character.isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            double value = 0;
+            double fraction = 0;
+            double scale = 1;
+            boolean decimal = false;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isDigit(c)) {
+                    if (decimal) {
+                        scale /= 10;
+                        fraction += (c - '0') * scale;
+                    } else {
+                        value = value * 10 + (c - '0');
+                    }
+                    i++;
+                } else if ((c == ' ' || c == '\u00A0' || c == '\u202F' || c == '\'')
+                        && !decimal && i + 1 < length && Character.isDigit(text.charAt(i + 1))) {
+                    i++;
+                } else if ((c == '.' || c == ',') && !decimal && i + 1 < length && Character.isDigit(text.charAt(i + 1))) {
+                    int digits = 0;
+                    while (i + 1 + digits < length && Character.isDigit(text.charAt(i + 1 + digits))) digits++;
+                    if (digits != 3) decimal = true;
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            numbers[found] = value + fraction;
+            scales[found++] = amountSuffix(text, i);
+        }
+        if (found == 0) {
+            return Double.NaN;
+        }
+        if (found == 1) {
+            return numbers[0] * scales[0];
+        }
+        // "entre 10 et 50 MDH": an unscaled lower bound takes the upper bound's unit
+        double lowerScale = scales[0] == 1 ? scales[1] : scales[0];
+        return (numbers[0] * lowerScale + numbers[1] * scales[1]) / 2;
+    }
+
+    private static double amountSuffix(String text, int from) {
+        int start = from;
+        while (start < text.length() && text.charAt(start) == ' ') start++;
+        int end = start;
+        while (end < text.length() && Character.isLetter(text.charAt(end))) end++;
+        switch (text.substring(start, end).toLowerCase()) {
+            case "k", "kdh", "kmad":
+                return 1e3;
+            case "m", "mdh", "mmad", "million", "millions":
+                return 1e6;
+            case "md", "mrd", "mds", "milliard", "milliards":
+                return 1e9;
+            default:
+                return 1;
+        }
+    }
+
+    static String asString(Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
+    static Long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static int intOrMissing(Integer value) {
+        return value != null ? value : EntitySnapshot.NO_VALUE;
+    }
+}
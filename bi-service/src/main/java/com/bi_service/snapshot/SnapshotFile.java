@@ -0,0 +1,230 @@
+package com.bi_service.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary image of an EntitySnapshot: a header with the dictionaries and reference data, then
+// every column as a contiguous big-endian block (8-byte columns first, so all of them stay
+// aligned). Reading maps the file and bulk-copies each block into the snapshot's arrays.
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x42495331; // "BIS1"
+    private static final int VERSION = 1;
+
+    private SnapshotFile() {
+    }
+
+    // Written to a sibling temp file and moved into place, so a crash never leaves a torn image
+    static void write(EntitySnapshot snapshot, Path path) throws IOException {
+        byte[] metadata = metadata(snapshot);
+        int size = snapshot.size();
+        int products = snapshot.productCount();
+        int headerLength = align8(Integer.BYTES * 5 + Long.BYTES * 2 + metadata.length);
+        long length = headerLength + (long) Long.BYTES * (2L * size + products)
+            + (long) Double.BYTES * 3 * size + (long) Integer.BYTES * 10 * size + size;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + size + " entities is too large for a single mapped file");
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                buffer.putInt(MAGIC).putInt(VERSION)
+                    .putLong(snapshot.getBuiltAt()).putLong(snapshot.getBuildTimeMs())
+                    .putInt(size).putInt(products).putInt(metadata.length).put(metadata);
+                buffer.position(headerLength);
+
+                for (int row = 0; row < size; row++) buffer.putLong(snapshot.id(row));
+                for (int row = 0; row < size; row++) buffer.putLong(snapshot.createdAt(row));
+                for (int row = 0; row < products; row++) buffer.putLong(snapshot.productCreatedAt(row));
+                for (int row = 0; row < size; row++) buffer.putDouble(snapshot.effectif(row));
+                for (int row = 0; row < size; row++) buffer.putDouble(snapshot.capital(row));
+                for (int row = 0; row < size; row++) buffer.putDouble(snapshot.chiffreAffaire(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.risk(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.businessRisk(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.companyAge(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.tome(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.type(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.region(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.typeEntreprise(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.secteur(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.sousSecteur(row));
+                for (int row = 0; row < size; row++) buffer.putInt(snapshot.formeJuridique(row));
+                for (int row = 0; row < size; row++) buffer.put(flags(snapshot, row));
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static EntitySnapshot read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " BI snapshot file: " + path);
+        }
+        long builtAt = buffer.getLong();
+        long buildTimeMs = buffer.getLong();
+        int size = buffer.getInt();
+        int products = buffer.getInt();
+        byte[] metadata = new byte[buffer.getInt()];
+        buffer.get(metadata);
+        buffer.position(align8(buffer.position()));
+
+        SnapshotBuilder builder = new SnapshotBuilder(size);
+        readMetadata(ByteBuffer.wrap(metadata), builder);
+        builder.size = size;
+        builder.productCreatedAt = new long[products];
+
+        buffer.asLongBuffer().get(builder.ids, 0, size);
+        skip(buffer, Long.BYTES, size);
+        buffer.asLongBuffer().get(builder.createdAt, 0, size);
+        skip(buffer, Long.BYTES, size);
+        buffer.asLongBuffer().get(builder.productCreatedAt);
+        skip(buffer, Long.BYTES, products);
+        for (double[] column : List.of(builder.effectif, builder.capital, builder.chiffreAffaire)) {
+            buffer.asDoubleBuffer().get(column, 0, size);
+            skip(buffer, Double.BYTES, size);
+        }
+        for (int[] column : List.of(builder.risk, builder.businessRisk, builder.companyAge, builder.tome,
+                builder.type, builder.region, builder.typeEntreprise, builder.secteur, builder.sousSecteur,
+                builder.formeJuridique)) {
+            buffer.asIntBuffer().get(column, 0, size);
+            skip(buffer, Integer.BYTES, size);
+        }
+        buffer.get(builder.flags, 0, size);
+        return builder.restore(builtAt, buildTimeMs);
+    }
+
+    private static byte[] metadata(EntitySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Dictionary<String> dictionary : List.of(snapshot.types(), snapshot.regions(), snapshot.secteurs(),
+                snapshot.sousSecteurs(), snapshot.formesJuridiques())) {
+            writeStrings(out, dictionary.values());
+        }
+        out.writeInt(snapshot.typeEntrepriseIds().size());
+        for (Long id : snapshot.typeEntrepriseIds().values()) {
+            out.writeLong(id);
+        }
+        writeStrings(out, snapshot.secteurNames());
+        writeStrings(out, snapshot.sousSecteurNames());
+        out.writeInt(snapshot.typeEntreprises().size());
+        for (TypeEntrepriseRef ref : snapshot.typeEntreprises()) {
+            out.writeBoolean(ref.id() != null);
+            out.writeLong(ref.id() != null ? ref.id() : 0L);
+            writeString(out, ref.nom());
+            writeString(out, ref.description());
+            writeString(out, ref.type());
+            writeString(out, ref.status());
+        }
+        out.writeInt(snapshot.getFetchTimings().size());
+        for (Map.Entry<String, Long> timing : snapshot.getFetchTimings().entrySet()) {
+            writeString(out, timing.getKey());
+            out.writeLong(timing.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void readMetadata(ByteBuffer in, SnapshotBuilder builder) {
+        // Encoding the values in their stored order reproduces the original codes
+        for (Dictionary<String> dictionary : List.of(builder.types, builder.regions, builder.secteurs,
+                builder.sousSecteurs, builder.formesJuridiques)) {
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                dictionary.encode(readString(in));
+            }
+        }
+        int typeIds = in.getInt();
+        for (int i = 0; i < typeIds; i++) {
+            builder.typeEntrepriseIds.encode(in.getLong());
+        }
+        readStrings(in, builder.secteurNames);
+        readStrings(in, builder.sousSecteurNames);
+        int refs = in.getInt();
+        for (int i = 0; i < refs; i++) {
+            boolean hasId = in.get() != 0;
+            long id = in.getLong();
+            builder.typeEntreprises.add(new TypeEntrepriseRef(hasId ? id : null,
+                readString(in), readString(in), readString(in), readString(in)));
+        }
+        int timings = in.getInt();
+        Map<String, Long> fetchTimings = new LinkedHashMap<>();
+        for (int i = 0; i < timings; i++) {
+            fetchTimings.put(readString(in), in.getLong());
+        }
+        builder.fetchTimings = fetchTimings;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void readStrings(ByteBuffer in, List<String> target) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            target.add(readString(in));
+        }
+    }
+
+    // Length-prefixed UTF-8; -1 stands for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static byte flags(EntitySnapshot snapshot, int row) {
+        byte flags = 0;
+        if (snapshot.hasBusiness(row)) flags |= EntitySnapshot.HAS_BUSINESS;
+        if (snapshot.hasContact(row)) flags |= EntitySnapshot.HAS_CONTACT;
+        if (snapshot.hasProducts(row)) flags |= EntitySnapshot.HAS_PRODUCTS;
+        return flags;
+    }
+
+    private static void skip(ByteBuffer buffer, int width, int count) {
+        buffer.position(buffer.position() + width * count);
+    }
+
+    private static int align8(int position) {
+        return (position + 7) & ~7;
+    }
+}
@@ -0,0 +1,6 @@
+package com.bi_service.snapshot;
+
+// Published after SnapshotService replaces the current snapshot with a complete, freshly fetched
+// one; replacedPartial is set when the snapshot it replaced was missing sections
+public record SnapshotRebuiltEvent(EntitySnapshot snapshot, boolean replacedPartial) {
+}
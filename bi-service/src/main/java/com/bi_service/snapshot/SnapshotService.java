@@ -0,0 +1,373 @@
+package com.bi_service.snapshot;
+
+import com.bi_service.cache.DataChangedEvent;
+import com.bi_service.fetch.Deadline;
+import com.bi_service.fetch.DeadlineExceededException;
+import com.bi_service.fetch.FetchContext;
+import com.bi_service.feign.EntiteClient;
+import com.bi_service.feign.ParametrageClient;
+import com.bi_service.feign.ProductClient;
+import com.bi_service.trace.RequestTrace;
+import feign.Request;
+import feign.Response;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Owns the current EntitySnapshot. BI endpoints read from it instead of refetching the
+// entity graph; it is rebuilt on a schedule, on demand, or when it is older than maxAge.
+// A rebuild keeps the entities mandatory but lets the optional sources time out (under a request's
+// deadline) or fail: the snapshot is then served as partial and completed in the background.
+// Every fetch authenticates with bi.snapshot.service-token; callers' tokens are never used or kept.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotService {
+
+    private final EntiteClient entiteClient;
+    private final ParametrageClient parametrageClient;
+    private final ProductClient productClient;
+    private final ExecutorService fetchExecutor;
+    private final EntitePayloadDecoder entitePayloadDecoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bi.snapshot.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    // Authorization header value for the source services; no snapshot can be built without it
+    @Value("${bi.snapshot.service-token:}")
+    private String serviceToken;
+
+    // Where the latest snapshot is persisted for warm starts; blank disables persistence
+    @Value("${bi.snapshot.file:}")
+    private String snapshotFile;
+
+    private volatile EntitySnapshot current;
+    private volatile long invalidatedAt;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // True while current was read from disk and has not been replaced by a fetched snapshot
+    private volatile boolean servingPersisted;
+    private final AtomicBoolean backgroundRefresh = new AtomicBoolean();
+    private volatile long warmStartLoadMs = -1;
+    private volatile long firstAnswerMs = -1;
+    private volatile String firstAnswerSource;
+
+    // Maps the persisted snapshot, if any, before the web server accepts requests
+    @PostConstruct
+    void loadPersisted() {
+        Path path = snapshotPath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            current = SnapshotFile.read(path);
+            servingPersisted = true;
+            warmStartLoadMs = (System.nanoTime() - started) / 1_000_000;
+            log.info("BI snapshot loaded from {}: {} entities aged {} ms in {} ms",
+                path, current.size(), current.ageMillis(), warmStartLoadMs);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot file {}: {}", path, e.getMessage());
+        }
+        if (!hasServiceToken()) {
+            log.warn("bi.snapshot.service-token is not set: BI snapshots cannot be fetched");
+        } else if (current != null) {
+            refreshInBackground();
+        }
+    }
+
+    public EntitySnapshot getSnapshot() {
+        return getSnapshot(null);
+    }
+
+    // Same as getSnapshot(), but any rebuild it has to wait for is bounded by the deadline
+    public EntitySnapshot getSnapshot(Deadline deadline) {
+        try (RequestTrace.Span span = RequestTrace.span("snapshot")) {
+            return currentSnapshot(deadline);
+        }
+    }
+
+    private EntitySnapshot currentSnapshot(Deadline deadline) {
+        EntitySnapshot snapshot = current;
+        if (snapshot == null) {
+            return answered(refreshIfOlderThan(0L, deadline));
+        }
+        if (servingPersisted || snapshot.isPartial()) {
+            // A warm-started or partial snapshot answers right away; the fetch catches up in the background
+            refreshInBackground();
+            return answered(snapshot);
+        }
+        if (snapshot.ageMillis() > maxAgeMs || snapshot.getBuiltAt() < invalidatedAt) {
+            try {
+                return answered(refreshIfOlderThan(Math.max(snapshot.getBuiltAt() + 1, invalidatedAt), deadline));
+            } catch (Exception e) {
+                log.warn("Snapshot refresh failed, serving snapshot aged {} ms: {}", snapshot.ageMillis(), e.getMessage());
+            }
+        }
+        return answered(snapshot);
+    }
+
+    public EntitySnapshot refresh() {
+        EntitySnapshot snapshot = current;
+        return refreshIfOlderThan(snapshot != null ? snapshot.getBuiltAt() + 1 : 0L, null);
+    }
+
+    // Called when a source service reports a write; the next read rebuilds the snapshot
+    @Order(1)
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        invalidatedAt = System.currentTimeMillis();
+    }
+
+    public EntitySnapshot peek() {
+        return current;
+    }
+
+    public void requestRefresh() {
+        if (!hasServiceToken()) {
+            log.debug("Skipping requested snapshot refresh: no service token configured");
+            return;
+        }
+        refreshInBackground();
+    }
+
+    // Cold-start figures: how long the persisted snapshot took to map and how long after JVM
+    // start the first snapshot-backed answer was served
+    public Map<String, Object> startupReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("snapshotFile", snapshotPath() != null ? snapshotPath().toString() : null);
+        report.put("servingPersisted", servingPersisted);
+        report.put("warmStartLoadMs", warmStartLoadMs >= 0 ? warmStartLoadMs : null);
+        report.put("firstAnswerMs", firstAnswerMs >= 0 ? firstAnswerMs : null);
+        report.put("firstAnswerSource", firstAnswerSource);
+        return report;
+    }
+
+    @Scheduled(fixedDelayString = "${bi.snapshot.refresh-interval-ms:300000}",
+               initialDelayString = "${bi.snapshot.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        if (!hasServiceToken()) {
+            log.debug("Skipping scheduled snapshot refresh: no service token configured");
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Scheduled snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Rebuilds unless another caller already produced a snapshot newer than builtBefore
+    private EntitySnapshot refreshIfOlderThan(long builtBefore, Deadline deadline) {
+        EntitySnapshot previous;
+        EntitySnapshot rebuilt;
+        lock(deadline);
+        try {
+            previous = current;
+            if (previous != null && previous.getBuiltAt() >= builtBefore) {
+                return previous;
+            }
+            rebuilt = build(deadline);
+            if (rebuilt.isPartial() && previous != null && !previous.isPartial()) {
+                // Keep serving complete data over fresher but incomplete data
+                log.info("Keeping the current snapshot: rebuild missed {}", rebuilt.getTimedOutSections());
+                rebuilt = null;
+            } else {
+                current = rebuilt;
+                servingPersisted = false;
+                log.info("BI snapshot rebuilt: {} entities, {} products in {} ms{}",
+                    rebuilt.size(), rebuilt.productCount(), rebuilt.getBuildTimeMs(),
+                    rebuilt.isPartial() ? ", without " + rebuilt.getTimedOutSections() : "");
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+        if (rebuilt == null || rebuilt.isPartial()) {
+            refreshInBackground();
+            return rebuilt != null ? rebuilt : previous;
+        }
+        persist(rebuilt);
+        eventPublisher.publishEvent(new SnapshotRebuiltEvent(rebuilt, previous != null && previous.isPartial()));
+        return rebuilt;
+    }
+
+    // Waits for a rebuild in progress no longer than the deadline allows
+    private void lock(Deadline deadline) {
+        if (deadline == null) {
+            refreshLock.lock();
+            return;
+        }
+        try {
+            if (!refreshLock.tryLock(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DeadlineExceededException(List.of("snapshot"), deadline.budgetMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException(List.of("snapshot"), deadline.budgetMillis());
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!backgroundRefresh.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            fetchExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.warn("Background snapshot refresh failed, still serving the persisted snapshot: {}", e.getMessage());
+                } finally {
+                    backgroundRefresh.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundRefresh.set(false);
+            log.warn("Background snapshot refresh rejected: {}", e.getMessage());
+        }
+    }
+
+    private void persist(EntitySnapshot snapshot) {
+        Path path = snapshotPath();
+        if (path == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            SnapshotFile.write(snapshot, path);
+            log.debug("BI snapshot persisted to {} in {} ms", path, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not persist snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private EntitySnapshot answered(EntitySnapshot snapshot) {
+        if (firstAnswerMs < 0) {
+            synchronized (this) {
+                if (firstAnswerMs < 0) {
+                    firstAnswerSource = servingPersisted ? "disk" : "fetch";
+                    firstAnswerMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                    log.info("First BI answer served {} ms after JVM start from a {} snapshot",
+                        firstAnswerMs, firstAnswerSource);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private Path snapshotPath() {
+        return snapshotFile != null && !snapshotFile.isBlank() ? Path.of(snapshotFile) : null;
+    }
+
+    // All five sources are requested concurrently, so the build waits for the slowest one only
+    private EntitySnapshot build(Deadline deadline) {
+        if (!hasServiceToken()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "bi.snapshot.service-token must be set to fetch BI snapshots");
+        }
+        FetchContext context = new FetchContext(fetchExecutor, serviceToken, deadline);
+        Request.Options options = context.callOptions();
+        CompletableFuture<Object> entitesCall = context.fetch("entites", t -> decodeEntites(t, options));
+        CompletableFuture<Object> secteursCall = context.fetch("secteurs", t -> parametrageClient.getAllSecteurs(t, options));
+        CompletableFuture<Object> sousSecteursCall = context.fetch("sous-secteurs", t -> parametrageClient.getAllSousSecteurs(t, options));
+        CompletableFuture<Object> typeEntreprisesCall = context.fetch("type-entreprises", t -> parametrageClient.getAllTypeEntreprises(t, options));
+        CompletableFuture<Object> produitsCall = context.fetch("produits", t -> productClient.getAllProduits(t, options));
+
+        SnapshotBuilder builder = (SnapshotBuilder) joinRequired("entites", entitesCall, deadline);
+        List<String> missing = new ArrayList<>();
+        List<Map<String, Object>> secteurs = joinOptional("secteurs", secteursCall, missing);
+        List<Map<String, Object>> sousSecteurs = joinOptional("sous-secteurs", sousSecteursCall, missing);
+        List<Map<String, Object>> typeEntreprises = joinOptional("type-entreprises", typeEntreprisesCall, missing);
+        List<Map<String, Object>> produits = joinOptional("produits", produitsCall, missing);
+        log.debug("Snapshot fetch finished in {} ms, per call: {}", context.elapsedMillis(), context.getTimings());
+
+        builder.secteurs(secteurs).sousSecteurs(sousSecteurs).typeEntreprises(typeEntreprises).produits(produits);
+        builder.fetchTimings(context.getTimings()).timedOutSections(missing);
+        return builder.build();
+    }
+
+    // Entities are streamed straight into the columns; no map tree of the payload is built
+    private SnapshotBuilder decodeEntites(String token, Request.Options options) {
+        try (Response response = entiteClient.streamAllEntites(token, options)) {
+            if (response.status() / 100 != 2) {
+                throw new IllegalStateException("entite-service returned HTTP " + response.status());
+            }
+            SnapshotBuilder builder = new SnapshotBuilder();
+            if (response.body() == null) {
+                return builder;
+            }
+            return entitePayloadDecoder.decodeInto(response.body().asInputStream(), builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode entites payload", e);
+        }
+    }
+
+    private Object joinValue(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Object joinRequired(String name, CompletableFuture<Object> call, Deadline deadline) {
+        try {
+            return joinValue(call);
+        } catch (RuntimeException e) {
+            if (deadline != null && Deadline.isTimeout(e)) {
+                throw new DeadlineExceededException(List.of(name), deadline.budgetMillis());
+            }
+            throw e;
+        }
+    }
+
+    // Reference data and products are best effort: a service that times out or fails yields an
+    // empty section listed in missing, so the snapshot is served as partial and not persisted
+    private List<Map<String, Object>> joinOptional(String name, CompletableFuture<Object> call, List<String> missing) {
+        try {
+            return asList(joinValue(call));
+        } catch (Exception e) {
+            missing.add(name);
+            log.warn("Could not fetch {} for snapshot: {}", name, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> asList(Object data) {
+        return data instanceof List ? (List<Map<String, Object>>) data : Collections.emptyList();
+    }
+
+    private boolean hasServiceToken() {
+        return serviceToken != null && !serviceToken.isBlank();
+    }
+}
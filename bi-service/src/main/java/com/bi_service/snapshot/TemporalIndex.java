@@ -0,0 +1,86 @@
+package com.bi_service.snapshot;
+
+import java.util.Arrays;
+
+// Timestamps of one snapshot column as sorted epoch seconds, without the missing ones. A range
+// count is two binary searches, and the timestamps of one day or bucket form a contiguous run.
+public final class TemporalIndex {
+
+    private static final TemporalIndex EMPTY = new TemporalIndex(new long[0]);
+
+    private final long[] sorted;
+
+    private TemporalIndex(long[] sorted) {
+        this.sorted = sorted;
+    }
+
+    // Index over column[0, length): the column itself when it is already sorted and complete,
+    // otherwise a sorted copy without the NO_TIMESTAMP entries
+    static TemporalIndex of(long[] column, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        boolean usable = length == column.length && column[0] != EntitySnapshot.NO_TIMESTAMP;
+        for (int i = 1; usable && i < length; i++) {
+            usable = column[i] >= column[i - 1] && column[i] != EntitySnapshot.NO_TIMESTAMP;
+        }
+        if (usable) {
+            return new TemporalIndex(column);
+        }
+
+        long[] values = new long[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (column[i] != EntitySnapshot.NO_TIMESTAMP) {
+                values[count++] = column[i];
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        values = count == length ? values : Arrays.copyOf(values, count);
+        Arrays.sort(values);
+        return new TemporalIndex(values);
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    public boolean isEmpty() {
+        return sorted.length == 0;
+    }
+
+    public long get(int position) {
+        return sorted[position];
+    }
+
+    public long first() {
+        return sorted[0];
+    }
+
+    public long last() {
+        return sorted[sorted.length - 1];
+    }
+
+    // Position of the first timestamp >= epochSecond (size() when there is none)
+    public int lowerBound(long epochSecond) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < epochSecond) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    // Timestamps within [fromEpochSecond, toEpochSecond], both inclusive
+    public int count(long fromEpochSecond, long toEpochSecond) {
+        if (fromEpochSecond > toEpochSecond) {
+            return 0;
+        }
+        int to = toEpochSecond == Long.MAX_VALUE ? sorted.length : lowerBound(toEpochSecond + 1);
+        return Math.max(0, to - lowerBound(fromEpochSecond));
+    }
+}
@@ -0,0 +1,123 @@
+package com.bi_service.snapshot;
+
+// Reads the timestamp layouts the source services emit by looking at the characters directly,
+// without building java.time objects or using exceptions for control flow:
+//   yyyy-MM-ddTHH:mm[:ss[.fraction]][offset]   ISO local or offset date-time (fraction: 0-9 digits)
+//   yyyy-MM-dd HH:mm:ss
+// An offset (Z or +HH:MM[:SS]) is validated but not applied; the wall-clock time is kept, as the
+// OffsetDateTime.toLocalDateTime() fallback used to do. Anything else is NO_TIMESTAMP.
+public final class TimestampParser {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    private TimestampParser() {
+    }
+
+    // Epoch seconds of the wall-clock time read as UTC, or EntitySnapshot.NO_TIMESTAMP
+    public static long parse(CharSequence text) {
+        if (text == null || text.length() < 16) {
+            return EntitySnapshot.NO_TIMESTAMP;
+        }
+        int length = text.length();
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        char separator = text.charAt(10);
+        boolean iso = separator == 'T' || separator == 't';
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(13) != ':'
+                || (!iso && separator != ' ')) {
+            return EntitySnapshot.NO_TIMESTAMP;
+        }
+
+        int second = 0;
+        int position = 16;
+        if (position < length && text.charAt(position) == ':') {
+            second = length >= 19 ? digits(text, 17, 2) : -1;
+            position = 19;
+            if (iso && second >= 0 && position < length && text.charAt(position) == '.') {
+                int fractionStart = ++position;
+                while (position < length && isDigit(text.charAt(position))) {
+                    position++;
+                }
+                if (position - fractionStart > 9) {
+                    return EntitySnapshot.NO_TIMESTAMP;
+                }
+            }
+        } else if (!iso) {
+            return EntitySnapshot.NO_TIMESTAMP;
+        }
+        if (second < 0 || (position < length && !(iso && isOffset(text, position, length)))) {
+            return EntitySnapshot.NO_TIMESTAMP;
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return EntitySnapshot.NO_TIMESTAMP;
+        }
+        return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    // Same arithmetic as LocalDate.toEpochDay
+    static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            total -= isLeap(year) ? 1 : 2;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static boolean isOffset(CharSequence text, int position, int length) {
+        char sign = text.charAt(position);
+        if (sign == 'Z' || sign == 'z') {
+            return position + 1 == length;
+        }
+        if ((sign != '+' && sign != '-') || (length - position != 6 && length - position != 9)) {
+            return false;
+        }
+        int hours = digits(text, position + 1, 2);
+        int minutes = digits(text, position + 4, 2);
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59 || text.charAt(position + 3) != ':') {
+            return false;
+        }
+        if (length - position == 9) {
+            int seconds = digits(text, position + 7, 2);
+            return text.charAt(position + 6) == ':' && seconds >= 0 && seconds <= 59;
+        }
+        return true;
+    }
+
+    // Value of count ASCII digits starting at offset, or -1 if any of them is not a digit
+    private static int digits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
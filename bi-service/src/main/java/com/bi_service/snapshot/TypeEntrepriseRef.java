@@ -0,0 +1,16 @@
+package com.bi_service.snapshot;
+
+import java.util.Map;
+
+public record TypeEntrepriseRef(Long id, String nom, String description, String type, String status) {
+
+    // Reads one row of parametrage-service's /api/type-entreprises payload
+    public static TypeEntrepriseRef fromRow(Map<String, Object> row) {
+        return new TypeEntrepriseRef(
+            SnapshotBuilder.asLong(row.get("id")),
+            SnapshotBuilder.asString(row.get("nom")),
+            SnapshotBuilder.asString(row.get("description")),
+            SnapshotBuilder.asString(row.get("type")),
+            SnapshotBuilder.asString(row.get("status")));
+    }
+}
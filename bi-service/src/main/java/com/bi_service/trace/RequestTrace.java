@@ -0,0 +1,116 @@
+package com.bi_service.trace;
+
+import org.slf4j.MDC;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Stage timings and the debug switch of one BI request. The trace is bound to the thread
+// running the request, so services open spans without it being passed around; with no trace
+// bound, spans are a shared no-op and cost nothing.
+public final class RequestTrace {
+
+    public static final String REQUEST_ID_KEY = "biRequest";
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final Span NO_SPAN = new Span(null, null);
+
+    private final String requestId = UUID.randomUUID().toString().substring(0, 8);
+    private final String endpoint;
+    private final boolean debug;
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> spans = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public RequestTrace(String endpoint, boolean debug) {
+        this.endpoint = endpoint;
+        this.debug = debug;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    // True while the current thread serves a request that asked for debug output
+    public static boolean debugRequested() {
+        RequestTrace trace = CURRENT.get();
+        return trace != null && trace.debug;
+    }
+
+    public static Span span(String stage) {
+        RequestTrace trace = CURRENT.get();
+        return trace != null ? new Span(trace, stage) : NO_SPAN;
+    }
+
+    // Binds this trace (and its id in the logging MDC) to the current thread until closed
+    public Scope bind() {
+        RequestTrace previous = CURRENT.get();
+        CURRENT.set(this);
+        MDC.put(REQUEST_ID_KEY, requestId);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+                MDC.put(REQUEST_ID_KEY, previous.requestId);
+            } else {
+                CURRENT.remove();
+                MDC.remove(REQUEST_ID_KEY);
+            }
+        };
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    // Milliseconds per stage, in the order the stages finished; a repeated stage adds up
+    public Map<String, Long> getSpans() {
+        synchronized (spans) {
+            return new LinkedHashMap<>(spans);
+        }
+    }
+
+    // Server-Timing header value, e.g. "snapshot;dur=4, sector.aggregate;dur=1, total;dur=6"
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder();
+        getSpans().forEach((stage, millis) -> header.append(stage).append(";dur=").append(millis).append(", "));
+        return header.append("total;dur=").append(elapsedMillis()).toString();
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Span implements AutoCloseable {
+
+        private final RequestTrace trace;
+        private final String stage;
+        private final long startedAt;
+
+        private Span(RequestTrace trace, String stage) {
+            this.trace = trace;
+            this.stage = stage;
+            this.startedAt = trace != null ? System.nanoTime() : 0L;
+        }
+
+        @Override
+        public void close() {
+            if (trace != null) {
+                trace.spans.merge(stage, (System.nanoTime() - startedAt) / 1_000_000, Long::sum);
+            }
+        }
+    }
+}
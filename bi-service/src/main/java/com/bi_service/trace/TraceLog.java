@@ -0,0 +1,75 @@
+package com.bi_service.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Request summaries and payload dumps for bi-service. A payload is only serialized when the
+// request asked for debug output, or when DEBUG is enabled and the per-minute sample budget
+// is not spent; otherwise nothing is built at all.
+@Slf4j
+@Component
+public class TraceLog {
+
+    private final ObjectMapper objectMapper;
+    private final int samplesPerMinute;
+    private final long slowRequestMs;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+
+    public TraceLog(ObjectMapper objectMapper,
+                    @Value("${bi.log.payload-samples-per-minute:1}") int samplesPerMinute,
+                    @Value("${bi.log.slow-request-ms:2000}") long slowRequestMs) {
+        this.objectMapper = objectMapper;
+        this.samplesPerMinute = samplesPerMinute;
+        this.slowRequestMs = slowRequestMs;
+    }
+
+    public void payload(String label, Supplier<?> payload) {
+        boolean requested = RequestTrace.debugRequested();
+        if (!requested && !(log.isDebugEnabled() && sample())) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload.get());
+        } catch (Exception e) {
+            json = "<unserializable: " + e.getMessage() + ">";
+        }
+        if (requested) {
+            log.info("payload label={} body={}", label, json);
+        } else {
+            log.debug("payload label={} sampled=true body={}", label, json);
+        }
+    }
+
+    // One key=value line per request: DEBUG normally, INFO for debug requests, WARN when slow
+    public void completed(RequestTrace trace, int status) {
+        long totalMs = trace.elapsedMillis();
+        if (totalMs >= slowRequestMs) {
+            log.warn("request endpoint={} status={} totalMs={} spans={} slow=true",
+                trace.getEndpoint(), status, totalMs, trace.getSpans());
+        } else if (trace.isDebug()) {
+            log.info("request endpoint={} status={} totalMs={} spans={}",
+                trace.getEndpoint(), status, totalMs, trace.getSpans());
+        } else if (log.isDebugEnabled()) {
+            log.debug("request endpoint={} status={} totalMs={} spans={}",
+                trace.getEndpoint(), status, totalMs, trace.getSpans());
+        }
+    }
+
+    private boolean sample() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= 60_000 && windowStart.compareAndSet(start, now)) {
+            windowSamples.set(0);
+        }
+        return windowSamples.incrementAndGet() <= samplesPerMinute;
+    }
+}
@@ -0,0 +1,148 @@
+package com.bi_service.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Mergeable quantile sketch in the KLL family. Level h holds values that each stand for 2^h
+// inputs; a full level is sorted and every other value (from a random offset) is promoted to the
+// next level. Memory stays around k * log2(n / k) values. Until the first compaction every value
+// is kept, so quantiles of fewer than k values are exact (see isExact). After that, a quantile of
+// n values can be off by at most (n / k) * log2(n / k) ranks; the random offsets make the error
+// cancel out across compactions, so it is typically about n / k ranks (0.5% of n at DEFAULT_K).
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private long count;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 2) {
+            throw new IllegalArgumentException("k must be at least 2: " + k);
+        }
+        this.k = k;
+        this.random = new SplittableRandom(k);
+        this.levels[0] = new double[k];
+    }
+
+    public void accept(double value) {
+        count++;
+        levels[0][sizes[0]++] = value;
+        if (sizes[0] == k) {
+            compact(0);
+        }
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                ensureLevel(h);
+                if (sizes[h] == k) {
+                    compact(h);
+                }
+                levels[h][sizes[h]++] = other.levels[h][i];
+            }
+        }
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] == k) compact(h);
+        }
+        count += other.count;
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    // True while nothing has been compacted: every accepted value is still held at weight 1
+    public boolean isExact() {
+        return count == sizes[0];
+    }
+
+    // Value at fraction q of the sorted input, interpolating between neighbouring ranks
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0.0;
+        }
+        // Merge the sorted levels into one value order, carrying each value's weight
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        for (int h = 0; h < levels.length; h++) {
+            double[] level = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(level);
+            double[] mergedValues = new double[values.length + level.length];
+            long[] mergedWeights = new long[mergedValues.length];
+            int a = 0, b = 0;
+            for (int i = 0; i < mergedValues.length; i++) {
+                if (b == level.length || (a < values.length && values[a] <= level[b])) {
+                    mergedValues[i] = values[a];
+                    mergedWeights[i] = weights[a++];
+                } else {
+                    mergedValues[i] = level[b++];
+                    mergedWeights[i] = 1L << h;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+
+        long total = 0;
+        for (long weight : weights) total += weight;
+        double rank = Math.min(Math.max(q, 0.0), 1.0) * (total - 1);
+        long lowerRank = (long) Math.floor(rank);
+        double lower = valueAtRank(values, weights, lowerRank);
+        double upper = valueAtRank(values, weights, Math.min(lowerRank + 1, total - 1));
+        return lower + (upper - lower) * (rank - lowerRank);
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    private void compact(int h) {
+        ensureLevel(h + 1);
+        double[] level = levels[h];
+        Arrays.sort(level, 0, sizes[h]);
+        // An odd value out stays behind so that total weight is preserved
+        int pairs = sizes[h] / 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = 0; i < pairs; i++) {
+            if (sizes[h + 1] == k) {
+                compact(h + 1);
+            }
+            levels[h + 1][sizes[h + 1]++] = level[2 * i + offset];
+        }
+        int leftover = sizes[h] - 2 * pairs;
+        if (leftover == 1) {
+            level[0] = level[sizes[h] - 1];
+        }
+        sizes[h] = leftover;
+    }
+
+    private void ensureLevel(int h) {
+        if (h < levels.length) {
+            return;
+        }
+        levels = Arrays.copyOf(levels, h + 1);
+        sizes = Arrays.copyOf(sizes, h + 1);
+        for (int i = 0; i <= h; i++) {
+            if (levels[i] == null) levels[i] = new double[k];
+        }
+    }
+
+    private static double valueAtRank(double[] values, long[] weights, long rank) {
+        long cumulative = 0;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (cumulative > rank) return values[i];
+        }
+        return values[values.length - 1];
+    }
+}
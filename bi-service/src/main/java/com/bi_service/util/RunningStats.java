@@ -0,0 +1,89 @@
+package com.bi_service.util;
+
+import java.nio.DoubleBuffer;
+
+// Count, mean, variance, min/max and first/last value of a stream, updated in O(1) per value
+// with Welford's method. Two instances built over consecutive parts of a stream can be merged.
+public final class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double first = Double.NaN;
+    private double last = Double.NaN;
+
+    public void accept(double value) {
+        if (count == 0) first = value;
+        last = value;
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    public RunningStats accept(double[] values) {
+        for (double value : values) accept(value);
+        return this;
+    }
+
+    public RunningStats accept(DoubleBuffer values) {
+        for (int i = values.position(); i < values.limit(); i++) accept(values.get(i));
+        return this;
+    }
+
+    // Folds in statistics of the values that followed this instance's values (Chan et al.)
+    public RunningStats merge(RunningStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            first = other.first;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        last = other.last;
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count > 0 ? mean : 0.0;
+    }
+
+    // Population variance, matching StatisticsUtils.calculateStandardDeviation
+    public double variance() {
+        return count > 1 ? m2 / count : 0.0;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public double first() {
+        return first;
+    }
+
+    public double last() {
+        return last;
+    }
+}
@@ -1,8 +1,11 @@
 package com.bi_service.util;
 
+import com.bi_service.analytics.TimeSeriesAnalytics;
+
+import java.nio.DoubleBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class StatisticsUtils {
 
@@ -10,37 +13,38 @@ public class StatisticsUtils {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        return values.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return calculateMean(toArray(values));
+    }
+
+    public static double calculateMean(double[] values) {
+        return summarize(values).mean();
     }
 
     public static double calculateMedian(List<Double> values) {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        List<Double> sortedValues = values.stream()
-                .sorted()
-                .collect(Collectors.toList());
-        int size = sortedValues.size();
-        if (size % 2 == 0) {
-            return (sortedValues.get(size / 2 - 1) + sortedValues.get(size / 2)) / 2.0;
-        } else {
-            return sortedValues.get(size / 2);
+        // toArray already copies, so the selection may reorder it in place
+        return medianInPlace(toArray(values));
+    }
+
+    public static double calculateMedian(double[] values) {
+        if (values == null || values.length == 0) {
+            return 0.0;
         }
+        return medianInPlace(values.clone());
     }
 
     public static double calculateStandardDeviation(List<Double> values) {
         if (values == null || values.size() < 2) {
             return 0.0;
         }
-        double mean = calculateMean(values);
-        double variance = values.stream()
-                .mapToDouble(value -> Math.pow(value - mean, 2))
-                .average()
-                .orElse(0.0);
-        return Math.sqrt(variance);
+        return calculateStandardDeviation(toArray(values));
+    }
+
+    // Population standard deviation in a single pass
+    public static double calculateStandardDeviation(double[] values) {
+        return summarize(values).standardDeviation();
     }
 
     public static double calculateGrowthRate(List<Double> values) {
@@ -52,34 +56,55 @@ public class StatisticsUtils {
         return ((lastValue - firstValue) / firstValue) * 100;
     }
 
+    public static double calculateGrowthRate(RunningStats stats) {
+        if (stats.count() < 2) {
+            return 0.0;
+        }
+        return ((stats.last() - stats.first()) / stats.first()) * 100;
+    }
+
+    public static RunningStats summarize(double[] values) {
+        RunningStats stats = new RunningStats();
+        return values != null ? stats.accept(values) : stats;
+    }
+
+    public static RunningStats summarize(DoubleBuffer values) {
+        return new RunningStats().accept(values);
+    }
+
+    // Keyed by the index of each value, in series order
     public static Map<String, Double> calculateMovingAverage(List<Double> values, int window) {
         if (values == null || values.isEmpty() || window <= 0) {
             return Map.of();
         }
-        return values.stream()
-                .collect(Collectors.toMap(
-                    value -> String.valueOf(values.indexOf(value)),
-                    value -> {
-                        int start = Math.max(0, values.indexOf(value) - window + 1);
-                        List<Double> windowValues = values.subList(start, values.indexOf(value) + 1);
-                        return calculateMean(windowValues);
-                    }
-                ));
+        double[] averages = TimeSeriesAnalytics.simpleMovingAverage(toArray(values), window);
+        Map<String, Double> movingAverages = new LinkedHashMap<>();
+        for (int i = 0; i < averages.length; i++) {
+            movingAverages.put(String.valueOf(i), averages[i]);
+        }
+        return movingAverages;
     }
 
     public static double calculateCorrelation(List<Double> x, List<Double> y) {
         if (x == null || y == null || x.size() != y.size() || x.isEmpty()) {
             return 0.0;
         }
+        return calculateCorrelation(toArray(x), toArray(y));
+    }
+
+    public static double calculateCorrelation(double[] x, double[] y) {
+        if (x == null || y == null || x.length != y.length || x.length == 0) {
+            return 0.0;
+        }
         double meanX = calculateMean(x);
         double meanY = calculateMean(y);
         double sumXY = 0.0;
         double sumX2 = 0.0;
         double sumY2 = 0.0;
 
-        for (int i = 0; i < x.size(); i++) {
-            double xDiff = x.get(i) - meanX;
-            double yDiff = y.get(i) - meanY;
+        for (int i = 0; i < x.length; i++) {
+            double xDiff = x[i] - meanX;
+            double yDiff = y[i] - meanY;
             sumXY += xDiff * yDiff;
             sumX2 += xDiff * xDiff;
             sumY2 += yDiff * yDiff;
@@ -91,4 +116,52 @@ public class StatisticsUtils {
 
         return sumXY / Math.sqrt(sumX2 * sumY2);
     }
+
+    // Median by quickselect, O(n) on average; reorders the array
+    static double medianInPlace(double[] values) {
+        int n = values.length;
+        int upper = n / 2;
+        double upperValue = select(values, upper);
+        if (n % 2 == 1) {
+            return upperValue;
+        }
+        // After selection everything left of "upper" is <= it, so the lower middle is their maximum
+        double lowerValue = values[0];
+        for (int i = 1; i < upper; i++) {
+            if (values[i] > lowerValue) lowerValue = values[i];
+        }
+        return (lowerValue + upperValue) / 2.0;
+    }
+
+    // Hoare-style quickselect: returns the k-th smallest value and leaves it at index k
+    static double select(double[] values, int k) {
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return values[k];
+        }
+        return values[k];
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
 }
@@ -0,0 +1,45 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.TestSnapshots;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScorecardKernelTest {
+
+    private final ScorecardKernel kernel = new ScorecardKernel();
+
+    @Test
+    void parallelAggregatesMatchSequentialPass() {
+        EntitySnapshot snapshot = snapshot(50_000);
+
+        ScorecardAggregates sequential = kernel.aggregateSequential(snapshot);
+        ScorecardAggregates parallel = kernel.aggregateParallel(snapshot);
+
+        assertEquals(sequential.getTotalEntities(), parallel.getTotalEntities());
+        assertEquals(sequential.getWithBusiness(), parallel.getWithBusiness());
+        assertEquals(sequential.getWithContact(), parallel.getWithContact());
+        assertEquals(sequential.getWithProducts(), parallel.getWithProducts());
+        assertEquals(sequential.getRiskLow(), parallel.getRiskLow());
+        assertEquals(sequential.getRiskMedium(), parallel.getRiskMedium());
+        assertEquals(sequential.getRiskHigh(), parallel.getRiskHigh());
+        assertEquals(sequential.getRiskSum(), parallel.getRiskSum());
+        for (int code = 0; code < snapshot.secteurs().size(); code++) {
+            assertEquals(sequential.sectorCount(code), parallel.sectorCount(code));
+        }
+        for (int code = 0; code < snapshot.regions().size(); code++) {
+            assertEquals(sequential.regionCount(code), parallel.regionCount(code));
+        }
+    }
+
+    private static EntitySnapshot snapshot(int entities) {
+        return TestSnapshots.seeded(42)
+            .secteurs("Industrie", "Services", "Commerce", "", "Agriculture")
+            .regions("Casablanca-Settat", "Rabat-Salé-Kénitra", "Fès-Meknès", "")
+            .missingBusiness(4)
+            .missingRisk(5)
+            .withSections()
+            .snapshot(entities);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bi_service.aggregation;
+
+import com.bi_service.cube.EntityCube;
+import com.bi_service.feign.dto.EntiteBusinessRecord;
+import com.bi_service.feign.dto.EntiteRecord;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.SnapshotBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SectorGrowthKernelTest {
+
+    private static final long NOW = LocalDateTime.of(2024, 6, 30, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final int DAYS_7 = 0;
+    private static final int DAYS_30 = 1;
+    private static final int DAYS_90 = 2;
+
+    private final SectorGrowthKernel kernel = new SectorGrowthKernel();
+
+    @Test
+    void windowsCountEntitiesCreatedStrictlyAfterTheirCutoff() {
+        EntitySnapshot snapshot = snapshot();
+        SectorAggregates aggregates = kernel.aggregate(EntityCube.build(snapshot).index(), NOW);
+
+        assertArrayEquals(new int[] {7, 30, 90}, aggregates.windowDays());
+        int industrie = snapshot.secteurs().code("Industrie");
+        assertEquals(5, aggregates.secteurCount(industrie));
+        // The entity created exactly on a cutoff falls outside that window
+        assertEquals(20.0, aggregates.secteurGrowth(DAYS_7, industrie));
+        assertEquals(60.0, aggregates.secteurGrowth(DAYS_30, industrie));
+        assertEquals(80.0, aggregates.secteurGrowth(DAYS_90, industrie));
+
+        int textile = snapshot.sousSecteurs().code("Textile");
+        assertEquals(2, aggregates.sousSecteurCount(textile));
+        assertEquals(50.0, aggregates.sousSecteurGrowth(DAYS_7, textile));
+        assertEquals(100.0, aggregates.sousSecteurGrowth(DAYS_30, textile));
+        int chimie = snapshot.sousSecteurs().code("Chimie");
+        assertEquals(3, aggregates.sousSecteurCount(chimie));
+        assertEquals(0.0, aggregates.sousSecteurGrowth(DAYS_7, chimie));
+        assertEquals(100.0 / 3, aggregates.sousSecteurGrowth(DAYS_30, chimie), 1e-9);
+        assertEquals(200.0 / 3, aggregates.sousSecteurGrowth(DAYS_90, chimie), 1e-9);
+    }
+
+    @Test
+    void sectorsWithoutRecentEntriesHaveZeroGrowth() {
+        EntitySnapshot snapshot = snapshot();
+        SectorAggregates aggregates = kernel.aggregate(EntityCube.build(snapshot).index(), NOW);
+
+        // An old entity and one without createdAt count towards the total but never as recent
+        int services = snapshot.secteurs().code("Services");
+        assertEquals(2, aggregates.secteurCount(services));
+        for (int window = 0; window < aggregates.windowDays().length; window++) {
+            assertEquals(0.0, aggregates.secteurGrowth(window, services));
+        }
+        // The recent entity without business data has no secteur and is not counted anywhere
+        assertEquals(2, snapshot.secteurs().size());
+    }
+
+    @Test
+    void emptySnapshotHasNoSectors() {
+        EntitySnapshot snapshot = new SnapshotBuilder(0).build();
+        SectorAggregates aggregates = kernel.aggregate(EntityCube.build(snapshot).index(), NOW);
+
+        assertArrayEquals(new int[] {7, 30, 90}, aggregates.windowDays());
+        assertEquals(0, snapshot.secteurs().size());
+        assertEquals(0, snapshot.sousSecteurs().size());
+    }
+
+    private static EntitySnapshot snapshot() {
+        SnapshotBuilder builder = new SnapshotBuilder(8);
+        builder.addEntity(entity(1, "2024-06-23T00:00:00", "Industrie", "Textile"));
+        builder.addEntity(entity(2, "2024-06-23T00:00:01", "Industrie", "Textile"));
+        builder.addEntity(entity(3, "2024-06-10T12:00:00", "Industrie", "Chimie"));
+        builder.addEntity(entity(4, "2024-04-15T08:30:00", "Industrie", "Chimie"));
+        builder.addEntity(entity(5, "2024-04-01T00:00:00", "Industrie", "Chimie"));
+        builder.addEntity(entity(6, "2023-01-01T00:00:00", "Services", null));
+        builder.addEntity(entity(7, null, "Services", null));
+        builder.addEntity(new EntiteRecord(8L, "PME", "Fès-Meknès", 2, null, "2024-06-29T00:00:00", null, null, null));
+        return builder.build();
+    }
+
+    private static EntiteRecord entity(long id, String createdAt, String secteur, String sousSecteur) {
+        EntiteBusinessRecord business = new EntiteBusinessRecord(2, null, "2010-01-01", secteur, sousSecteur, "SARL",
+            null, null, null);
+        return new EntiteRecord(id, "PME", "Casablanca-Settat", 3, null, createdAt, business, null, null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bi_service.analytics;
+
+import com.bi_service.util.StatisticsUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorrelationMatrixTest {
+
+    private static final int ROWS = 100_000;
+
+    @Test
+    void matrixMatchesPairwiseCorrelationOnCompleteRows() {
+        Random random = new Random(3);
+        double[] risk = new double[ROWS];
+        double[] age = new double[ROWS];
+        double[] capital = new double[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            risk[row] = random.nextInt(6);
+            age[row] = random.nextInt(10) == 0 ? Double.NaN : 5 + 2 * risk[row] + random.nextGaussian() * 3;
+            // Monotone in age with huge magnitudes, so Spearman(age, capital) must be exactly 1
+            capital[row] = Double.isNaN(age[row]) ? Double.NaN : Math.exp(age[row] / 2) * 1e6;
+        }
+
+        CorrelationMatrix matrix = CorrelationMatrix.compute(List.of("risk", "age", "capital"),
+            new double[][]{risk, age, capital});
+
+        double[][] complete = completeRows(risk, age);
+        assertEquals(complete[0].length, matrix.pairCount(0, 1));
+        assertEquals(StatisticsUtils.calculateCorrelation(complete[0], complete[1]), matrix.pearson(0, 1), 1e-9);
+        assertEquals(matrix.pearson(0, 1), matrix.pearson(1, 0));
+        assertEquals(1.0, matrix.pearson(0, 0), 1e-12);
+        assertEquals(1.0, matrix.spearman(1, 2), 1e-12);
+        assertTrue(matrix.pearson(1, 2) < 1.0);
+    }
+
+    @Test
+    void spearmanRanksEachPairOverItsSharedRows() {
+        Random random = new Random(5);
+        double[] risk = new double[ROWS];
+        double[] capital = new double[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            double x = random.nextDouble();
+            // The two columns miss different rows: risk at random, capital mostly at the high end
+            risk[row] = random.nextInt(8) == 0 ? Double.NaN : x;
+            capital[row] = x > 0.6 && random.nextInt(4) != 0 ? Double.NaN : Math.pow(x, 3) * 1e7 + random.nextGaussian() * 5e5;
+        }
+        // Two more columns with their own gaps so several missing-row patterns are grouped
+        double[] age = new double[ROWS];
+        double[] effectif = new double[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            age[row] = row % 3 == 0 ? Double.NaN : random.nextGaussian();
+            effectif[row] = Double.isNaN(capital[row]) || row % 5 == 0 ? Double.NaN : capital[row] / 1e4 + random.nextGaussian() * 100;
+        }
+
+        double[][] columns = {risk, capital, age, effectif};
+        CorrelationMatrix matrix = CorrelationMatrix.compute(List.of("risk", "capital", "age", "effectif"), columns);
+
+        for (int i = 0; i < columns.length; i++) {
+            for (int j = 0; j < columns.length; j++) {
+                double[][] complete = completeRows(columns[i], columns[j]);
+                double reference = StatisticsUtils.calculateCorrelation(
+                    CorrelationMatrix.ranks(complete[0]), CorrelationMatrix.ranks(complete[1]));
+                assertEquals(reference, matrix.spearman(i, j), 1e-9, "spearman(" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    @Test
+    void tiesShareTheirAverageRank() {
+        assertEquals(Arrays.toString(new double[]{1.5, 1.5, 3, Double.NaN, 4}),
+            Arrays.toString(CorrelationMatrix.ranks(new double[]{2, 2, 5, Double.NaN, 9})));
+    }
+
+    private static double[][] completeRows(double[] x, double[] y) {
+        double[][] pairs = new double[2][x.length];
+        int n = 0;
+        for (int row = 0; row < x.length; row++) {
+            if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+                pairs[0][n] = x[row];
+                pairs[1][n++] = y[row];
+            }
+        }
+        return new double[][]{Arrays.copyOf(pairs[0], n), Arrays.copyOf(pairs[1], n)};
+    }
+}
@@ -0,0 +1,51 @@
+package com.bi_service.analytics;
+
+import com.bi_service.util.StatisticsUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeSeriesAnalyticsTest {
+
+    @Test
+    void simpleMovingAverageMatchesWindowMeans() {
+        double[] series = {4, 8, 6, 2, 10, 4};
+
+        assertArrayEquals(new double[]{4, 6, 6, 16 / 3.0, 6, 16 / 3.0},
+            TimeSeriesAnalytics.simpleMovingAverage(series, 3), 1e-9);
+    }
+
+    @Test
+    void movingAverageKeepsDuplicateValues() {
+        Map<String, Double> averages = StatisticsUtils.calculateMovingAverage(List.of(2.0, 2.0, 2.0, 8.0), 2);
+
+        assertEquals(Map.of("0", 2.0, "1", 2.0, "2", 2.0, "3", 5.0), averages);
+    }
+
+    @Test
+    void forecastsExtendALinearSeries() {
+        double[] series = new double[28];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = 5 + 2.0 * i;
+        }
+
+        assertArrayEquals(new double[]{61, 63, 65}, TimeSeriesAnalytics.linearTrendForecast(series, 3), 1e-9);
+        assertArrayEquals(new double[]{61, 63, 65},
+            TimeSeriesAnalytics.holtWintersForecast(series, 7, 0.5, 0.3, 0.3, 3), 1e-6);
+    }
+
+    @Test
+    void holtWintersRepeatsTheSeasonalPattern() {
+        double[] season = {10, 20, 30, 20};
+        double[] series = new double[season.length * 6];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = season[i % season.length];
+        }
+
+        assertArrayEquals(season, TimeSeriesAnalytics.holtWintersForecast(series, 4, 0.5, 0.3, 0.3, 4), 1e-6);
+    }
+}
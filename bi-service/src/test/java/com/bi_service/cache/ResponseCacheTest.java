@@ -0,0 +1,105 @@
+package com.bi_service.cache;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseCacheTest {
+
+    private static final String SECRET = "secretkey123456789012345678901234567890";
+
+    private final TokenRoleResolver roleResolver = new TokenRoleResolver(SECRET);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void missLoadsOnceThenHitsPerRole() {
+        ResponseCache cache = cache(60_000);
+
+        assertLookup(cache.get("scorecard", List.of(), token("ADMIN"), this::load), "load-1", ResponseCache.Status.MISS);
+        assertLookup(cache.get("scorecard", List.of(), token("ADMIN"), this::load), "load-1", ResponseCache.Status.HIT);
+        assertLookup(cache.get("scorecard", List.of(), token("USER"), this::load), "load-2", ResponseCache.Status.MISS);
+        assertLookup(cache.get("scorecard", List.of("monthly"), token("ADMIN"), this::load), "load-3", ResponseCache.Status.MISS);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneReloadReplacesIt() throws Exception {
+        // A negative TTL makes every stored entry stale
+        ResponseCache cache = cache(-1);
+
+        assertLookup(cache.get("sector-analysis", List.of(), token("ADMIN"), this::load), "load-1", ResponseCache.Status.MISS);
+        assertLookup(cache.get("sector-analysis", List.of(), token("ADMIN"), this::load), "load-1", ResponseCache.Status.STALE);
+        // The executor has one thread, so this runs once the reload has stored its result
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+        assertLookup(cache.get("sector-analysis", List.of(), token("ADMIN"), this::load), "load-2", ResponseCache.Status.STALE);
+    }
+
+    @Test
+    void dataChangeInvalidatesEveryEntry() {
+        ResponseCache cache = cache(60_000);
+        cache.get("scorecard", List.of(), token("ADMIN"), this::load);
+        cache.get("entity-analytics", List.of(), token("USER"), this::load);
+
+        cache.onDataChanged(new DataChangedEvent("entite-service", "entite"));
+
+        assertLookup(cache.get("scorecard", List.of(), token("ADMIN"), this::load), "load-3", ResponseCache.Status.MISS);
+        assertLookup(cache.get("entity-analytics", List.of(), token("USER"), this::load), "load-4", ResponseCache.Status.MISS);
+    }
+
+    @Test
+    void unverifiedCallersAreRejectedWithoutLoading() {
+        ResponseCache cache = cache(60_000);
+        String forged = Jwts.builder().claim("role", "ADMIN")
+                .signWith(Keys.hmacShaKeyFor("another-key-of-at-least-thirty-two-bytes".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        for (String token : new String[] {null, "Bearer not-a-jwt", "Bearer " + forged}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> cache.get("scorecard", List.of(), token, this::load));
+            assertEquals(HttpStatus.UNAUTHORIZED, rejected.getStatusCode());
+        }
+        assertEquals(0, loads.get());
+    }
+
+    private ResponseCache cache(long ttlMs) {
+        return new ResponseCache(roleResolver, executor, new SimpleMeterRegistry(), 100, ttlMs, 600_000);
+    }
+
+    private String load() {
+        return "load-" + loads.incrementAndGet();
+    }
+
+    private static String token(String role) {
+        return "Bearer " + Jwts.builder()
+                .setSubject(role.toLowerCase() + "@example.com")
+                .claim("role", role)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static void assertLookup(ResponseCache.Lookup<String> lookup, String value, ResponseCache.Status status) {
+        assertEquals(value, lookup.value());
+        assertEquals(status, lookup.status());
+    }
+}
@@ -0,0 +1,83 @@
+package com.bi_service.cube;
+
+import com.bi_service.snapshot.Dictionary;
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.TestSnapshots;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmapIndexTest {
+
+    @Test
+    void conjunctionCardinalitiesMatchRowScan() {
+        EntitySnapshot snapshot = snapshot(10_000);
+        BitmapIndex index = EntityCube.build(snapshot).index();
+        long from = LocalDateTime.of(2023, 3, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long to = LocalDateTime.of(2023, 9, 30, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+        RoaringBitmap created = index.createdBetween(from, to);
+
+        for (int secteur = 0; secteur < snapshot.secteurs().size(); secteur++) {
+            for (int region = 0; region < snapshot.regions().size(); region++) {
+                long expected = 0;
+                for (int row = 0; row < snapshot.size(); row++) {
+                    long createdAt = snapshot.createdAt(row);
+                    if (snapshot.secteur(row) == secteur && snapshot.region(row) == region
+                            && createdAt != EntitySnapshot.NO_TIMESTAMP && createdAt >= from && createdAt <= to) {
+                        expected++;
+                    }
+                }
+                RoaringBitmap rows = RoaringBitmap.and(index.rows(CubeDimension.SECTEUR, secteur),
+                    index.rows(CubeDimension.REGION, region));
+                assertEquals(expected, RoaringBitmap.andCardinality(rows, created));
+            }
+        }
+    }
+
+    @Test
+    void missingValuesAndOpenRangesAreIndexed() {
+        EntitySnapshot snapshot = snapshot(2_000);
+        BitmapIndex index = EntityCube.build(snapshot).index();
+
+        long withoutSecteur = 0;
+        long withTimestamp = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            if (snapshot.secteur(row) == Dictionary.MISSING) withoutSecteur++;
+            if (snapshot.createdAt(row) != EntitySnapshot.NO_TIMESTAMP) withTimestamp++;
+        }
+        assertEquals(withoutSecteur, index.rows(CubeDimension.SECTEUR, Dictionary.MISSING).getLongCardinality());
+        assertEquals(withTimestamp, index.createdBetween(Long.MIN_VALUE, Long.MAX_VALUE).getLongCardinality());
+        assertEquals(withTimestamp, index.createdAfter(Long.MIN_VALUE).getLongCardinality());
+        assertTrue(index.createdAfter(Long.MAX_VALUE).isEmpty());
+        assertTrue(index.createdBetween(10, 5).isEmpty());
+    }
+
+    @Test
+    void countOnlyQueriesAgreeWithMeasureScan() {
+        EntityCube cube = EntityCube.build(snapshot(5_000));
+        CubeQuery byBitmaps = CubeQuery.parse(null, List.of("secteur", "region"), null, null);
+        CubeQuery byScan = CubeQuery.parse(null, List.of("secteur", "region"), List.of("count:risk"), null);
+
+        CubeResult bitmaps = cube.query(byBitmaps);
+        CubeResult scan = cube.query(byScan);
+        assertEquals(scan.groups(), bitmaps.groups());
+        for (int i = 0; i < scan.rows().size(); i++) {
+            assertEquals(scan.rows().get(i).get("count"), bitmaps.rows().get(i).get("count"));
+        }
+    }
+
+    private static EntitySnapshot snapshot(int entities) {
+        return TestSnapshots.seeded(11)
+            .regions("Casablanca-Settat", "Rabat-Salé-Kénitra", "Fès-Meknès", "Oriental")
+            .createdIn(2023)
+            .missingBusiness(5)
+            .missingCreatedAt(10)
+            .snapshot(entities);
+    }
+}
@@ -0,0 +1,93 @@
+package com.bi_service.cube;
+
+import com.bi_service.snapshot.EntitySnapshot;
+import com.bi_service.snapshot.TestSnapshots;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityCubeTest {
+
+    @Test
+    void filteredGroupByMatchesRowScan() {
+        EntitySnapshot snapshot = snapshot(20_000);
+        EntityCube cube = EntityCube.build(snapshot);
+
+        CubeQuery query = CubeQuery.parse(
+            Map.of("region", List.of("Casablanca-Settat", "Fès-Meknès"), "formeJuridique", List.of("SARL")),
+            List.of("secteur", "createdMonth"), List.of("count", "avg:businessRisk", "sum:capital"), null);
+        CubeResult result = cube.query(query);
+
+        Map<String, long[]> expectedCounts = new HashMap<>();
+        Map<String, double[]> expectedCapital = new HashMap<>();
+        long expectedMatched = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            String region = snapshot.regions().value(snapshot.region(row));
+            String forme = snapshot.formesJuridiques().value(snapshot.formeJuridique(row));
+            if (!"SARL".equals(forme) || !("Casablanca-Settat".equals(region) || "Fès-Meknès".equals(region))) {
+                continue;
+            }
+            expectedMatched++;
+            String key = snapshot.secteurs().value(snapshot.secteur(row)) + "|"
+                + cube.values(CubeDimension.CREATED_MONTH).get(monthCode(cube, row));
+            expectedCounts.computeIfAbsent(key, k -> new long[1])[0]++;
+            if (!Double.isNaN(snapshot.capital(row))) {
+                expectedCapital.computeIfAbsent(key, k -> new double[1])[0] += snapshot.capital(row);
+            }
+        }
+
+        assertEquals(expectedMatched, result.matchedRows());
+        assertEquals(expectedCounts.size(), result.groups());
+        for (Map<String, Object> row : result.rows()) {
+            String key = row.get("secteur") + "|" + row.get("createdMonth");
+            assertEquals(expectedCounts.get(key)[0], row.get("count"));
+            double capital = expectedCapital.containsKey(key) ? expectedCapital.get(key)[0] : 0;
+            assertEquals(capital, Objects.requireNonNullElse((Double) row.get("sum:capital"), 0.0), 1e-6);
+        }
+    }
+
+    @Test
+    void missingValuesGroupUnderNullAndUnknownFilterValuesMatchNothing() {
+        EntitySnapshot snapshot = snapshot(1_000);
+        EntityCube cube = EntityCube.build(snapshot);
+
+        CubeResult bySousSecteur = cube.query(CubeQuery.parse(null, List.of("sousSecteur"), List.of(), null));
+        assertEquals(1, bySousSecteur.groups());
+        assertNull(bySousSecteur.rows().get(0).get("sousSecteur"));
+        assertEquals(1_000L, bySousSecteur.rows().get(0).get("count"));
+
+        CubeResult none = cube.query(CubeQuery.parse(Map.of("region", List.of("Nowhere")), List.of(), List.of(), null));
+        assertEquals(0, none.matchedRows());
+    }
+
+    @Test
+    void rejectsUnknownDimensionsAndMeasures() {
+        assertThrows(IllegalArgumentException.class, () -> CubeQuery.parse(null, List.of("colour"), null, null));
+        assertThrows(IllegalArgumentException.class, () -> CubeQuery.parse(null, null, List.of("median:capital"), null));
+        assertThrows(IllegalArgumentException.class, () -> CubeQuery.parse(null, null, List.of("avg:weight"), null));
+    }
+
+    private static int monthCode(EntityCube cube, int row) {
+        long createdAt = cube.snapshot().createdAt(row);
+        String label = LocalDateTime.ofEpochSecond(createdAt, 0, ZoneOffset.UTC)
+            .toString().substring(0, 7);
+        return cube.values(CubeDimension.CREATED_MONTH).indexOf(label);
+    }
+
+    private static EntitySnapshot snapshot(int entities) {
+        return TestSnapshots.seeded(7)
+            .secteurs("Industrie", "Services", "Commerce", "Agriculture")
+            .formesJuridiques("SARL", "SA", "SNC")
+            .missingCapital(3)
+            .snapshot(entities);
+    }
+}
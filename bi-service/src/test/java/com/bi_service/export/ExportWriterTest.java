@@ -0,0 +1,109 @@
+package com.bi_service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportWriterTest {
+
+    private static ExportTable table(int rows) {
+        return new ExportTable("test", List.of(
+            ExportColumn.longs("id", row -> row % 7 == 0 ? ExportColumn.NULL_LONG : row),
+            ExportColumn.timestamps("createdAt", row -> 1_700_000_000L + row),
+            ExportColumn.doubles("capital", row -> row % 5 == 0 ? Double.NaN : row * 1.5),
+            ExportColumn.strings("secteur", row -> row % 3 == 0 ? null : row % 3 == 1 ? "Industrie" : "Agro, \"bio\""),
+            ExportColumn.booleans("active", row -> row % 2 == 0)), rows);
+    }
+
+    @Test
+    void csvQuotesSeparatorsAndLeavesMissingValuesEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CsvExportWriter().write(table(3), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,createdAt,capital,secteur,active", lines[0]);
+        assertEquals(",2023-11-14T22:13:20Z,,,true", lines[1]);
+        assertEquals("1,2023-11-14T22:13:21Z,1.5,Industrie,false", lines[2]);
+        assertEquals("2,2023-11-14T22:13:22Z,3,\"Agro, \"\"bio\"\"\",true", lines[3]);
+    }
+
+    @Test
+    void csvSurvivesSyncFlushedGzip() throws IOException {
+        int rows = CsvExportWriter.CHUNK_ROWS * 2 + 17;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 1024, true);
+        new CsvExportWriter().write(table(rows), gzip);
+        gzip.finish();
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+            StandardCharsets.UTF_8);
+        assertEquals(rows + 1, csv.split("\r\n").length);
+    }
+
+    @Test
+    void columnarSplitsRowGroupsAndIndexesThemInTheFooter() throws IOException {
+        int rows = ColumnarExportWriter.ROW_GROUP_ROWS + 100;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ColumnarExportWriter().write(table(rows), out);
+        byte[] file = out.toByteArray();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(file));
+        assertEquals(ColumnarExportWriter.MAGIC, in.readInt());
+        assertEquals(ColumnarExportWriter.VERSION, in.readInt());
+        assertEquals(5, in.readInt());
+        assertEquals("id", readString(in));
+        assertEquals(ExportColumn.Type.LONG.ordinal(), in.readByte());
+
+        ByteBuffer tail = ByteBuffer.wrap(file);
+        assertEquals(ColumnarExportWriter.MAGIC, tail.getInt(file.length - 4));
+        int footerLength = tail.getInt(file.length - 8);
+        tail.position(file.length - 8 - footerLength);
+        assertEquals(2, tail.getInt());
+        long firstGroup = tail.getLong();
+        assertEquals(ColumnarExportWriter.ROW_GROUP_ROWS, tail.getInt());
+        long secondGroup = tail.getLong();
+        assertEquals(100, tail.getInt());
+        assertEquals(rows, tail.getLong());
+
+        // second group: ids, timestamps, capital, then the string chunk's dictionary and codes
+        tail.position((int) secondGroup);
+        assertEquals(100, tail.getInt());
+        int firstRow = ColumnarExportWriter.ROW_GROUP_ROWS;
+        assertEquals(firstRow % 7 == 0 ? ExportColumn.NULL_LONG : firstRow, tail.getLong());
+        tail.position(tail.position() + 99 * Long.BYTES + 100 * Long.BYTES);
+        assertTrue(Double.isNaN(tail.getDouble()) == (firstRow % 5 == 0));
+        tail.position(tail.position() + 99 * Double.BYTES);
+        assertEquals(2, tail.getInt());
+        byte[] entry = new byte[tail.getInt()];
+        tail.get(entry);
+        int skipped = tail.getInt();
+        tail.position(tail.position() + skipped);
+        assertEquals(firstRow % 3 == 1 ? "Industrie" : "Agro, \"bio\"", new String(entry, StandardCharsets.UTF_8));
+        assertEquals(firstRow % 3 == 0 ? 0 : 1, tail.get());
+        assertTrue(firstGroup < secondGroup);
+    }
+
+    @Test
+    void codeWidthLeavesRoomForTheMissingCode() {
+        assertEquals(1, ColumnarExportWriter.codeWidth(254));
+        assertEquals(2, ColumnarExportWriter.codeWidth(255));
+        assertEquals(4, ColumnarExportWriter.codeWidth(65_535));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
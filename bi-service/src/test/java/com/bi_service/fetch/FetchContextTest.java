@@ -0,0 +1,118 @@
+package com.bi_service.fetch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FetchContextTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void identicalCallsShareOneInFlightFuture() {
+        FetchContext context = new FetchContext(executor, "token");
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Object> call = token -> {
+            invocations.incrementAndGet();
+            await(release);
+            return token + "-secteurs";
+        };
+
+        CompletableFuture<Object> first = context.fetch("secteurs", call);
+        CompletableFuture<Object> second = context.fetch("secteurs", call);
+        release.countDown();
+
+        assertSame(first, second);
+        assertEquals("token-secteurs", second.join());
+        assertEquals(1, invocations.get());
+        assertEquals(List.of("secteurs"), List.copyOf(context.getTimings().keySet()));
+    }
+
+    @Test
+    void distinctCallsRunConcurrently() {
+        FetchContext context = new FetchContext(executor, "token");
+        // Each call only returns once both have started, which a sequential fan-out never reaches
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Function<String, Object> call = token -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        };
+
+        CompletableFuture<Object> entites = context.fetch("entites", call);
+        CompletableFuture<Object> produits = context.fetch("produits", call);
+
+        assertEquals(true, entites.join());
+        assertEquals(true, produits.join());
+        assertEquals(2, context.getTimings().size());
+    }
+
+    @Test
+    void callsThatMissTheDeadlineTimeOutWhileOthersComplete() {
+        FetchContext context = new FetchContext(executor, "token", Deadline.after(100));
+        CompletableFuture<Object> fast = context.fetch("fast", token -> token + "-ok");
+        CompletableFuture<Object> slow = context.fetch("slow", token -> {
+            sleep(2_000);
+            return "late";
+        });
+
+        assertEquals("token-ok", fast.join());
+        CompletionException failure = assertThrows(CompletionException.class, slow::join);
+        assertTrue(Deadline.isTimeout(failure));
+    }
+
+    @Test
+    void callOptionsEndAtTheDeadline() {
+        FetchContext context = new FetchContext(executor, "token", Deadline.after(3_000));
+        long readTimeout = context.callOptions().readTimeoutMillis();
+
+        assertTrue(readTimeout <= 3_000 && readTimeout > 2_000);
+        assertNull(new FetchContext(executor, "token").callOptions());
+    }
+
+    @Test
+    void onlyTimeoutsCountAsTimeouts() {
+        assertFalse(Deadline.isTimeout(new IllegalStateException("HTTP 500")));
+        assertTrue(Deadline.isTimeout(new RuntimeException(new SocketTimeoutException("Read timed out"))));
+        assertTrue(Deadline.isTimeout(new DeadlineExceededException(List.of("entites"), 100)));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bi_service.precompute;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportStoreTest {
+
+    @Test
+    void equalResultsDoNotCreateANewVersion() {
+        ReportStore store = new ReportStore();
+        ReportVersion first = store.publish(ReportType.SCORECARD, 1L, 5L, Map.of("total", 10));
+        ReportVersion same = store.publish(ReportType.SCORECARD, 2L, 5L, Map.of("total", 10));
+        ReportVersion next = store.publish(ReportType.SCORECARD, 3L, 5L, Map.of("total", 11));
+
+        assertEquals(1, first.version());
+        assertEquals(first, same);
+        assertEquals(2, next.version());
+        assertEquals(next, store.current(ReportType.SCORECARD).orElseThrow());
+        assertTrue(store.current(ReportType.SECTOR_ANALYSIS).isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTheConfiguredHistory() {
+        ReportStore store = new ReportStore();
+        for (int i = 0; i < 25; i++) {
+            store.publish(ReportType.CORRELATION_MATRIX, i, 1L, Map.of("run", i));
+        }
+
+        assertEquals(10, store.versions(ReportType.CORRELATION_MATRIX).size());
+        assertEquals(16, store.versions(ReportType.CORRELATION_MATRIX).get(0).version());
+        assertTrue(store.version(ReportType.CORRELATION_MATRIX, 15).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void diffReportsChangedAddedAndRemovedPaths() {
+        ReportStore store = new ReportStore();
+        ReportVersion from = store.publish(ReportType.SECTOR_ANALYSIS, 1L, 1L,
+            Map.of("sectors", Map.of("Industrie", 4, "Services", 2), "total", 6));
+        ReportVersion to = store.publish(ReportType.SECTOR_ANALYSIS, 2L, 1L,
+            Map.of("sectors", Map.of("Industrie", 5, "Commerce", 1), "total", 6));
+
+        Map<String, Object> diff = ReportDiff.between(from, to);
+
+        assertEquals(Map.of("sectors.Commerce", 1), diff.get("added"));
+        assertEquals(Map.of("sectors.Services", 2), diff.get("removed"));
+        Map<String, Object> changed = (Map<String, Object>) diff.get("changed");
+        assertEquals(1, changed.size());
+        assertEquals(Map.of("from", 4, "to", 5), changed.get("sectors.Industrie"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.bi_service.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeSeriesRollupTest {
+
+    private static final long FIRST_DAY = LocalDate.of(2019, 3, 17).toEpochDay();
+    private static final int SPAN_DAYS = 5 * 365;
+
+    @Test
+    void rangeSlicesMatchBucketingEveryTimestamp() {
+        Random random = new Random(7);
+        long[] timestamps = new long[20_000];
+        TimeSeriesRollup rollup = new TimeSeriesRollup();
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = (FIRST_DAY + random.nextInt(SPAN_DAYS)) * 86_400L + random.nextInt(86_400);
+            rollup.add(timestamps[i]);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            long startDay = FIRST_DAY - 30 + random.nextInt(SPAN_DAYS);
+            long endDay = startDay + random.nextInt(SPAN_DAYS / 2);
+            for (Granularity granularity : Granularity.values()) {
+                assertEquals(expected(timestamps, granularity, startDay, endDay),
+                    asMap(rollup.range(granularity, startDay, endDay)), granularity + " " + startDay + ".." + endDay);
+            }
+        }
+    }
+
+    private static Map<String, Long> expected(long[] timestamps, Granularity granularity, long startDay, long endDay) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (long timestamp : timestamps) {
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(timestamp, 86_400L));
+            if (date.toEpochDay() < startDay || date.toEpochDay() > endDay) {
+                continue;
+            }
+            String key = switch (granularity) {
+                case DAILY -> date.toString();
+                case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+                case MONTHLY -> String.format("%d-%02d", date.getYear(), date.getMonthValue());
+                case QUARTERLY -> date.getYear() + "-Q" + ((date.getMonthValue() - 1) / 3 + 1);
+            };
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> asMap(RollupSlice slice) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (int i = 0; i < slice.length(); i++) {
+            if (slice.count(i) > 0) counts.put(slice.label(i), slice.count(i));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bi_service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// contract/entites.json is what entite-service's EntiteMapper and ObjectMapper emit for /api/entites;
+// entite-service keeps its own copy, and its EntiteContractTest fails as soon as its output stops
+// matching it. Both services check that the two copies agree when checked out side by side.
+class EntiteContractTest {
+
+    private static final String FIXTURE = "/contract/entites.json";
+    private static final Path ENTITE_SERVICE_FIXTURE = Path.of("../entite-service/src/test/resources" + FIXTURE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EntitePayloadDecoder decoder = new EntitePayloadDecoder(objectMapper);
+
+    @Test
+    void decodesEntiteServicePayload() throws Exception {
+        EntitySnapshot snapshot;
+        try (InputStream body = getClass().getResourceAsStream(FIXTURE)) {
+            snapshot = decoder.decodeInto(body, new SnapshotBuilder()).build();
+        }
+
+        assertEquals(2, snapshot.size());
+
+        assertEquals(41L, snapshot.id(0));
+        assertEquals(epochSeconds(LocalDateTime.of(2024, 3, 18, 14, 5, 9)), snapshot.createdAt(0));
+        assertEquals(2, snapshot.risk(0));
+        assertEquals("PME", snapshot.types().value(snapshot.type(0)));
+        assertEquals("Casablanca-Settat", snapshot.regions().value(snapshot.region(0)));
+        assertEquals(3L, snapshot.typeEntrepriseIds().value(snapshot.typeEntreprise(0)));
+        assertTrue(snapshot.hasBusiness(0));
+        assertTrue(snapshot.hasContact(0));
+        assertTrue(snapshot.hasProducts(0));
+        assertEquals(4, snapshot.businessRisk(0));
+        assertEquals(2, snapshot.tome(0));
+        assertEquals(SnapshotBuilder.companyAge("1998-06-01"), snapshot.companyAge(0));
+        assertEquals("Industrie", snapshot.secteurs().value(snapshot.secteur(0)));
+        assertEquals("Agroalimentaire", snapshot.sousSecteurs().value(snapshot.sousSecteur(0)));
+        assertEquals("SARL", snapshot.formesJuridiques().value(snapshot.formeJuridique(0)));
+        assertEquals(120.0, snapshot.effectif(0));
+        assertEquals(500_000.0, snapshot.capital(0));
+        assertEquals(12_000_000.0, snapshot.chiffreAffaire(0));
+
+        assertEquals(42L, snapshot.id(1));
+        assertEquals(epochSeconds(LocalDateTime.of(2023, 11, 2, 8, 0)), snapshot.createdAt(1));
+        assertEquals(EntitySnapshot.NO_VALUE, snapshot.risk(1));
+        assertFalse(snapshot.hasBusiness(1));
+        assertFalse(snapshot.hasContact(1));
+        assertFalse(snapshot.hasProducts(1));
+    }
+
+    @Test
+    void fixtureMatchesEntiteServiceCopy() throws Exception {
+        assumeTrue(Files.isRegularFile(ENTITE_SERVICE_FIXTURE), "entite-service is not checked out next to bi-service");
+        try (InputStream body = getClass().getResourceAsStream(FIXTURE)) {
+            assertEquals(objectMapper.readTree(body), objectMapper.readTree(ENTITE_SERVICE_FIXTURE.toFile()),
+                () -> ENTITE_SERVICE_FIXTURE + " differs from " + FIXTURE + "; copy the fixture across");
+        }
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
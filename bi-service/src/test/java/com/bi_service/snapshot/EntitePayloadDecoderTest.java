@@ -0,0 +1,97 @@
+package com.bi_service.snapshot;
+
+import com.bi_service.feign.dto.EntiteRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EntitePayloadDecoderTest {
+
+    private static final int ENTITIES = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EntitePayloadDecoder decoder = new EntitePayloadDecoder(objectMapper);
+
+    // Allocation of the two paths is compared in EntitePayloadDecodeBenchmark
+    @Test
+    void streamingDecodeMatchesMapPath() throws Exception {
+        byte[] payload = payload(ENTITIES);
+        EntitySnapshot fromMaps = decodeWithMaps(payload);
+        EntitySnapshot streamed = decodeStreaming(payload);
+
+        assertEquals(fromMaps.size(), streamed.size());
+        for (int row = 0; row < streamed.size(); row++) {
+            assertEquals(fromMaps.id(row), streamed.id(row));
+            assertEquals(fromMaps.createdAt(row), streamed.createdAt(row));
+            assertEquals(fromMaps.risk(row), streamed.risk(row));
+            assertEquals(fromMaps.businessRisk(row), streamed.businessRisk(row));
+            assertEquals(fromMaps.companyAge(row), streamed.companyAge(row));
+            assertEquals(fromMaps.hasBusiness(row), streamed.hasBusiness(row));
+            assertEquals(fromMaps.hasContact(row), streamed.hasContact(row));
+            assertEquals(fromMaps.hasProducts(row), streamed.hasProducts(row));
+            assertEquals(fromMaps.secteurs().value(fromMaps.secteur(row)), streamed.secteurs().value(streamed.secteur(row)));
+            assertEquals(fromMaps.regions().value(fromMaps.region(row)), streamed.regions().value(streamed.region(row)));
+        }
+    }
+
+    private EntitySnapshot decodeWithMaps(byte[] payload) throws Exception {
+        List<Map<String, Object>> entities = objectMapper.readValue(payload, new TypeReference<>() {});
+        SnapshotBuilder builder = new SnapshotBuilder(entities.size());
+        entities.forEach(entity -> builder.addEntity(objectMapper.convertValue(entity, EntiteRecord.class)));
+        return builder.build();
+    }
+
+    private EntitySnapshot decodeStreaming(byte[] payload) throws Exception {
+        return decoder.decodeInto(new ByteArrayInputStream(payload), new SnapshotBuilder()).build();
+    }
+
+    // Entities shaped like EntiteFullDTO: top-level fields plus populated child sections
+    private static byte[] payload(int count) {
+        StringBuilder json = new StringBuilder(count * 2048).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i)
+                .append(",\"libelle\":\"Entreprise ").append(i).append('"')
+                .append(",\"description\":\"Description longue de l'entreprise numero ").append(i).append('"')
+                .append(",\"createdAt\":\"2024-0").append(1 + i % 9).append("-1").append(i % 10).append("T10:15:30\"")
+                .append(",\"typeEntrepriseId\":").append(i % 7)
+                .append(",\"type\":\"type-").append(i % 4).append('"')
+                .append(",\"risk\":").append(i % 6)
+                .append(",\"region\":\"Region ").append(i % 12).append('"')
+                .append(",\"slug\":\"entreprise-").append(i).append('"')
+                .append(",\"metaTitle\":\"Meta title ").append(i).append('"')
+                .append(",\"entiteBusiness\":");
+            if (i % 5 == 0) {
+                json.append("null");
+            } else {
+                json.append("{\"id\":").append(i)
+                    .append(",\"risk\":").append(i % 5)
+                    .append(",\"dateCreation\":\"").append(1980 + i % 40).append("-01-01\"")
+                    .append(",\"secteur\":\"Secteur ").append(i % 25).append('"')
+                    .append(",\"sousSecteur\":\"Sous secteur ").append(i % 80).append('"')
+                    .append(",\"formeJuridique\":\"SARL\"")
+                    .append(",\"presentation\":\"Presentation detaillee de l'activite ").append(i).append('"')
+                    .append(",\"activite\":\"Activite ").append(i).append('"')
+                    .append(",\"capital\":\"").append(10000 * (i % 50)).append('"')
+                    .append(",\"effectif\":\"").append(i % 300).append("\"}");
+            }
+            json.append(",\"entiteContact\":{\"id\":").append(i)
+                .append(",\"email\":\"contact").append(i).append("@example.com\"")
+                .append(",\"telephone\":\"+212600").append(i).append('"')
+                .append(",\"adresse\":\"").append(i).append(" rue principale\"}")
+                .append(",\"entiteProducts\":").append(i % 3 == 0 ? "null" : "{\"id\":" + i + ",\"produits\":\"Produits " + i + "\"}")
+                .append(",\"entiteMedia\":{\"id\":").append(i).append(",\"image1\":\"/uploads/").append(i).append(".jpg\"}")
+                .append(",\"entiteLocation\":{\"id\":").append(i).append(",\"commune\":\"Commune ").append(i % 40).append("\"}")
+                .append(",\"entiteAdditional\":{\"id\":").append(i).append(",\"keywords\":\"mot cle ").append(i).append("\"}")
+                .append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bi_service.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotBuilderTest {
+
+    @Test
+    void parsesFreeTextAmounts() {
+        assertEquals(10_000_000, SnapshotBuilder.parseAmount("10 000 000 MAD"));
+        assertEquals(1_250_000, SnapshotBuilder.parseAmount("1.250.000"));
+        assertEquals(2.5, SnapshotBuilder.parseAmount("2,5"));
+        assertEquals(75, SnapshotBuilder.parseAmount("50-100"));
+        assertEquals(1_500_000, SnapshotBuilder.parseAmount("1.5M"));
+        assertEquals(30_000_000, SnapshotBuilder.parseAmount("Entre 10 et 50 MDH"));
+        assertEquals(500, SnapshotBuilder.parseAmount("Plus de 500 employés"));
+        assertTrue(Double.isNaN(SnapshotBuilder.parseAmount("non communiqué")));
+        assertTrue(Double.isNaN(SnapshotBuilder.parseAmount(null)));
+    }
+}
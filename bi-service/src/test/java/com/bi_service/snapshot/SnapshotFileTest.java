@@ -0,0 +1,74 @@
+package com.bi_service.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryColumnAndReferenceList() throws Exception {
+        SnapshotBuilder builder = TestSnapshots.seeded(3)
+            .types("PME", null)
+            .sousSecteurs("Sous-secteur é1", "Sous-secteur é2", null)
+            .missingBusiness(4)
+            .missingCreatedAt(8)
+            .withSections()
+            .builder(500);
+        builder.secteurs(List.of(Map.of("nom", "Industrie"), Map.of("nom", "Services")))
+            .typeEntreprises(List.of(Map.of("id", 1, "nom", "PME", "status", "active"), Map.of("nom", "Sans id")))
+            .produits(List.of(Map.of("createdAt", "2024-02-01T09:00:00"), Map.of("createdAt", "2024-03-01T09:00:00")))
+            .fetchTimings(Map.of("entites", 42L));
+        EntitySnapshot original = builder.build();
+
+        Path file = directory.resolve("snapshots/bi-snapshot.bin");
+        SnapshotFile.write(original, file);
+        EntitySnapshot restored = SnapshotFile.read(file);
+
+        assertEquals(original.getBuiltAt(), restored.getBuiltAt());
+        assertEquals(original.size(), restored.size());
+        for (int row = 0; row < original.size(); row++) {
+            assertEquals(original.id(row), restored.id(row));
+            assertEquals(original.createdAt(row), restored.createdAt(row));
+            assertEquals(original.risk(row), restored.risk(row));
+            assertEquals(original.businessRisk(row), restored.businessRisk(row));
+            assertEquals(original.companyAge(row), restored.companyAge(row));
+            assertEquals(original.tome(row), restored.tome(row));
+            assertEquals(original.effectif(row), restored.effectif(row));
+            assertEquals(original.capital(row), restored.capital(row));
+            assertEquals(original.chiffreAffaire(row), restored.chiffreAffaire(row));
+            assertEquals(original.types().value(original.type(row)), restored.types().value(restored.type(row)));
+            assertEquals(original.regions().value(original.region(row)), restored.regions().value(restored.region(row)));
+            assertEquals(original.typeEntrepriseIds().value(original.typeEntreprise(row)),
+                restored.typeEntrepriseIds().value(restored.typeEntreprise(row)));
+            assertEquals(original.secteurs().value(original.secteur(row)), restored.secteurs().value(restored.secteur(row)));
+            assertEquals(original.sousSecteurs().value(original.sousSecteur(row)),
+                restored.sousSecteurs().value(restored.sousSecteur(row)));
+            assertEquals(original.hasBusiness(row), restored.hasBusiness(row));
+            assertEquals(original.hasContact(row), restored.hasContact(row));
+            assertEquals(original.hasProducts(row), restored.hasProducts(row));
+        }
+        assertEquals(original.secteurNames(), restored.secteurNames());
+        assertEquals(original.typeEntreprises(), restored.typeEntreprises());
+        assertEquals(original.productCount(), restored.productCount());
+        assertEquals(original.productCreatedAt(1), restored.productCreatedAt(1));
+        assertEquals(original.getFetchTimings(), restored.getFetchTimings());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws Exception {
+        Path file = Files.write(directory.resolve("other.bin"), new byte[64]);
+        assertThrows(IOException.class, () -> SnapshotFile.read(file));
+    }
+}
@@ -0,0 +1,43 @@
+package com.bi_service.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TemporalIndexTest {
+
+    @Test
+    void rangeCountsMatchAScan() {
+        Random random = new Random(5);
+        long[] column = new long[2_000];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = random.nextInt(10) == 0 ? EntitySnapshot.NO_TIMESTAMP : 1_700_000_000L + random.nextInt(1_000_000);
+        }
+        TemporalIndex index = TemporalIndex.of(column, column.length);
+
+        for (int i = 0; i < 500; i++) {
+            long from = 1_700_000_000L + random.nextInt(1_100_000) - 50_000;
+            long to = from + random.nextInt(400_000) - 20_000;
+            int expected = 0;
+            for (long value : column) {
+                if (value != EntitySnapshot.NO_TIMESTAMP && value >= from && value <= to) expected++;
+            }
+            assertEquals(expected, index.count(from, to));
+        }
+        assertEquals(index.size(), index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void aSortedCompleteColumnIsUsedAsIs() {
+        long[] sorted = {10, 20, 20, 30};
+        long[] withGap = {10, EntitySnapshot.NO_TIMESTAMP, 30};
+
+        assertEquals(4, TemporalIndex.of(sorted, sorted.length).size());
+        assertEquals(2, TemporalIndex.of(withGap, withGap.length).size());
+        assertEquals(1, TemporalIndex.of(sorted, sorted.length).lowerBound(20));
+        assertSame(TemporalIndex.of(new long[0], 0), TemporalIndex.of(new long[3], 0));
+    }
+}
@@ -0,0 +1,126 @@
+package com.bi_service.snapshot;
+
+import com.bi_service.feign.dto.EntiteBusinessRecord;
+import com.bi_service.feign.dto.EntiteRecord;
+import com.bi_service.feign.dto.SectionMarker;
+
+import java.util.Random;
+
+// Deterministic random entities for snapshot-backed tests. Values are drawn uniformly from the
+// configured pools (a null or blank entry is a legitimate value); each missingX(n) knob leaves one
+// row in n without X, 0 meaning never. Defaults: every row has business data and a 2024 createdAt,
+// no sous-secteur and no contact or products section.
+public final class TestSnapshots {
+
+    private final long seed;
+    private String[] secteurs = {"Industrie", "Services", "Commerce"};
+    private String[] sousSecteurs = {null};
+    private String[] regions = {"Casablanca-Settat", "Rabat-Salé-Kénitra", "Fès-Meknès"};
+    private String[] types = {"PME"};
+    private String[] formes = {"SARL"};
+    private int year = 2024;
+    private int missingBusiness;
+    private int missingCreatedAt;
+    private int missingRisk;
+    private int missingCapital;
+    private boolean sections;
+
+    private TestSnapshots(long seed) {
+        this.seed = seed;
+    }
+
+    public static TestSnapshots seeded(long seed) {
+        return new TestSnapshots(seed);
+    }
+
+    public TestSnapshots secteurs(String... values) {
+        secteurs = values;
+        return this;
+    }
+
+    public TestSnapshots sousSecteurs(String... values) {
+        sousSecteurs = values;
+        return this;
+    }
+
+    public TestSnapshots regions(String... values) {
+        regions = values;
+        return this;
+    }
+
+    public TestSnapshots types(String... values) {
+        types = values;
+        return this;
+    }
+
+    public TestSnapshots formesJuridiques(String... values) {
+        formes = values;
+        return this;
+    }
+
+    // createdAt falls on a random day of this year
+    public TestSnapshots createdIn(int year) {
+        this.year = year;
+        return this;
+    }
+
+    public TestSnapshots missingBusiness(int oneIn) {
+        missingBusiness = oneIn;
+        return this;
+    }
+
+    public TestSnapshots missingCreatedAt(int oneIn) {
+        missingCreatedAt = oneIn;
+        return this;
+    }
+
+    public TestSnapshots missingRisk(int oneIn) {
+        missingRisk = oneIn;
+        return this;
+    }
+
+    public TestSnapshots missingCapital(int oneIn) {
+        missingCapital = oneIn;
+        return this;
+    }
+
+    // Contact and products sections present on about half the rows each
+    public TestSnapshots withSections() {
+        sections = true;
+        return this;
+    }
+
+    public EntitySnapshot snapshot(int entities) {
+        return builder(entities).build();
+    }
+
+    // For tests that add reference data or fetch metadata before building
+    public SnapshotBuilder builder(int entities) {
+        Random random = new Random(seed);
+        SnapshotBuilder builder = new SnapshotBuilder(entities);
+        for (int i = 0; i < entities; i++) {
+            EntiteBusinessRecord business = skip(random, missingBusiness) ? null : new EntiteBusinessRecord(
+                random.nextInt(6), random.nextInt(3), 1990 + random.nextInt(34) + "-06-01", pick(random, secteurs),
+                pick(random, sousSecteurs), pick(random, formes), String.valueOf(1 + random.nextInt(500)),
+                skip(random, missingCapital) ? null : String.valueOf(random.nextInt(1_000_000)),
+                random.nextBoolean() ? null : (1 + random.nextInt(90)) + ",5 M");
+            String createdAt = skip(random, missingCreatedAt) ? null
+                : String.format("%d-%02d-%02dT%02d:30:00", year, 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24));
+            builder.addEntity(new EntiteRecord((long) i, pick(random, types), pick(random, regions),
+                skip(random, missingRisk) ? null : random.nextInt(7), random.nextInt(5) == 0 ? null : (long) random.nextInt(3),
+                createdAt, business,
+                sections && random.nextBoolean() ? new SectionMarker() : null,
+                sections && random.nextBoolean() ? new SectionMarker() : null));
+        }
+        return builder;
+    }
+
+    private static boolean skip(Random random, int oneIn) {
+        return oneIn > 0 && random.nextInt(oneIn) == 0;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
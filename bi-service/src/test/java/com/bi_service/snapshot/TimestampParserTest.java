@@ -0,0 +1,63 @@
+package com.bi_service.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimestampParserTest {
+
+    @Test
+    void agreesWithTheJavaTimeParsersItReplaces() {
+        List<String> samples = List.of(
+            "2024-03-15T10:20:30", "2024-03-15T10:20", "2024-03-15T10:20:30.5", "2024-03-15T10:20:30.123456789",
+            "2024-03-15t10:20:30", "2024-03-15T10:20:30Z", "2024-03-15T10:20:30+01:00", "2024-03-15T10:20:30.25-05:30",
+            "2024-03-15T10:20:30+01:00:15", "2024-03-15 10:20:30", "2024-02-29T00:00:00", "1969-12-31T23:59:59",
+            "2023-02-29T00:00:00", "2024-04-31T10:00:00", "2024-13-01T10:00:00", "2024-03-15T24:00:00",
+            "2024-03-15T10:60:00", "2024-03-15T10:20:60", "2024-03-15", "2024-03-15 10:20", "2024-03-15 10:20:30.5",
+            "2024-03-15T10:20:30.", "2024-03-15T10:20:30.1234567890", "2024-03-15T10:20:30+1:00", "2024-03-15T10:20:30+19:00",
+            "2024-03-15T10:20:30ZZ", "2024/03/15T10:20:30", "2024-03-15X10:20:30", "not a date", "", "2024-03-15T10:20:3");
+        for (String sample : samples) {
+            assertEquals(reference(sample), TimestampParser.parse(sample), sample);
+        }
+    }
+
+    @Test
+    void matchesEpochSecondsOfRandomDateTimes() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(random.nextLong(-2_000_000_000L, 8_000_000_000L), 0, ZoneOffset.UTC);
+            String iso = time.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
+            assertEquals(time.toEpochSecond(ZoneOffset.UTC), TimestampParser.parse(iso), iso);
+        }
+    }
+
+    @Test
+    void nullAndNonStringValuesHaveNoTimestamp() {
+        assertEquals(EntitySnapshot.NO_TIMESTAMP, TimestampParser.parse(null));
+        assertEquals(EntitySnapshot.NO_TIMESTAMP, SnapshotBuilder.parseTimestamp(20240315L));
+    }
+
+    // The exception ladder SnapshotBuilder used before
+    private static long reference(String text) {
+        try {
+            return LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+        } catch (Exception e1) {
+            try {
+                return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+            } catch (Exception e2) {
+                try {
+                    return LocalDateTime.parse(text, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")).toEpochSecond(ZoneOffset.UTC);
+                } catch (Exception e3) {
+                    return EntitySnapshot.NO_TIMESTAMP;
+                }
+            }
+        }
+    }
+}
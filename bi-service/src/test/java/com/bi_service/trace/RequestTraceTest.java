@@ -0,0 +1,55 @@
+package com.bi_service.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTraceTest {
+
+    @Test
+    void spansAreRecordedOnlyWhileATraceIsBound() {
+        RequestTrace trace = new RequestTrace("GET /api/bi/scorecard", false);
+        try (RequestTrace.Span span = RequestTrace.span("unbound")) {
+            assertNull(RequestTrace.current());
+        }
+        try (RequestTrace.Scope scope = trace.bind()) {
+            try (RequestTrace.Span span = RequestTrace.span("snapshot")) {
+                assertEquals(trace, RequestTrace.current());
+            }
+            try (RequestTrace.Span span = RequestTrace.span("snapshot")) {
+                assertFalse(RequestTrace.debugRequested());
+            }
+        }
+
+        assertNull(RequestTrace.current());
+        assertEquals(1, trace.getSpans().size());
+        assertTrue(trace.getSpans().containsKey("snapshot"));
+        assertTrue(trace.serverTiming().startsWith("snapshot;dur="));
+        assertTrue(trace.serverTiming().contains(", total;dur="));
+    }
+
+    @Test
+    void payloadsAreSampledUnlessTheRequestAskedForDebug() {
+        TraceLog traceLog = new TraceLog(new ObjectMapper(), 1, 2_000);
+        AtomicInteger built = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            traceLog.payload("scorecard", () -> Map.of("call", built.incrementAndGet()));
+        }
+        assertTrue(built.get() <= 1);
+
+        int sampled = built.get();
+        try (RequestTrace.Scope scope = new RequestTrace("GET /api/bi/scorecard", true).bind()) {
+            traceLog.payload("scorecard", () -> Map.of("call", built.incrementAndGet()));
+            traceLog.payload("scorecard", () -> Map.of("call", built.incrementAndGet()));
+        }
+        assertEquals(sampled + 2, built.get());
+    }
+}
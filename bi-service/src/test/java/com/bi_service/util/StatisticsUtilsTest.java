@@ -0,0 +1,81 @@
+package com.bi_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatisticsUtilsTest {
+
+    private final Random random = new Random(11);
+
+    @Test
+    void quickselectMedianMatchesSortedMedian() {
+        for (int n = 1; n < 200; n++) {
+            double[] values = randomValues(n);
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double expected = n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2.0;
+
+            assertEquals(expected, StatisticsUtils.calculateMedian(values), 0.0, "n=" + n);
+        }
+    }
+
+    @Test
+    void mergedWelfordMomentsMatchTwoPassValues() {
+        double[] values = randomValues(10_000);
+        double mean = Arrays.stream(values).average().orElse(0);
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).average().orElse(0);
+
+        RunningStats merged = new RunningStats();
+        for (int from = 0; from < values.length; from += 1_000) {
+            merged.merge(StatisticsUtils.summarize(Arrays.copyOfRange(values, from, from + 1_000)));
+        }
+
+        assertEquals(mean, merged.mean(), 1e-9);
+        assertEquals(Math.sqrt(variance), merged.standardDeviation(), 1e-9);
+        assertEquals(values[0], merged.first());
+        assertEquals(values[values.length - 1], merged.last());
+    }
+
+    @Test
+    void quantileSketchIsExactWhenSmallAndCloseWhenMerged() {
+        double[] small = randomValues(101);
+        QuantileSketch exact = new QuantileSketch();
+        for (double value : small) exact.accept(value);
+        assertEquals(StatisticsUtils.calculateMedian(small), exact.median(), 0.0);
+        assertTrue(exact.isExact());
+
+        double[] values = randomValues(200_000);
+        QuantileSketch merged = new QuantileSketch();
+        for (int from = 0; from < values.length; from += 25_000) {
+            QuantileSketch chunk = new QuantileSketch();
+            for (int i = from; i < from + 25_000; i++) chunk.accept(values[i]);
+            merged.merge(chunk);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(values.length, merged.count());
+        assertFalse(merged.isExact());
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            double estimate = merged.quantile(q);
+            double rank = (double) lowerBound(sorted, estimate) / sorted.length;
+            assertTrue(Math.abs(rank - q) < 0.02, "q=" + q + " landed at rank " + rank);
+        }
+    }
+
+    private double[] randomValues(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) values[i] = random.nextGaussian() * 10 + 50;
+        return values;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
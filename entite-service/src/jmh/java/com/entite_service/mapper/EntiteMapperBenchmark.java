@@ -0,0 +1,135 @@
+package com.entite_service.mapper;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteAdditional;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.entity.EntiteLocation;
+import com.entite_service.entity.EntiteMedia;
+import com.entite_service.entity.EntiteProducts;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// EntiteMapper against ModelMapper over a listing of fully loaded entities, in both directions;
+// run with -prof gc to compare allocations per operation
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntiteMapperBenchmark {
+
+    @Param({"1", "1000"})
+    private int rows;
+
+    private final EntiteMapper mapper = new EntiteMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+    private List<Entite> entites;
+    private List<EntiteFullDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        entites = new ArrayList<>(rows);
+        dtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Entite entite = entite(i);
+            entites.add(entite);
+            dtos.add(mapper.toDto(entite));
+        }
+        // Type maps are built on first use; keep that out of the measurement
+        modelMapper.map(entites.get(0), EntiteFullDTO.class);
+        modelMapper.map(dtos.get(0), Entite.class);
+    }
+
+    @Benchmark
+    public void toDtoModelMapper(Blackhole blackhole) {
+        for (Entite entite : entites) {
+            blackhole.consume(modelMapper.map(entite, EntiteFullDTO.class));
+        }
+    }
+
+    @Benchmark
+    public void toDtoMapper(Blackhole blackhole) {
+        for (Entite entite : entites) {
+            blackhole.consume(mapper.toDto(entite));
+        }
+    }
+
+    @Benchmark
+    public void toEntityModelMapper(Blackhole blackhole) {
+        for (EntiteFullDTO dto : dtos) {
+            blackhole.consume(modelMapper.map(dto, Entite.class));
+        }
+    }
+
+    @Benchmark
+    public void toEntityMapper(Blackhole blackhole) {
+        for (EntiteFullDTO dto : dtos) {
+            blackhole.consume(mapper.toEntity(dto));
+        }
+    }
+
+    private static Entite entite(int i) {
+        Entite entite = new Entite();
+        entite.setId((long) i);
+        entite.setLibelle("Entite " + i);
+        entite.setNumMB("MB-" + i);
+        entite.setDescription("Description " + i);
+        entite.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+        entite.setTypeEntrepriseId((long) (i % 5));
+        entite.setType(i % 2 == 0 ? "PME" : "GE");
+        entite.setRisk(i % 4);
+        entite.setRegion("Region " + i % 12);
+        entite.setPays("Maroc");
+        entite.setTelephone("0522" + i);
+        entite.setIce("ICE" + i);
+        entite.setSlug("entite-" + i);
+
+        EntiteBusiness business = new EntiteBusiness();
+        business.setId((long) i);
+        business.setSecteur("Secteur " + i % 20);
+        business.setEffectif(String.valueOf(i % 500));
+        business.setEntite(entite);
+        entite.setEntiteBusiness(business);
+        EntiteContact contact = new EntiteContact();
+        contact.setId((long) i);
+        contact.setEmail("contact" + i + "@example.ma");
+        contact.setEntite(entite);
+        entite.setEntiteContact(contact);
+        EntiteProducts products = new EntiteProducts();
+        products.setId((long) i);
+        products.setEntite(entite);
+        entite.setEntiteProducts(products);
+        EntiteMedia media = new EntiteMedia();
+        media.setId((long) i);
+        media.setEntite(entite);
+        entite.setEntiteMedia(media);
+        EntiteLocation location = new EntiteLocation();
+        location.setId((long) i);
+        location.setEntite(entite);
+        entite.setEntiteLocation(location);
+        EntiteAdditional additional = new EntiteAdditional();
+        additional.setId((long) i);
+        additional.setEntite(entite);
+        entite.setEntiteAdditional(additional);
+        return entite;
+    }
+}
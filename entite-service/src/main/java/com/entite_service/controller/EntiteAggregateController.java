@@ -0,0 +1,57 @@
+package com.entite_service.controller;
+
+import com.entite_service.dto.AggregateSummaryDTO;
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
+import com.entite_service.service.EntiteAggregateService;
+import com.entite_service.service.HistogramInterval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Group-by aggregates computed in the database, for consumers that only need counts
+@RestController
+@RequestMapping("/api/entites/aggregates")
+public class EntiteAggregateController {
+
+    @Autowired
+    private EntiteAggregateService aggregateService;
+
+    // groupBy: type, region, typeEntrepriseId, secteur, sousSecteur or formeJuridique
+    @GetMapping("/counts")
+    public List<GroupCountDTO> getCounts(
+            @RequestParam String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return aggregateService.countBy(groupBy, since);
+    }
+
+    // interval: daily, weekly, monthly or quarterly
+    @GetMapping("/created-at")
+    public List<GroupCountDTO> getCreatedAtHistogram(
+            @RequestParam(defaultValue = "daily") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        HistogramInterval histogramInterval;
+        try {
+            histogramInterval = HistogramInterval.from(interval);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return aggregateService.createdAtHistogram(histogramInterval, start, end);
+    }
+
+    @GetMapping("/risk")
+    public List<RiskAverageDTO> getRiskAverages(@RequestParam String groupBy) {
+        return aggregateService.riskBy(groupBy);
+    }
+
+    @GetMapping("/summary")
+    public AggregateSummaryDTO getSummary() {
+        return aggregateService.summary();
+    }
+}
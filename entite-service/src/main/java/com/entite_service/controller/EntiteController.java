@@ -1,22 +1,139 @@
 package com.entite_service.controller;
 
 import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntitePageDTO;
+import com.entite_service.importing.ImportFormat;
+import com.entite_service.importing.ImportRowReader;
+import com.entite_service.paging.EntiteCursor;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
+import com.entite_service.paging.EntiteSection;
+import com.entite_service.paging.EntiteSort;
+import com.entite_service.service.EntiteExportService;
+import com.entite_service.service.EntiteImportService;
 import com.entite_service.service.EntiteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/entites")
 public class EntiteController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private EntiteService entiteService;
 
+    @Autowired
+    private EntiteExportService exportService;
+
+    @Autowired
+    private EntiteImportService importService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Longest /export or /import may stream before its async request times out; other async
+    // requests keep the default
+    @Value("${entite.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    // view: detail (every section, the default), list (no sections) or bi (business section only)
     @GetMapping
-    public List<EntiteFullDTO> getAllEntites() {
-        return entiteService.findAll();
+    public List<EntiteFullDTO> getAllEntites(@RequestParam(defaultValue = "detail") String view) {
+        EntiteFetchProfile profile;
+        try {
+            profile = EntiteFetchProfile.from(view);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return entiteService.findAll(profile);
+    }
+
+    // Keyset-paginated listing; pass the previous page's nextCursor to continue with the same
+    // sort and direction. sort: id or createdAt. fields: comma-separated sections to include
+    // (business, contact, location, media, products, additional, or all); none by default.
+    @GetMapping("/page")
+    public EntitePageDTO getEntitePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) Long typeEntrepriseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        EntitePageRequest request;
+        try {
+            EntiteSort order = EntiteSort.from(sort);
+            boolean descending = direction.equalsIgnoreCase("desc");
+            if (!descending && !direction.equalsIgnoreCase("asc")) {
+                throw new IllegalArgumentException("Unknown direction: " + direction);
+            }
+            EntiteCursor after = cursor != null && !cursor.isBlank() ? EntiteCursor.decode(cursor) : null;
+            if (after != null && (after.sort() != order || after.descending() != descending)) {
+                throw new IllegalArgumentException("Cursor belongs to a different sort or direction");
+            }
+            request = new EntitePageRequest(order, descending, after, Math.min(limit, MAX_PAGE_SIZE),
+                    EntiteSection.parse(fields), type, region, typeEntrepriseId, createdFrom, createdTo);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return entiteService.findPage(request);
+    }
+
+    // Every entity as newline-delimited JSON, written as it is read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEntites(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(streamTimeoutMs);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(exportService::exportAll);
+    }
+
+    // Bulk creation from an NDJSON or CSV body; format defaults from the Content-Type (text/csv or
+    // NDJSON otherwise). Records are written in chunks as the body streams in, and the response
+    // streams back one line per rejected record, one per committed chunk and a final summary.
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importEntites(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+        ImportRowReader reader;
+        try {
+            ImportFormat importFormat = format != null ? ImportFormat.from(format)
+                    : request.getContentType() != null
+                            && MediaType.parseMediaType(request.getContentType()).isCompatibleWith(CSV)
+                            ? ImportFormat.CSV : ImportFormat.NDJSON;
+            reader = ImportRowReader.open(importFormat, request.getInputStream(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(streamTimeoutMs);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> importService.importAll(reader, out));
     }
 
     @GetMapping("/{id}")
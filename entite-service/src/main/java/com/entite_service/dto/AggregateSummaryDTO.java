@@ -0,0 +1,17 @@
+package com.entite_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateSummaryDTO {
+    private Long totalEntities;
+    private Long withBusiness;
+    private Long withContact;
+    private Long withProducts;
+    private Long riskSum;
+    private Long riskCount;
+}
@@ -4,6 +4,8 @@ import com.entite_service.entity.*;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 public class EntiteFullDTO {
 
@@ -34,6 +36,8 @@ public class EntiteFullDTO {
     private String langueSite;
     private Long secteurId;
     private Long sousSecteurId;
+    // Read side only: set from the entity, never copied back (see EntiteMapper)
+    private LocalDateTime createdAt;
 
 
     private EntiteBusiness entiteBusiness;
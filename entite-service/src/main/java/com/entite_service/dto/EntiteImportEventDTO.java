@@ -0,0 +1,35 @@
+package com.entite_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a bulk import's response. type "error" carries the line and message of a rejected
+// record; "progress" follows every committed chunk and "summary" ends the stream, both with the
+// running totals.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EntiteImportEventDTO {
+    private String type;
+    private Long line;
+    private String message;
+    private Long rows;
+    private Long imported;
+    private Long failed;
+    private Long elapsedMs;
+
+    public static EntiteImportEventDTO error(long line, String message) {
+        return new EntiteImportEventDTO("error", line, message, null, null, null, null);
+    }
+
+    public static EntiteImportEventDTO progress(long rows, long imported, long failed, long elapsedMs) {
+        return new EntiteImportEventDTO("progress", null, null, rows, imported, failed, elapsedMs);
+    }
+
+    public static EntiteImportEventDTO summary(long rows, long imported, long failed, long elapsedMs) {
+        return new EntiteImportEventDTO("summary", null, null, rows, imported, failed, elapsedMs);
+    }
+}
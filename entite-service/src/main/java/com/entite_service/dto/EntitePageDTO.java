@@ -0,0 +1,17 @@
+package com.entite_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntitePageDTO {
+    private List<EntiteFullDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,13 @@
+package com.entite_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupCountDTO {
+    private String key;
+    private Long count;
+}
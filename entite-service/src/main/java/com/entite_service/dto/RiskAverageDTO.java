@@ -0,0 +1,16 @@
+package com.entite_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAverageDTO {
+    private String key;
+    private Long count;
+    // Rows of the group that carry a risk value; averageRisk is taken over these only
+    private Long riskCount;
+    private Double averageRisk;
+}
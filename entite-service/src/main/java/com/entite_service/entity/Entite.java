@@ -4,12 +4,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+// The sections are on the inverse side of their one-to-one, which Hibernate can only load lazily
+// with bytecode enhancement (see the pom). Queries pick what to join through the named graphs below,
+// one per use case; a section left out is only read if something touches it.
 @Entity
-@Table(name = "entity")
+@NamedEntityGraph(name = "Entite.list")
+@NamedEntityGraph(name = "Entite.detail", attributeNodes = {
+        @NamedAttributeNode("entiteBusiness"), @NamedAttributeNode("entiteContact"),
+        @NamedAttributeNode("entiteProducts"), @NamedAttributeNode("entiteMedia"),
+        @NamedAttributeNode("entiteLocation"), @NamedAttributeNode("entiteAdditional")})
+@NamedEntityGraph(name = "Entite.bi", attributeNodes = @NamedAttributeNode("entiteBusiness"))
+@Table(name = "entity", indexes = @Index(name = "idx_entity_created_at_id", columnList = "created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,27 +59,27 @@ public class Entite {
     private String titreAriane;
     private String langueSite;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteBusiness entiteBusiness;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteContact entiteContact;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteProducts entiteProducts;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteMedia entiteMedia;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteLocation entiteLocation;
 
-    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(mappedBy = "entite", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private EntiteAdditional entiteAdditional;
 
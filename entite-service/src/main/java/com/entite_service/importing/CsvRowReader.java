@@ -0,0 +1,156 @@
+package com.entite_service.importing;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.paging.EntiteSection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV with a header row. Core columns use the EntiteFullDTO field names, section columns
+// are prefixed with the section key (business.secteur, contact.email, ...). Each record is turned
+// into the JSON tree the NDJSON format would carry, so both bind and coerce values the same way.
+// Empty fields are null.
+final class CsvRowReader implements ImportRowReader {
+
+    private final Reader reader;
+    private final ObjectReader dtoReader;
+    // Per column: the section attribute it belongs to, or null for a core field, and the field name
+    private final String[] sections;
+    private final String[] fields;
+    private long line = 1;
+    private int pending = -2;
+
+    CsvRowReader(InputStream in, ObjectReader dtoReader) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.dtoReader = dtoReader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body has no header row");
+        }
+        sections = new String[header.size()];
+        fields = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            int dot = name.indexOf('.');
+            sections[i] = dot < 0 ? null : EntiteSection.from(name.substring(0, dot)).attribute();
+            fields[i] = dot < 0 ? name : name.substring(dot + 1);
+        }
+        checkHeader(header);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        long start = line;
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        if (record.size() != fields.length) {
+            return ImportRow.failed(start, "Expected " + fields.length + " fields but found " + record.size());
+        }
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < fields.length; i++) {
+            String value = record.get(i);
+            if (!value.isEmpty()) {
+                target(node, i).put(fields[i], value);
+            }
+        }
+        try {
+            return new ImportRow(start, dtoReader.readValue(node, EntiteFullDTO.class), null);
+        } catch (IOException e) {
+            return ImportRow.failed(start, e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+        }
+    }
+
+    private ObjectNode target(ObjectNode node, int column) {
+        return sections[column] == null ? node : node.withObjectProperty(sections[column]);
+    }
+
+    // Binds a record naming every column, so an unknown field fails once here instead of on every row
+    private void checkHeader(List<String> header) {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < fields.length; i++) {
+            target(node, i).putNull(fields[i]);
+        }
+        try {
+            dtoReader.readValue(node, EntiteFullDTO.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid CSV header " + header + ": "
+                    + (e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage()));
+        }
+    }
+
+    // The next record's fields, or null at the end; quoted fields may hold separators and line breaks
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') line++;
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field starting before line " + line);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') unread(next);
+                }
+                if (c >= 0) line++;
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -0,0 +1,177 @@
+package com.entite_service.importing;
+
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteAdditional;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.entity.EntiteLocation;
+import com.entite_service.entity.EntiteMedia;
+import com.entite_service.entity.EntiteProducts;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.jdbc.Size;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.SelectableMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Inserts new entities and their sections with plain JDBC batches. Hibernate cannot batch inserts
+// on IDENTITY keys, so a chunk of N entities would otherwise cost up to 7N round trips; here it is
+// one batch for the entities, whose generated keys are read back, and one per section table.
+// The insert statements come from the Hibernate mapping, so they follow the entities as they change.
+// Runs on the caller's transaction.
+@Component
+public class EntiteBatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TableInsert entites;
+    private final List<SectionInsert> sections;
+
+    public EntiteBatchWriter(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+        this.entites = new TableInsert(sessionFactory, Entite.class);
+        this.sections = List.of(
+                new SectionInsert("entiteBusiness", new TableInsert(sessionFactory, EntiteBusiness.class), Entite::getEntiteBusiness),
+                new SectionInsert("entiteContact", new TableInsert(sessionFactory, EntiteContact.class), Entite::getEntiteContact),
+                new SectionInsert("entiteProducts", new TableInsert(sessionFactory, EntiteProducts.class), Entite::getEntiteProducts),
+                new SectionInsert("entiteMedia", new TableInsert(sessionFactory, EntiteMedia.class), Entite::getEntiteMedia),
+                new SectionInsert("entiteLocation", new TableInsert(sessionFactory, EntiteLocation.class), Entite::getEntiteLocation),
+                new SectionInsert("entiteAdditional", new TableInsert(sessionFactory, EntiteAdditional.class), Entite::getEntiteAdditional));
+    }
+
+    // Why the entity or one of its sections cannot be inserted as it is, or null if it can
+    public String check(Entite entite) {
+        String error = entites.check(entite);
+        if (error != null) {
+            return error;
+        }
+        for (SectionInsert section : sections) {
+            Object value = section.section().apply(entite);
+            if (value != null && (error = section.insert().check(value)) != null) {
+                return section.attribute() + "." + error;
+            }
+        }
+        return null;
+    }
+
+    // Sections must already point back at their entity; ids are assigned to the entities
+    public void insert(List<Entite> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(entites.sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Entite entite : batch) {
+                    entite.setCreatedAt(now);
+                    entites.bind(statement, entite);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Entite entite : batch) {
+                        if (!keys.next()) {
+                            throw new DataRetrievalFailureException("Fewer generated keys than inserted entities");
+                        }
+                        entite.setId(keys.getLong(1));
+                    }
+                }
+            }
+            for (SectionInsert section : sections) {
+                try (PreparedStatement statement = connection.prepareStatement(section.insert().sql)) {
+                    int rows = 0;
+                    for (Entite entite : batch) {
+                        Object value = section.section().apply(entite);
+                        if (value != null) {
+                            section.insert().bind(statement, value);
+                            statement.addBatch();
+                            rows++;
+                        }
+                    }
+                    if (rows > 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private record SectionInsert(String attribute, TableInsert insert, Function<Entite, Object> section) {
+    }
+
+    // The insert for one entity class: every insertable property with a column of its own,
+    // the generated id left out. To-one properties are bound as the referenced entity's id.
+    private static final class TableInsert {
+
+        private final SessionFactoryImplementor sessionFactory;
+        private final AbstractEntityPersister persister;
+        private final String sql;
+        private final int[] properties;
+        private final String[] columns;
+        private final Long[] lengths;
+        private final boolean[] references;
+
+        TableInsert(SessionFactoryImplementor sessionFactory, Class<?> type) {
+            this.sessionFactory = sessionFactory;
+            this.persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+            boolean[] insertable = persister.getPropertyInsertability();
+            Type[] types = persister.getPropertyTypes();
+            List<Integer> selected = new ArrayList<>();
+            for (int i = 0; i < persister.getPropertySpan(); i++) {
+                if (insertable[i] && persister.getPropertyColumnSpan(i) == 1) {
+                    selected.add(i);
+                }
+            }
+            properties = selected.stream().mapToInt(Integer::intValue).toArray();
+            columns = new String[properties.length];
+            lengths = new Long[properties.length];
+            references = new boolean[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                columns[i] = persister.getPropertyColumnNames(properties[i])[0];
+                references[i] = types[properties[i]].isEntityType();
+                // The runtime model keeps no length for columns mapped without one; those get Hibernate's default
+                if (types[properties[i]].getReturnedClass() == String.class
+                        && persister.getAttributeMapping(properties[i]) instanceof SelectableMapping column) {
+                    lengths[i] = column.getLength() != null ? column.getLength() : Long.valueOf(Size.DEFAULT_LENGTH);
+                }
+            }
+            sql = "insert into " + persister.getIdentifierTableName() + " (" + String.join(", ", columns)
+                    + ") values (" + "?, ".repeat(columns.length - 1) + "?)";
+        }
+
+        String check(Object entity) {
+            if (sessionFactory.getPersistenceUnitUtil().getIdentifier(entity) != null) {
+                return "id must be empty: imports only create new rows";
+            }
+            Object[] values = persister.getPropertyValues(entity);
+            for (int i = 0; i < properties.length; i++) {
+                if (lengths[i] != null && values[properties[i]] instanceof String text && text.length() > lengths[i]) {
+                    return persister.getPropertyNames()[properties[i]] + " is longer than " + lengths[i] + " characters";
+                }
+            }
+            return null;
+        }
+
+        void bind(PreparedStatement statement, Object entity) throws SQLException {
+            Object[] values = persister.getPropertyValues(entity);
+            for (int i = 0; i < properties.length; i++) {
+                Object value = values[properties[i]];
+                if (references[i] && value != null) {
+                    value = sessionFactory.getPersistenceUnitUtil().getIdentifier(value);
+                }
+                statement.setObject(i + 1, value);
+            }
+        }
+    }
+}
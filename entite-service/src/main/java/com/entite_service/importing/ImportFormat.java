@@ -0,0 +1,29 @@
+package com.entite_service.importing;
+
+import java.util.Locale;
+
+// Body formats accepted by the bulk import; CSV headers use the JSON field names
+public enum ImportFormat {
+    NDJSON("ndjson"),
+    CSV("csv");
+
+    private final String key;
+
+    ImportFormat(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static ImportFormat from(String key) {
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (ImportFormat format : values()) {
+            if (format.key.equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format: " + key);
+    }
+}
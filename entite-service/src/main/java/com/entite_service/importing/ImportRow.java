@@ -0,0 +1,11 @@
+package com.entite_service.importing;
+
+import com.entite_service.dto.EntiteFullDTO;
+
+// One record of an import body: the line it starts on and either its DTO or why it could not be read
+public record ImportRow(long line, EntiteFullDTO dto, String error) {
+
+    static ImportRow failed(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+}
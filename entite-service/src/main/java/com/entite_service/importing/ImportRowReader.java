@@ -0,0 +1,30 @@
+package com.entite_service.importing;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Reads an import body one record at a time, so the whole file is never held in memory
+public interface ImportRowReader {
+
+    // The next record, or null at the end of the body
+    ImportRow next() throws IOException;
+
+    // Unknown fields are row errors rather than silently dropped
+    static ObjectReader dtoReader(ObjectMapper objectMapper) {
+        return objectMapper.readerFor(EntiteFullDTO.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    // Throws IllegalArgumentException when a CSV header names an unknown field
+    static ImportRowReader open(ImportFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRowReader(in, dtoReader(objectMapper));
+            case CSV -> new CsvRowReader(in, dtoReader(objectMapper));
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.entite_service.importing;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// One EntiteFullDTO per line; blank lines are skipped
+final class NdjsonRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader dtoReader;
+    private long line;
+
+    NdjsonRowReader(InputStream in, ObjectReader dtoReader) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.dtoReader = dtoReader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        try {
+            return new ImportRow(line, dtoReader.readValue(text, EntiteFullDTO.class), null);
+        } catch (JsonProcessingException e) {
+            return ImportRow.failed(line, e.getOriginalMessage());
+        }
+    }
+}
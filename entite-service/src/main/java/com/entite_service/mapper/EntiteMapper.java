@@ -0,0 +1,133 @@
+package com.entite_service.mapper;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.paging.EntiteSection;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Plain getter/setter copies between Entite and EntiteFullDTO. Same rules as the reflective mapping
+// it replaces: every field is copied, nulls included, sections are shared by reference rather than
+// cloned, and createdAt is never taken from a DTO. secteurId and sousSecteurId have no entity field.
+@Component
+public class EntiteMapper {
+
+    public EntiteFullDTO toDto(Entite entite) {
+        EntiteFullDTO dto = toCoreDto(entite);
+        dto.setEntiteBusiness(entite.getEntiteBusiness());
+        dto.setEntiteContact(entite.getEntiteContact());
+        dto.setEntiteProducts(entite.getEntiteProducts());
+        dto.setEntiteMedia(entite.getEntiteMedia());
+        dto.setEntiteLocation(entite.getEntiteLocation());
+        dto.setEntiteAdditional(entite.getEntiteAdditional());
+        return dto;
+    }
+
+    // Core fields plus the given sections only; the others are never read, so never loaded
+    public EntiteFullDTO toDto(Entite entite, Set<EntiteSection> sections) {
+        EntiteFullDTO dto = toCoreDto(entite);
+        for (EntiteSection section : sections) {
+            switch (section) {
+                case BUSINESS -> dto.setEntiteBusiness(entite.getEntiteBusiness());
+                case CONTACT -> dto.setEntiteContact(entite.getEntiteContact());
+                case LOCATION -> dto.setEntiteLocation(entite.getEntiteLocation());
+                case MEDIA -> dto.setEntiteMedia(entite.getEntiteMedia());
+                case PRODUCTS -> dto.setEntiteProducts(entite.getEntiteProducts());
+                case ADDITIONAL -> dto.setEntiteAdditional(entite.getEntiteAdditional());
+            }
+        }
+        return dto;
+    }
+
+    public Entite toEntity(EntiteFullDTO dto) {
+        Entite entite = new Entite();
+        copyInto(dto, entite);
+        return entite;
+    }
+
+    // Overwrites every field of the entity with the DTO's, then points each section back at it
+    public void copyInto(EntiteFullDTO dto, Entite entite) {
+        entite.setId(dto.getId());
+        entite.setLibelle(dto.getLibelle());
+        entite.setNumMB(dto.getNumMB());
+        entite.setDescription(dto.getDescription());
+        entite.setTypeEntrepriseId(dto.getTypeEntrepriseId());
+        entite.setType(dto.getType());
+        entite.setSH(dto.getSH());
+        entite.setRisk(dto.getRisk());
+        entite.setTome(dto.getTome());
+        entite.setTextSeo(dto.getTextSeo());
+        entite.setRegion(dto.getRegion());
+        entite.setStandard(dto.getStandard());
+        entite.setLogo(dto.getLogo());
+        entite.setPays(dto.getPays());
+        entite.setTelephone(dto.getTelephone());
+        entite.setCodeFiscal(dto.getCodeFiscal());
+        entite.setIce(dto.getIce());
+        entite.setPatente(dto.getPatente());
+        entite.setRc(dto.getRc());
+        entite.setCnss(dto.getCnss());
+        entite.setSlug(dto.getSlug());
+        entite.setMetaTitle(dto.getMetaTitle());
+        entite.setMetaDescription(dto.getMetaDescription());
+        entite.setTitreAriane(dto.getTitreAriane());
+        entite.setLangueSite(dto.getLangueSite());
+        entite.setEntiteBusiness(dto.getEntiteBusiness());
+        entite.setEntiteContact(dto.getEntiteContact());
+        entite.setEntiteProducts(dto.getEntiteProducts());
+        entite.setEntiteMedia(dto.getEntiteMedia());
+        entite.setEntiteLocation(dto.getEntiteLocation());
+        entite.setEntiteAdditional(dto.getEntiteAdditional());
+
+        if (entite.getEntiteBusiness() != null) {
+            entite.getEntiteBusiness().setEntite(entite);
+        }
+        if (entite.getEntiteContact() != null) {
+            entite.getEntiteContact().setEntite(entite);
+        }
+        if (entite.getEntiteProducts() != null) {
+            entite.getEntiteProducts().setEntite(entite);
+        }
+        if (entite.getEntiteMedia() != null) {
+            entite.getEntiteMedia().setEntite(entite);
+        }
+        if (entite.getEntiteLocation() != null) {
+            entite.getEntiteLocation().setEntite(entite);
+        }
+        if (entite.getEntiteAdditional() != null) {
+            entite.getEntiteAdditional().setEntite(entite);
+        }
+    }
+
+    private EntiteFullDTO toCoreDto(Entite entite) {
+        EntiteFullDTO dto = new EntiteFullDTO();
+        dto.setId(entite.getId());
+        dto.setLibelle(entite.getLibelle());
+        dto.setNumMB(entite.getNumMB());
+        dto.setDescription(entite.getDescription());
+        dto.setTypeEntrepriseId(entite.getTypeEntrepriseId());
+        dto.setType(entite.getType());
+        dto.setSH(entite.getSH());
+        dto.setRisk(entite.getRisk());
+        dto.setTome(entite.getTome());
+        dto.setTextSeo(entite.getTextSeo());
+        dto.setRegion(entite.getRegion());
+        dto.setStandard(entite.getStandard());
+        dto.setLogo(entite.getLogo());
+        dto.setPays(entite.getPays());
+        dto.setTelephone(entite.getTelephone());
+        dto.setCodeFiscal(entite.getCodeFiscal());
+        dto.setIce(entite.getIce());
+        dto.setPatente(entite.getPatente());
+        dto.setRc(entite.getRc());
+        dto.setCnss(entite.getCnss());
+        dto.setSlug(entite.getSlug());
+        dto.setMetaTitle(entite.getMetaTitle());
+        dto.setMetaDescription(entite.getMetaDescription());
+        dto.setTitreAriane(entite.getTitreAriane());
+        dto.setLangueSite(entite.getLangueSite());
+        dto.setCreatedAt(entite.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,33 @@
+package com.entite_service.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Position after the last row of a page: its sort key and id. Sent to clients as an opaque
+// URL-safe token, so the encoding can change without breaking them beyond one page.
+public record EntiteCursor(EntiteSort sort, boolean descending, LocalDateTime createdAt, long id) {
+
+    public String encode() {
+        String value = sort.key() + "|" + (descending ? "desc" : "asc") + "|"
+                + (createdAt != null ? createdAt : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EntiteCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            EntiteSort sort = EntiteSort.from(parts[0]);
+            LocalDateTime createdAt = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+            if (sort == EntiteSort.CREATED_AT && createdAt == null) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new EntiteCursor(sort, parts[1].equals("desc"), createdAt, Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
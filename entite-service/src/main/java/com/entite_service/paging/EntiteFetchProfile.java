@@ -0,0 +1,45 @@
+package com.entite_service.paging;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// What a listing loads per entity: the sections joined into its select, through the Entite named
+// graph of the same purpose. Sections outside the profile are never loaded.
+public enum EntiteFetchProfile {
+    LIST("list", "Entite.list", EnumSet.noneOf(EntiteSection.class)),
+    DETAIL("detail", "Entite.detail", EnumSet.allOf(EntiteSection.class)),
+    BI("bi", "Entite.bi", EnumSet.of(EntiteSection.BUSINESS));
+
+    private final String key;
+    private final String graph;
+    private final Set<EntiteSection> sections;
+
+    EntiteFetchProfile(String key, String graph, Set<EntiteSection> sections) {
+        this.key = key;
+        this.graph = graph;
+        this.sections = sections;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String graph() {
+        return graph;
+    }
+
+    public Set<EntiteSection> sections() {
+        return sections;
+    }
+
+    public static EntiteFetchProfile from(String key) {
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (EntiteFetchProfile profile : values()) {
+            if (profile.key.equals(normalized)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown view: " + key);
+    }
+}
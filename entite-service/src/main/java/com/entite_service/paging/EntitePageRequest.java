@@ -0,0 +1,19 @@
+package com.entite_service.paging;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// One page of the entity listing: order, position, size, the sections to load and the filters
+// (null filters are ignored)
+public record EntitePageRequest(
+        EntiteSort sort,
+        boolean descending,
+        EntiteCursor after,
+        int limit,
+        Set<EntiteSection> sections,
+        String type,
+        String region,
+        Long typeEntrepriseId,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo) {
+}
@@ -0,0 +1,55 @@
+package com.entite_service.paging;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Child sections of an Entite a listing can ask for with fields=; attribute is the Entite property
+public enum EntiteSection {
+    BUSINESS("business", "entiteBusiness"),
+    CONTACT("contact", "entiteContact"),
+    LOCATION("location", "entiteLocation"),
+    MEDIA("media", "entiteMedia"),
+    PRODUCTS("products", "entiteProducts"),
+    ADDITIONAL("additional", "entiteAdditional");
+
+    private final String key;
+    private final String attribute;
+
+    EntiteSection(String key, String attribute) {
+        this.key = key;
+        this.attribute = attribute;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    // Comma-separated keys; "all" selects every section, and null or blank selects none
+    public static Set<EntiteSection> parse(String fields) {
+        Set<EntiteSection> sections = EnumSet.noneOf(EntiteSection.class);
+        if (fields == null || fields.isBlank()) {
+            return sections;
+        }
+        for (String field : fields.split(",")) {
+            String key = field.trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty()) continue;
+            if (key.equals("all")) return EnumSet.allOf(EntiteSection.class);
+            sections.add(from(key));
+        }
+        return sections;
+    }
+
+    public static EntiteSection from(String key) {
+        for (EntiteSection section : values()) {
+            if (section.key.equals(key)) {
+                return section;
+            }
+        }
+        throw new IllegalArgumentException("Unknown section: " + key);
+    }
+}
@@ -0,0 +1,28 @@
+package com.entite_service.paging;
+
+import java.util.Locale;
+
+// Keyset orders of the entity listing; both break ties on id so every position is unique
+public enum EntiteSort {
+    ID("id"),
+    CREATED_AT("createdAt");
+
+    private final String key;
+
+    EntiteSort(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static EntiteSort from(String key) {
+        for (EntiteSort sort : values()) {
+            if (sort.key.equalsIgnoreCase(key) || sort.name().equals(key.toUpperCase(Locale.ROOT))) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + key);
+    }
+}
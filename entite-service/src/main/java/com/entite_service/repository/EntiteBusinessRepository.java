@@ -1,10 +1,44 @@
 package com.entite_service.repository;
 
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
 import com.entite_service.entity.EntiteBusiness;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface EntiteBusinessRepository extends JpaRepository<EntiteBusiness, Long> {
     EntiteBusiness findByEntiteId(Long entiteId);
-} 
\ No newline at end of file
+    long countByEntiteIsNotNull();
+
+    // Group-by projections over the business section; "since" filters on the owning Entite.createdAt
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(b.secteur, count(b)) from EntiteBusiness b "
+            + "where (:since is null or b.entite.createdAt >= :since) group by b.secteur")
+    List<GroupCountDTO> countBySecteur(@Param("since") LocalDateTime since);
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(b.sousSecteur, count(b)) from EntiteBusiness b "
+            + "where (:since is null or b.entite.createdAt >= :since) group by b.sousSecteur")
+    List<GroupCountDTO> countBySousSecteur(@Param("since") LocalDateTime since);
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(b.formeJuridique, count(b)) from EntiteBusiness b "
+            + "where (:since is null or b.entite.createdAt >= :since) group by b.formeJuridique")
+    List<GroupCountDTO> countByFormeJuridique(@Param("since") LocalDateTime since);
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(b.secteur, count(b), count(b.risk), avg(b.risk)) "
+            + "from EntiteBusiness b group by b.secteur")
+    List<RiskAverageDTO> riskBySecteur();
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(b.sousSecteur, count(b), count(b.risk), avg(b.risk)) "
+            + "from EntiteBusiness b group by b.sousSecteur")
+    List<RiskAverageDTO> riskBySousSecteur();
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(b.formeJuridique, count(b), count(b.risk), avg(b.risk)) "
+            + "from EntiteBusiness b group by b.formeJuridique")
+    List<RiskAverageDTO> riskByFormeJuridique();
+}
@@ -7,4 +7,5 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface EntiteContactRepository extends JpaRepository<EntiteContact, Long> {
     EntiteContact findByEntiteId(Long entiteId);
+    long countByEntiteIsNotNull();
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.entite_service.repository;
+
+import com.entite_service.entity.Entite;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
+
+import java.util.List;
+
+public interface EntiteKeysetRepository {
+
+    // Up to limit + 1 rows after the request's cursor, so the caller can tell whether another page follows
+    List<Entite> findPage(EntitePageRequest request);
+
+    // Every entity in id order with only the profile's sections loaded
+    List<Entite> findAll(EntiteFetchProfile profile);
+}
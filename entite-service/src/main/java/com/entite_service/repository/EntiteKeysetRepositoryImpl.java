@@ -0,0 +1,82 @@
+package com.entite_service.repository;
+
+import com.entite_service.entity.Entite;
+import com.entite_service.paging.EntiteCursor;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
+import com.entite_service.paging.EntiteSection;
+import com.entite_service.paging.EntiteSort;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset pagination: the cursor becomes a range predicate on (sort key, id), so the database
+// seeks straight to the position through the index instead of skipping OFFSET rows. Requested
+// sections are joined into the same select through a fetch graph.
+class EntiteKeysetRepositoryImpl implements EntiteKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Entite> findPage(EntitePageRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Entite> query = cb.createQuery(Entite.class);
+        Root<Entite> entite = query.from(Entite.class);
+        Path<Long> id = entite.get("id");
+        Path<LocalDateTime> createdAt = entite.get("createdAt");
+
+        List<Predicate> where = new ArrayList<>();
+        if (request.type() != null) where.add(cb.equal(entite.get("type"), request.type()));
+        if (request.region() != null) where.add(cb.equal(entite.get("region"), request.region()));
+        if (request.typeEntrepriseId() != null) where.add(cb.equal(entite.get("typeEntrepriseId"), request.typeEntrepriseId()));
+        if (request.createdFrom() != null) where.add(cb.greaterThanOrEqualTo(createdAt, request.createdFrom()));
+        if (request.createdTo() != null) where.add(cb.lessThanOrEqualTo(createdAt, request.createdTo()));
+
+        boolean descending = request.descending();
+        EntiteCursor after = request.after();
+        List<Order> order = new ArrayList<>();
+        if (request.sort() == EntiteSort.CREATED_AT) {
+            // rows without a creation date have no place in this order and are left out
+            where.add(cb.isNotNull(createdAt));
+            if (after != null) {
+                where.add(cb.or(
+                        descending ? cb.lessThan(createdAt, after.createdAt()) : cb.greaterThan(createdAt, after.createdAt()),
+                        cb.and(cb.equal(createdAt, after.createdAt()),
+                                descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id()))));
+            }
+            order.add(descending ? cb.desc(createdAt) : cb.asc(createdAt));
+        } else if (after != null) {
+            where.add(descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id()));
+        }
+        order.add(descending ? cb.desc(id) : cb.asc(id));
+
+        query.select(entite).where(where.toArray(Predicate[]::new)).orderBy(order);
+
+        EntityGraph<Entite> graph = entityManager.createEntityGraph(Entite.class);
+        for (EntiteSection section : request.sections()) {
+            graph.addAttributeNodes(section.attribute());
+        }
+        return entityManager.createQuery(query)
+                .setHint("jakarta.persistence.fetchgraph", graph)
+                .setMaxResults(request.limit() + 1)
+                .getResultList();
+    }
+
+    @Override
+    public List<Entite> findAll(EntiteFetchProfile profile) {
+        return entityManager.createQuery("select e from Entite e order by e.id", Entite.class)
+                .setHint("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(profile.graph()))
+                .getResultList();
+    }
+}
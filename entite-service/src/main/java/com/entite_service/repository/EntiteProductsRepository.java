@@ -7,4 +7,5 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface EntiteProductsRepository extends JpaRepository<EntiteProducts, Long> {
     EntiteProducts findByEntiteId(Long entiteId);
+    long countByEntiteIsNotNull();
 } 
\ No newline at end of file
@@ -1,10 +1,79 @@
 package com.entite_service.repository;
 
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
 import com.entite_service.entity.Entite;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface EntiteRepository extends JpaRepository<Entite, Long> {
-    // Add custom queries if needed
+public interface EntiteRepository extends JpaRepository<Entite, Long>, EntiteKeysetRepository {
+
+    // Full entities with every section joined into the one select
+    @Override
+    @EntityGraph("Entite.detail")
+    List<Entite> findAll();
+
+    @Override
+    @EntityGraph("Entite.detail")
+    Optional<Entite> findById(Long id);
+
+    // Forward-only, read-only cursor over every entity in id order. The sections are joined into
+    // the same select: a secondary query per row would make the driver buffer the open result.
+    // Must be consumed and closed inside a transaction.
+    @EntityGraph("Entite.detail")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select e from Entite e order by e.id")
+    Stream<Entite> streamAllByOrderById();
+
+    // Aggregate projections: each returns one row per group, never the entities themselves.
+    // A null "since" disables the created-at filter.
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(e.type, count(e)) from Entite e "
+            + "where (:since is null or e.createdAt >= :since) group by e.type")
+    List<GroupCountDTO> countByType(@Param("since") LocalDateTime since);
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(e.region, count(e)) from Entite e "
+            + "where (:since is null or e.createdAt >= :since) group by e.region")
+    List<GroupCountDTO> countByRegion(@Param("since") LocalDateTime since);
+
+    @Query("select new com.entite_service.dto.GroupCountDTO(cast(e.typeEntrepriseId as String), count(e)) from Entite e "
+            + "where (:since is null or e.createdAt >= :since) group by e.typeEntrepriseId")
+    List<GroupCountDTO> countByTypeEntrepriseId(@Param("since") LocalDateTime since);
+
+    // Rows are [year, month, day, count]
+    @Query("select year(e.createdAt), month(e.createdAt), day(e.createdAt), count(e) from Entite e "
+            + "where e.createdAt is not null "
+            + "and (:start is null or e.createdAt >= :start) and (:end is null or e.createdAt <= :end) "
+            + "group by year(e.createdAt), month(e.createdAt), day(e.createdAt)")
+    List<Object[]> countByCreatedDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(e.type, count(e), count(e.risk), avg(e.risk)) "
+            + "from Entite e group by e.type")
+    List<RiskAverageDTO> riskByType();
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(e.region, count(e), count(e.risk), avg(e.risk)) "
+            + "from Entite e group by e.region")
+    List<RiskAverageDTO> riskByRegion();
+
+    @Query("select new com.entite_service.dto.RiskAverageDTO(cast(e.typeEntrepriseId as String), count(e), count(e.risk), avg(e.risk)) "
+            + "from Entite e group by e.typeEntrepriseId")
+    List<RiskAverageDTO> riskByTypeEntrepriseId();
+
+    // Single row [sum(risk), count(risk)]
+    @Query("select coalesce(sum(e.risk), 0), count(e.risk) from Entite e")
+    List<Object[]> riskTotals();
 }
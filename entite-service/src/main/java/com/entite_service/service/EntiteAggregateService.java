@@ -0,0 +1,15 @@
+package com.entite_service.service;
+
+import com.entite_service.dto.AggregateSummaryDTO;
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EntiteAggregateService {
+    List<GroupCountDTO> countBy(String groupBy, LocalDateTime since);
+    List<GroupCountDTO> createdAtHistogram(HistogramInterval interval, LocalDateTime start, LocalDateTime end);
+    List<RiskAverageDTO> riskBy(String groupBy);
+    AggregateSummaryDTO summary();
+}
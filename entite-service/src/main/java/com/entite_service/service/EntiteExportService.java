@@ -0,0 +1,9 @@
+package com.entite_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface EntiteExportService {
+    // Writes every entity as one JSON line and returns how many were written
+    long exportAll(OutputStream out) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.entite_service.service;
+
+import com.entite_service.dto.EntiteImportEventDTO;
+import com.entite_service.importing.ImportRowReader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface EntiteImportService {
+    // Imports every record the reader yields, writing EntiteImportEventDTO lines to out as it goes;
+    // returns the final summary
+    EntiteImportEventDTO importAll(ImportRowReader reader, OutputStream out) throws IOException;
+}
@@ -1,10 +1,14 @@
 package com.entite_service.service;
 
 import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntitePageDTO;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
 import java.util.List;
 
 public interface EntiteService {
-    List<EntiteFullDTO> findAll();
+    List<EntiteFullDTO> findAll(EntiteFetchProfile profile);
+    EntitePageDTO findPage(EntitePageRequest request);
     EntiteFullDTO findById(Long id);
     EntiteFullDTO save(EntiteFullDTO entiteDTO);
     EntiteFullDTO update(Long id, EntiteFullDTO entiteDTO);
@@ -0,0 +1,45 @@
+package com.entite_service.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+// Bucket width of the createdAt histogram. Labels follow bi-service's time-series buckets:
+// ISO day, Monday of the week, yyyy-MM, yyyy-Qn
+public enum HistogramInterval {
+    DAILY("daily"),
+    WEEKLY("weekly"),
+    MONTHLY("monthly"),
+    QUARTERLY("quarterly");
+
+    private final String key;
+
+    HistogramInterval(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String label(LocalDate day) {
+        return switch (this) {
+            case DAILY -> day.toString();
+            case WEEKLY -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+            case MONTHLY -> YearMonth.from(day).toString();
+            case QUARTERLY -> day.getYear() + "-Q" + ((day.getMonthValue() - 1) / 3 + 1);
+        };
+    }
+
+    public static HistogramInterval from(String key) {
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (HistogramInterval interval : values()) {
+            if (interval.key.equals(normalized)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown interval: " + key);
+    }
+}
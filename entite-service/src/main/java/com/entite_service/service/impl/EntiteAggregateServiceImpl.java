@@ -0,0 +1,92 @@
+package com.entite_service.service.impl;
+
+import com.entite_service.dto.AggregateSummaryDTO;
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
+import com.entite_service.repository.EntiteBusinessRepository;
+import com.entite_service.repository.EntiteContactRepository;
+import com.entite_service.repository.EntiteProductsRepository;
+import com.entite_service.repository.EntiteRepository;
+import com.entite_service.service.EntiteAggregateService;
+import com.entite_service.service.HistogramInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EntiteAggregateServiceImpl implements EntiteAggregateService {
+
+    private final EntiteRepository entiteRepository;
+    private final EntiteBusinessRepository businessRepository;
+    private final EntiteContactRepository contactRepository;
+    private final EntiteProductsRepository productsRepository;
+
+    @Override
+    public List<GroupCountDTO> countBy(String groupBy, LocalDateTime since) {
+        return switch (groupBy) {
+            case "type" -> entiteRepository.countByType(since);
+            case "region" -> entiteRepository.countByRegion(since);
+            case "typeEntrepriseId" -> entiteRepository.countByTypeEntrepriseId(since);
+            case "secteur" -> businessRepository.countBySecteur(since);
+            case "sousSecteur" -> businessRepository.countBySousSecteur(since);
+            case "formeJuridique" -> businessRepository.countByFormeJuridique(since);
+            default -> throw unknownGroupBy(groupBy);
+        };
+    }
+
+    @Override
+    public List<GroupCountDTO> createdAtHistogram(HistogramInterval interval, LocalDateTime start, LocalDateTime end) {
+        // The database groups by calendar day; coarser intervals are folded here, which keeps
+        // the query portable and the result at most one row per day
+        Map<String, Long> buckets = new TreeMap<>();
+        for (Object[] row : entiteRepository.countByCreatedDay(start, end)) {
+            LocalDate day = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue());
+            buckets.merge(interval.label(day), ((Number) row[3]).longValue(), Long::sum);
+        }
+
+        List<GroupCountDTO> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((label, count) -> histogram.add(new GroupCountDTO(label, count)));
+        return histogram;
+    }
+
+    @Override
+    public List<RiskAverageDTO> riskBy(String groupBy) {
+        return switch (groupBy) {
+            case "type" -> entiteRepository.riskByType();
+            case "region" -> entiteRepository.riskByRegion();
+            case "typeEntrepriseId" -> entiteRepository.riskByTypeEntrepriseId();
+            case "secteur" -> businessRepository.riskBySecteur();
+            case "sousSecteur" -> businessRepository.riskBySousSecteur();
+            case "formeJuridique" -> businessRepository.riskByFormeJuridique();
+            default -> throw unknownGroupBy(groupBy);
+        };
+    }
+
+    @Override
+    public AggregateSummaryDTO summary() {
+        Object[] risk = entiteRepository.riskTotals().get(0);
+        return new AggregateSummaryDTO(
+                entiteRepository.count(),
+                businessRepository.countByEntiteIsNotNull(),
+                contactRepository.countByEntiteIsNotNull(),
+                productsRepository.countByEntiteIsNotNull(),
+                ((Number) risk[0]).longValue(),
+                ((Number) risk[1]).longValue());
+    }
+
+    private static ResponseStatusException unknownGroupBy(String groupBy) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown groupBy: " + groupBy);
+    }
+}
@@ -0,0 +1,54 @@
+package com.entite_service.service.impl;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.mapper.EntiteMapper;
+import com.entite_service.repository.EntiteRepository;
+import com.entite_service.service.EntiteExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// NDJSON export over a forward-only cursor. Each entity is written and detached before the
+// next row is read, so the persistence context never holds more than one entity.
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EntiteExportServiceImpl implements EntiteExportService {
+
+    // Lines between flushes; the first line is flushed on its own so the response starts at once
+    private static final int FLUSH_EVERY = 256;
+
+    private final EntiteRepository entiteRepository;
+    private final EntityManager entityManager;
+    private final EntiteMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public long exportAll(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(EntiteFullDTO.class);
+        long written = 0;
+        try (Stream<Entite> entites = entiteRepository.streamAllByOrderById()) {
+            Iterator<Entite> rows = entites.iterator();
+            while (rows.hasNext()) {
+                Entite entite = rows.next();
+                out.write(writer.writeValueAsBytes(mapper.toDto(entite)));
+                out.write('\n');
+                entityManager.detach(entite);
+                if (++written == 1 || written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -0,0 +1,183 @@
+package com.entite_service.service.impl;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntiteImportEventDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.importing.EntiteBatchWriter;
+import com.entite_service.importing.ImportRow;
+import com.entite_service.importing.ImportRowReader;
+import com.entite_service.mapper.EntiteMapper;
+import com.entite_service.service.EntiteImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+// Bulk import as a pipeline: while one chunk is written, the next is read and validated in
+// parallel slices. Each chunk is written in a transaction of its own, so a failure never undoes
+// earlier chunks; if a chunk's batch fails, its rows are retried one by one to find the culprits.
+// Not @Transactional: the chunk transactions are the unit of work.
+@Service
+public class EntiteImportServiceImpl implements EntiteImportService {
+
+    private final EntiteMapper mapper;
+    private final EntiteBatchWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validationExecutor;
+    private final ObjectWriter eventWriter;
+    private final int chunkRows;
+    private final int validationThreads;
+
+    public EntiteImportServiceImpl(EntiteMapper mapper, EntiteBatchWriter writer,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("importValidationExecutor") ExecutorService validationExecutor,
+                                   ObjectMapper objectMapper,
+                                   @Value("${entite.import.chunk-rows:1000}") int chunkRows,
+                                   @Value("${entite.import.validation-threads:4}") int validationThreads) {
+        this.mapper = mapper;
+        this.writer = writer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validationExecutor = validationExecutor;
+        this.eventWriter = objectMapper.writerFor(EntiteImportEventDTO.class);
+        this.chunkRows = chunkRows;
+        this.validationThreads = validationThreads;
+    }
+
+    @Override
+    public EntiteImportEventDTO importAll(ImportRowReader reader, OutputStream out) throws IOException {
+        Progress progress = new Progress(out, System.nanoTime());
+        CompletableFuture<List<Checked>> pending = null;
+        while (true) {
+            List<ImportRow> chunk = read(reader);
+            CompletableFuture<List<Checked>> next = chunk.isEmpty() ? null : validate(chunk);
+            if (pending != null) {
+                write(pending.join(), progress);
+                progress.emit(EntiteImportEventDTO.progress(progress.rows, progress.imported, progress.failed, progress.elapsedMs()));
+                out.flush();
+            }
+            if (next == null) {
+                break;
+            }
+            pending = next;
+        }
+        EntiteImportEventDTO summary = EntiteImportEventDTO.summary(progress.rows, progress.imported, progress.failed, progress.elapsedMs());
+        progress.emit(summary);
+        out.flush();
+        return summary;
+    }
+
+    private List<ImportRow> read(ImportRowReader reader) throws IOException {
+        List<ImportRow> chunk = new ArrayList<>(chunkRows);
+        ImportRow row;
+        while (chunk.size() < chunkRows && (row = reader.next()) != null) {
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    private CompletableFuture<List<Checked>> validate(List<ImportRow> chunk) {
+        int slice = Math.max(1, (chunk.size() + validationThreads - 1) / validationThreads);
+        List<CompletableFuture<List<Checked>>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += slice) {
+            List<ImportRow> rows = chunk.subList(from, Math.min(chunk.size(), from + slice));
+            slices.add(CompletableFuture.supplyAsync(() -> rows.stream().map(this::check).toList(), validationExecutor));
+        }
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<Checked> checked = new ArrayList<>(chunk.size());
+            slices.forEach(part -> checked.addAll(part.join()));
+            return checked;
+        });
+    }
+
+    // Never throws: an unexpected failure would fail the whole slice and abort the import, so it
+    // is reported as the row's error instead
+    private Checked check(ImportRow row) {
+        if (row.error() != null) {
+            return new Checked(row.line(), null, row.error());
+        }
+        try {
+            EntiteFullDTO dto = row.dto();
+            if (dto.getLibelle() == null || dto.getLibelle().isBlank()) {
+                return new Checked(row.line(), null, "libelle is required");
+            }
+            Entite entite = mapper.toEntity(dto);
+            String error = writer.check(entite);
+            return error != null ? new Checked(row.line(), null, error) : new Checked(row.line(), entite, null);
+        } catch (RuntimeException e) {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+            return new Checked(row.line(), null, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        }
+    }
+
+    private void write(List<Checked> chunk, Progress progress) throws IOException {
+        List<Entite> valid = new ArrayList<>(chunk.size());
+        for (Checked row : chunk) {
+            progress.rows++;
+            if (row.error() != null) {
+                progress.fail(row.line(), row.error());
+            } else {
+                valid.add(row.entite());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.insert(valid));
+            progress.imported += valid.size();
+        } catch (RuntimeException batchFailure) {
+            for (Checked row : chunk) {
+                if (row.entite() == null) continue;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writer.insert(List.of(row.entite())));
+                    progress.imported++;
+                } catch (RuntimeException e) {
+                    progress.fail(row.line(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private record Checked(long line, Entite entite, String error) {
+    }
+
+    // Running totals and the response the events are written to
+    private final class Progress {
+
+        private final OutputStream out;
+        private final long startNanos;
+        private long rows;
+        private long imported;
+        private long failed;
+
+        Progress(OutputStream out, long startNanos) {
+            this.out = out;
+            this.startNanos = startNanos;
+        }
+
+        void fail(long line, String message) throws IOException {
+            failed++;
+            emit(EntiteImportEventDTO.error(line, message));
+        }
+
+        void emit(EntiteImportEventDTO event) throws IOException {
+            out.write(eventWriter.writeValueAsBytes(event));
+            out.write('\n');
+        }
+
+        long elapsedMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+}
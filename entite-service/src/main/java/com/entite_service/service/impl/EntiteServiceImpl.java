@@ -1,14 +1,19 @@
 package com.entite_service.service.impl;
 
 import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntitePageDTO;
 import com.entite_service.entity.Entite;
+import com.entite_service.mapper.EntiteMapper;
+import com.entite_service.paging.EntiteCursor;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
 import com.entite_service.repository.EntiteRepository;
 import com.entite_service.service.EntiteService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,32 +23,12 @@ import java.util.stream.Collectors;
 public class EntiteServiceImpl implements EntiteService {
 
     private final EntiteRepository entiteRepository;
-    private final ModelMapper mapper;
+    private final EntiteMapper mapper;
 
     @Override
     public EntiteFullDTO save(EntiteFullDTO dto) {
-        Entite entite = mapper.map(dto, Entite.class);
-        if (entite.getEntiteBusiness() != null) {
-            entite.getEntiteBusiness().setEntite(entite);
-        }
-        if (entite.getEntiteContact() != null) {
-            entite.getEntiteContact().setEntite(entite);
-        }
-        if (entite.getEntiteProducts() != null) {
-            entite.getEntiteProducts().setEntite(entite);
-        }
-        if (entite.getEntiteMedia() != null) {
-            entite.getEntiteMedia().setEntite(entite);
-        }
-        if (entite.getEntiteLocation() != null) {
-            entite.getEntiteLocation().setEntite(entite);
-        }
-        if (entite.getEntiteAdditional() != null) {
-            entite.getEntiteAdditional().setEntite(entite);
-        }
-
-        Entite saved = entiteRepository.save(entite);
-        return mapper.map(saved, EntiteFullDTO.class);
+        Entite saved = entiteRepository.save(mapper.toEntity(dto));
+        return mapper.toDto(saved);
     }
 
     @Override
@@ -51,29 +36,10 @@ public class EntiteServiceImpl implements EntiteService {
         Entite existing = entiteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Entite not found"));
 
-        mapper.map(dto, existing);
-
-        if (existing.getEntiteBusiness() != null) {
-            existing.getEntiteBusiness().setEntite(existing);
-        }
-        if (existing.getEntiteContact() != null) {
-            existing.getEntiteContact().setEntite(existing);
-        }
-        if (existing.getEntiteProducts() != null) {
-            existing.getEntiteProducts().setEntite(existing);
-        }
-        if (existing.getEntiteMedia() != null) {
-            existing.getEntiteMedia().setEntite(existing);
-        }
-        if (existing.getEntiteLocation() != null) {
-            existing.getEntiteLocation().setEntite(existing);
-        }
-        if (existing.getEntiteAdditional() != null) {
-            existing.getEntiteAdditional().setEntite(existing);
-        }
+        mapper.copyInto(dto, existing);
 
         Entite updated = entiteRepository.save(existing);
-        return mapper.map(updated, EntiteFullDTO.class);
+        return mapper.toDto(updated);
     }
 
     @Override
@@ -82,16 +48,34 @@ public class EntiteServiceImpl implements EntiteService {
     }
 
     @Override
-    public List<EntiteFullDTO> findAll() {
-        return entiteRepository.findAll().stream()
-                .map(e -> mapper.map(e, EntiteFullDTO.class))
+    public List<EntiteFullDTO> findAll(EntiteFetchProfile profile) {
+        return entiteRepository.findAll(profile).stream()
+                .map(e -> mapper.toDto(e, profile.sections()))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public EntitePageDTO findPage(EntitePageRequest request) {
+        List<Entite> rows = entiteRepository.findPage(request);
+        boolean hasMore = rows.size() > request.limit();
+        List<Entite> page = hasMore ? rows.subList(0, request.limit()) : rows;
+
+        List<EntiteFullDTO> items = new ArrayList<>(page.size());
+        for (Entite entite : page) {
+            items.add(mapper.toDto(entite, request.sections()));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Entite last = page.get(page.size() - 1);
+            nextCursor = new EntiteCursor(request.sort(), request.descending(), last.getCreatedAt(), last.getId()).encode();
+        }
+        return new EntitePageDTO(items, nextCursor, hasMore);
+    }
+
     @Override
     public EntiteFullDTO findById(Long id) {
         Entite entite = entiteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Entite not found"));
-        return mapper.map(entite, EntiteFullDTO.class);
+        return mapper.toDto(entite);
     }
 }
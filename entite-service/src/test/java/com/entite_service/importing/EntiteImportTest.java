@@ -0,0 +1,192 @@
+package com.entite_service.importing;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntiteImportEventDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.mapper.EntiteMapper;
+import com.entite_service.repository.EntiteRepository;
+import com.entite_service.service.impl.EntiteImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Chunks commit on their own, so the test runs outside the usual rolled-back test transaction
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntiteImportTest {
+
+    @Autowired
+    private EntiteRepository entiteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private EntiteImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        EntiteBatchWriter writer = new EntiteBatchWriter(entityManagerFactory, new JdbcTemplate(dataSource));
+        importService = new EntiteImportServiceImpl(new EntiteMapper(), writer, transactionManager, executor,
+                objectMapper, 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entiteRepository.deleteAll();
+        executor.shutdown();
+    }
+
+    @Test
+    void importsValidNdjsonRowsAndReportsTheRest() throws IOException {
+        String body = String.join("\n",
+                "{\"libelle\":\"Acme\",\"risk\":2,\"numMB\":\"MB-1\",\"entiteBusiness\":{\"secteur\":\"Industrie\"},"
+                        + "\"entiteContact\":{\"email\":\"a@acme.ma\"}}",
+                "{\"libelle\":\"Beta\",\"entiteLocation\":{}}",
+                "not json",
+                "",
+                "{\"libelle\":\"Gamma\",\"unknown\":1}",
+                "{\"libelle\":\"Delta\",\"id\":4}",
+                "{\"region\":\"Fes\"}",
+                "{\"libelle\":\"" + "x".repeat(256) + "\"}",
+                "{\"libelle\":\"Epsilon\",\"entiteBusiness\":{\"id\":9}}",
+                "{\"libelle\":\"Zeta\",\"tome\":7}");
+
+        List<EntiteImportEventDTO> events = run(ImportFormat.NDJSON, body);
+        EntiteImportEventDTO summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.getType());
+        assertEquals(9, summary.getRows());
+        assertEquals(3, summary.getImported());
+        assertEquals(6, summary.getFailed());
+        assertEquals(List.of(3L, 5L, 6L, 7L, 8L, 9L), events.stream()
+                .filter(event -> event.getType().equals("error")).map(EntiteImportEventDTO::getLine).toList());
+        assertEquals(3, events.stream().filter(event -> event.getType().equals("progress")).count());
+
+        List<Entite> saved = new ArrayList<>(entiteRepository.findAll());
+        saved.sort(Comparator.comparing(Entite::getLibelle));
+        assertEquals(List.of("Acme", "Beta", "Zeta"), saved.stream().map(Entite::getLibelle).toList());
+        Entite acme = saved.get(0);
+        assertEquals(2, acme.getRisk());
+        assertEquals("MB-1", acme.getNumMB());
+        assertNotNull(acme.getCreatedAt());
+        assertEquals("Industrie", acme.getEntiteBusiness().getSecteur());
+        assertEquals("a@acme.ma", acme.getEntiteContact().getEmail());
+        assertEquals(acme.getId(), acme.getEntiteContact().getEntite().getId());
+        assertNull(acme.getEntiteMedia());
+        assertNotNull(saved.get(1).getEntiteLocation());
+        assertEquals(7, saved.get(2).getTome());
+    }
+
+    @Test
+    void importsCsvWithSectionColumnsAndQuotedFields() throws IOException {
+        String body = "libelle,risk,business.secteur,contact.adresse\r\n"
+                + "\"Acme, SA\",3,Industrie,\"12 rue A\nCasablanca\"\r\n"
+                + "Beta,,,\r\n"
+                + "Gamma,high,,\r\n"
+                + "Delta,1\r\n";
+
+        List<EntiteImportEventDTO> events = run(ImportFormat.CSV, body);
+        EntiteImportEventDTO summary = events.get(events.size() - 1);
+        assertEquals(2, summary.getImported());
+        assertEquals(2, summary.getFailed());
+        assertEquals(List.of(5L, 6L), events.stream()
+                .filter(event -> event.getType().equals("error")).map(EntiteImportEventDTO::getLine).toList());
+
+        List<Entite> saved = new ArrayList<>(entiteRepository.findAll());
+        saved.sort(Comparator.comparing(Entite::getLibelle));
+        Entite acme = saved.get(0);
+        assertEquals("Acme, SA", acme.getLibelle());
+        assertEquals(3, acme.getRisk());
+        assertEquals("Industrie", acme.getEntiteBusiness().getSecteur());
+        assertEquals("12 rue A\nCasablanca", acme.getEntiteContact().getAdresse());
+        assertNull(saved.get(1).getRisk());
+        assertNull(saved.get(1).getEntiteBusiness());
+    }
+
+    @Test
+    void unexpectedValidationFailureIsReportedAsRowError() throws IOException {
+        EntiteMapper failingMapper = new EntiteMapper() {
+            @Override
+            public Entite toEntity(EntiteFullDTO dto) {
+                if (dto.getLibelle().equals("Boom")) {
+                    throw new IllegalStateException("mapping failed");
+                }
+                return super.toEntity(dto);
+            }
+        };
+        importService = new EntiteImportServiceImpl(failingMapper,
+                new EntiteBatchWriter(entityManagerFactory, new JdbcTemplate(dataSource)), transactionManager, executor,
+                objectMapper, 3, 2);
+
+        List<EntiteImportEventDTO> events = run(ImportFormat.NDJSON, String.join("\n",
+                "{\"libelle\":\"Acme\"}", "{\"libelle\":\"Boom\"}", "{\"libelle\":\"Beta\"}", "{\"libelle\":\"Gamma\"}"));
+
+        EntiteImportEventDTO summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.getType());
+        assertEquals(4, summary.getRows());
+        assertEquals(3, summary.getImported());
+        EntiteImportEventDTO error = events.stream().filter(event -> event.getType().equals("error")).findFirst().orElseThrow();
+        assertEquals(2L, error.getLine());
+        assertEquals("mapping failed", error.getMessage());
+        assertEquals(3, entiteRepository.count());
+    }
+
+    @Test
+    void rejectsUnknownCsvColumnsUpFront() {
+        assertThrows(IllegalArgumentException.class, () -> open(ImportFormat.CSV, "libelle,colour\nAcme,red\n"));
+        assertThrows(IllegalArgumentException.class, () -> open(ImportFormat.CSV, "libelle,shop.secteur\nAcme,x\n"));
+        assertThrows(IllegalArgumentException.class, () -> open(ImportFormat.CSV, ""));
+        assertTrue(entiteRepository.findAll().isEmpty());
+    }
+
+    private List<EntiteImportEventDTO> run(ImportFormat format, String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importAll(open(format, body), out);
+        List<EntiteImportEventDTO> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readValue(line, EntiteImportEventDTO.class));
+        }
+        return events;
+    }
+
+    private ImportRowReader open(ImportFormat format, String body) throws IOException {
+        return ImportRowReader.open(format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), objectMapper);
+    }
+}
@@ -0,0 +1,102 @@
+package com.entite_service.mapper;
+
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.entity.EntiteProducts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// bi-service decodes /api/entites from its copy of contract/entites.json (see its EntiteContractTest),
+// so the fixture must stay exactly what this service's mapper and ObjectMapper produce. When the DTO
+// changes on purpose, regenerate both copies from the failure message and re-run both services' tests.
+@JsonTest
+class EntiteContractTest {
+
+    static final String FIXTURE = "/contract/entites.json";
+
+    // bi-service's copy, present when both services are checked out side by side
+    static final Path BI_SERVICE_FIXTURE = Path.of("../bi-service/src/test/resources" + FIXTURE);
+
+    // The service's own ObjectMapper, as the controllers use it
+    @Autowired
+    private ObjectMapper json;
+
+    private final EntiteMapper mapper = new EntiteMapper();
+
+    @Test
+    void apiPayloadMatchesContractFixture() throws Exception {
+        String payload = json.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(List.of(mapper.toDto(full()), mapper.toDto(bare())));
+
+        assertEquals(fixture(), json.readTree(payload), () -> "entite payload drifted from " + FIXTURE + ":\n" + payload);
+    }
+
+    @Test
+    void fixtureMatchesBiServiceCopy() throws Exception {
+        assumeTrue(Files.isRegularFile(BI_SERVICE_FIXTURE), "bi-service is not checked out next to entite-service");
+        assertEquals(fixture(), json.readTree(Files.readString(BI_SERVICE_FIXTURE)),
+                () -> BI_SERVICE_FIXTURE + " differs from " + FIXTURE + "; copy the fixture across");
+    }
+
+    private JsonNode fixture() throws Exception {
+        try (InputStream body = getClass().getResourceAsStream(FIXTURE)) {
+            return json.readTree(body);
+        }
+    }
+
+    private static Entite full() {
+        Entite entite = new Entite();
+        entite.setId(41L);
+        entite.setLibelle("Atlas Industries");
+        entite.setType("PME");
+        entite.setRegion("Casablanca-Settat");
+        entite.setRisk(2);
+        entite.setTypeEntrepriseId(3L);
+        entite.setCreatedAt(LocalDateTime.of(2024, 3, 18, 14, 5, 9, 250_000_000));
+        EntiteBusiness business = new EntiteBusiness();
+        business.setId(410L);
+        business.setRisk(4);
+        business.setTome(2);
+        business.setDateCreation("1998-06-01");
+        business.setSecteur("Industrie");
+        business.setSousSecteur("Agroalimentaire");
+        business.setFormeJuridique("SARL");
+        business.setEffectif("120");
+        business.setCapital("500000");
+        business.setChiffreAffaire("12000000");
+        business.setEntite(entite);
+        entite.setEntiteBusiness(business);
+        EntiteContact contact = new EntiteContact();
+        contact.setId(411L);
+        contact.setEmail("contact@atlas.ma");
+        contact.setEntite(entite);
+        entite.setEntiteContact(contact);
+        EntiteProducts products = new EntiteProducts();
+        products.setId(412L);
+        products.setEntite(entite);
+        entite.setEntiteProducts(products);
+        return entite;
+    }
+
+    // A row as it stands right after a minimal create: no sections yet
+    private static Entite bare() {
+        Entite entite = new Entite();
+        entite.setId(42L);
+        entite.setLibelle("Sans sections");
+        entite.setCreatedAt(LocalDateTime.of(2023, 11, 2, 8, 0));
+        return entite;
+    }
+}
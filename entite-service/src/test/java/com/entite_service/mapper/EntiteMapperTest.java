@@ -0,0 +1,84 @@
+package com.entite_service.mapper;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.paging.EntiteSection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// EntiteMapper must produce what ModelMapper produced, compared through the JSON the API returns
+class EntiteMapperTest {
+
+    private final EntiteMapper mapper = new EntiteMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void mapsEntitiesLikeModelMapper() throws Exception {
+        Entite entite = entite();
+
+        assertEquals(json.writeValueAsString(modelMapper.map(entite, EntiteFullDTO.class)),
+                json.writeValueAsString(mapper.toDto(entite)));
+
+        EntiteFullDTO business = mapper.toDto(entite, EnumSet.of(EntiteSection.BUSINESS));
+        assertSame(entite.getEntiteBusiness(), business.getEntiteBusiness());
+        assertNull(business.getEntiteContact());
+        assertEquals("Acme", business.getLibelle());
+    }
+
+    @Test
+    void mapsDtosLikeModelMapperAndWiresSections() throws Exception {
+        EntiteFullDTO dto = mapper.toDto(entite());
+        dto.setEntiteContact(null);
+
+        Entite expected = modelMapper.map(dto, Entite.class);
+        // createdAt is assigned on persist and never taken from a DTO
+        expected.setCreatedAt(null);
+        Entite created = mapper.toEntity(dto);
+        assertEquals(json.writeValueAsString(expected), json.writeValueAsString(created));
+        assertNull(created.getCreatedAt());
+        assertSame(created, created.getEntiteBusiness().getEntite());
+
+        Entite existing = entite();
+        Entite reference = entite();
+        modelMapper.map(dto, reference);
+        mapper.copyInto(dto, existing);
+        assertEquals(json.writeValueAsString(reference), json.writeValueAsString(existing));
+        assertNull(existing.getEntiteContact());
+        assertSame(existing, existing.getEntiteBusiness().getEntite());
+    }
+
+    private static Entite entite() {
+        Entite entite = new Entite();
+        entite.setId(7L);
+        entite.setLibelle("Acme");
+        entite.setNumMB("MB-7");
+        entite.setSH("sh");
+        entite.setRisk(3);
+        entite.setRegion("Casablanca");
+        entite.setTypeEntrepriseId(2L);
+        entite.setCreatedAt(LocalDateTime.of(2024, 5, 1, 9, 30));
+        EntiteBusiness business = new EntiteBusiness();
+        business.setId(11L);
+        business.setSecteur("Industrie");
+        business.setEntite(entite);
+        entite.setEntiteBusiness(business);
+        EntiteContact contact = new EntiteContact();
+        contact.setId(12L);
+        contact.setEmail("contact@acme.ma");
+        contact.setEntite(entite);
+        entite.setEntiteContact(contact);
+        return entite;
+    }
+}
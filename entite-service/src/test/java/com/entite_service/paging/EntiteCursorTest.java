@@ -0,0 +1,38 @@
+package com.entite_service.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntiteCursorTest {
+
+    @Test
+    void roundTripsThroughTheToken() {
+        EntiteCursor byDate = new EntiteCursor(EntiteSort.CREATED_AT, true, LocalDateTime.of(2024, 3, 15, 10, 20, 30, 123_000_000), 42);
+        EntiteCursor byId = new EntiteCursor(EntiteSort.ID, false, null, 7);
+
+        assertEquals(byDate, EntiteCursor.decode(byDate.encode()));
+        assertEquals(byId, EntiteCursor.decode(byId.encode()));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> EntiteCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> EntiteCursor.decode(
+                new EntiteCursor(EntiteSort.ID, false, null, 7).encode().substring(2)));
+        assertThrows(IllegalArgumentException.class, () -> EntiteCursor.decode(
+                new EntiteCursor(EntiteSort.CREATED_AT, false, null, 7).encode()));
+    }
+
+    @Test
+    void parsesSectionLists() {
+        assertEquals(EnumSet.noneOf(EntiteSection.class), EntiteSection.parse(null));
+        assertEquals(EnumSet.of(EntiteSection.BUSINESS, EntiteSection.MEDIA), EntiteSection.parse("business, media,"));
+        assertEquals(EnumSet.allOf(EntiteSection.class), EntiteSection.parse("contact,all"));
+        assertThrows(IllegalArgumentException.class, () -> EntiteSection.parse("business,owner"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.entite_service.repository;
+
+import com.entite_service.dto.AggregateSummaryDTO;
+import com.entite_service.dto.GroupCountDTO;
+import com.entite_service.dto.RiskAverageDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.entity.EntiteProducts;
+import com.entite_service.service.HistogramInterval;
+import com.entite_service.service.impl.EntiteAggregateServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The aggregate endpoints must group in the database: one select per answer, never the entities
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class EntiteAggregateQueryTest {
+
+    @Autowired
+    private EntiteRepository entiteRepository;
+
+    @Autowired
+    private EntiteBusinessRepository businessRepository;
+
+    @Autowired
+    private EntiteContactRepository contactRepository;
+
+    @Autowired
+    private EntiteProductsRepository productsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private EntiteAggregateServiceImpl aggregateService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Entite first = entite("A", "R1", 1L, 2, LocalDateTime.of(2024, 1, 10, 9, 0));
+        business(first, "S1", "SARL", 4);
+        EntiteContact contact = new EntiteContact();
+        contact.setEntite(first);
+        first.setEntiteContact(contact);
+
+        Entite second = entite("A", "R2", 1L, 4, LocalDateTime.of(2024, 1, 12, 18, 30));
+        business(second, "S1", "SA", null);
+
+        Entite third = entite("B", "R1", null, null, LocalDateTime.of(2024, 4, 2, 8, 0));
+        business(third, "S2", "SARL", 1);
+        EntiteProducts products = new EntiteProducts();
+        products.setEntite(third);
+        third.setEntiteProducts(products);
+
+        Entite fourth = entite("B", null, 2L, 3, LocalDateTime.of(2024, 4, 2, 15, 0));
+
+        List<Entite> entites = List.of(first, second, third, fourth);
+        List<LocalDateTime> createdAt = entites.stream().map(Entite::getCreatedAt).toList();
+        entiteRepository.saveAll(entites);
+        entityManager.flush();
+        // createdAt is assigned on persist, so the fixed timestamps are written afterwards
+        for (int i = 0; i < entites.size(); i++) {
+            entityManager.createQuery("update Entite e set e.createdAt = :at where e.id = :id")
+                    .setParameter("at", createdAt.get(i))
+                    .setParameter("id", entites.get(i).getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+
+        aggregateService = new EntiteAggregateServiceImpl(entiteRepository, businessRepository,
+                contactRepository, productsRepository);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void countsGroupByEntityAndBusinessColumns() {
+        assertEquals(Map.of("A", 2L, "B", 2L), counts(selects(1, () -> aggregateService.countBy("type", null))));
+        assertEquals(counts("R1", 2L, "R2", 1L, null, 1L), counts(selects(1, () -> aggregateService.countBy("region", null))));
+        assertEquals(counts("1", 2L, "2", 1L, null, 1L),
+                counts(selects(1, () -> aggregateService.countBy("typeEntrepriseId", null))));
+        assertEquals(Map.of("S1", 2L, "S2", 1L), counts(selects(1, () -> aggregateService.countBy("secteur", null))));
+        assertEquals(Map.of("SARL", 2L, "SA", 1L), counts(selects(1, () -> aggregateService.countBy("formeJuridique", null))));
+
+        LocalDateTime since = LocalDateTime.of(2024, 3, 1, 0, 0);
+        assertEquals(Map.of("B", 2L), counts(selects(1, () -> aggregateService.countBy("type", since))));
+        assertEquals(Map.of("S2", 1L), counts(selects(1, () -> aggregateService.countBy("secteur", since))));
+    }
+
+    @Test
+    void histogramFoldsCreatedDaysIntoIntervals() {
+        assertEquals(List.of(new GroupCountDTO("2024-01-10", 1L), new GroupCountDTO("2024-01-12", 1L),
+                        new GroupCountDTO("2024-04-02", 2L)),
+                selects(1, () -> aggregateService.createdAtHistogram(HistogramInterval.DAILY, null, null)));
+        assertEquals(List.of(new GroupCountDTO("2024-01-08", 2L), new GroupCountDTO("2024-04-01", 2L)),
+                aggregateService.createdAtHistogram(HistogramInterval.from("Weekly"), null, null));
+        assertEquals(List.of(new GroupCountDTO("2024-01", 2L), new GroupCountDTO("2024-04", 2L)),
+                aggregateService.createdAtHistogram(HistogramInterval.MONTHLY, null, null));
+        assertEquals(List.of(new GroupCountDTO("2024-Q1", 2L), new GroupCountDTO("2024-Q2", 2L)),
+                aggregateService.createdAtHistogram(HistogramInterval.QUARTERLY, null, null));
+
+        assertEquals(List.of(new GroupCountDTO("2024-01-12", 1L)),
+                aggregateService.createdAtHistogram(HistogramInterval.DAILY,
+                        LocalDateTime.of(2024, 1, 11, 0, 0), LocalDateTime.of(2024, 3, 31, 23, 59)));
+    }
+
+    @Test
+    void riskAveragesSkipRowsWithoutRisk() {
+        Map<String, RiskAverageDTO> byType = risks(selects(1, () -> aggregateService.riskBy("type")));
+        assertEquals(new RiskAverageDTO("A", 2L, 2L, 3.0), byType.get("A"));
+        assertEquals(new RiskAverageDTO("B", 2L, 1L, 3.0), byType.get("B"));
+
+        Map<String, RiskAverageDTO> bySecteur = risks(selects(1, () -> aggregateService.riskBy("secteur")));
+        assertEquals(new RiskAverageDTO("S1", 2L, 1L, 4.0), bySecteur.get("S1"));
+        assertEquals(new RiskAverageDTO("S2", 1L, 1L, 1.0), bySecteur.get("S2"));
+    }
+
+    @Test
+    void summaryCountsSectionsAndRiskTotals() {
+        assertEquals(new AggregateSummaryDTO(4L, 3L, 1L, 1L, 9L, 3L), aggregateService.summary());
+    }
+
+    private static Entite entite(String type, String region, Long typeEntrepriseId, Integer risk, LocalDateTime createdAt) {
+        Entite entite = new Entite();
+        entite.setType(type);
+        entite.setRegion(region);
+        entite.setTypeEntrepriseId(typeEntrepriseId);
+        entite.setRisk(risk);
+        entite.setCreatedAt(createdAt);
+        return entite;
+    }
+
+    private static void business(Entite entite, String secteur, String formeJuridique, Integer risk) {
+        EntiteBusiness business = new EntiteBusiness();
+        business.setSecteur(secteur);
+        business.setFormeJuridique(formeJuridique);
+        business.setRisk(risk);
+        business.setEntite(entite);
+        entite.setEntiteBusiness(business);
+    }
+
+    private static Map<String, Long> counts(List<GroupCountDTO> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put(row.getKey(), row.getCount()));
+        return counts;
+    }
+
+    // Map.of rejects the null group
+    private static Map<String, Long> counts(String k1, Long v1, String k2, Long v2, String k3, Long v3) {
+        Map<String, Long> counts = new HashMap<>();
+        counts.put(k1, v1);
+        counts.put(k2, v2);
+        counts.put(k3, v3);
+        return counts;
+    }
+
+    private static Map<String, RiskAverageDTO> risks(List<RiskAverageDTO> rows) {
+        Map<String, RiskAverageDTO> risks = new HashMap<>();
+        rows.forEach(row -> risks.put(row.getKey(), row));
+        return risks;
+    }
+
+    private <T> T selects(long expected, Supplier<T> load) {
+        statistics.clear();
+        T result = load.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
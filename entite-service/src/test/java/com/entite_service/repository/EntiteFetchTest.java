@@ -0,0 +1,135 @@
+package com.entite_service.repository;
+
+import com.entite_service.dto.EntiteFullDTO;
+import com.entite_service.dto.EntitePageDTO;
+import com.entite_service.entity.Entite;
+import com.entite_service.entity.EntiteBusiness;
+import com.entite_service.entity.EntiteContact;
+import com.entite_service.entity.EntiteLocation;
+import com.entite_service.mapper.EntiteMapper;
+import com.entite_service.paging.EntiteCursor;
+import com.entite_service.paging.EntiteFetchProfile;
+import com.entite_service.paging.EntitePageRequest;
+import com.entite_service.paging.EntiteSection;
+import com.entite_service.paging.EntiteSort;
+import com.entite_service.service.impl.EntiteServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every listing must cost one select however many rows it returns
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class EntiteFetchTest {
+
+    private static final int ENTITES = 30;
+
+    @Autowired
+    private EntiteRepository entiteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private EntiteServiceImpl entiteService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ENTITES; i++) {
+            Entite entite = new Entite();
+            entite.setType(i % 2 == 0 ? "A" : "B");
+            EntiteBusiness business = new EntiteBusiness();
+            business.setSecteur("S" + i);
+            business.setEntite(entite);
+            entite.setEntiteBusiness(business);
+            EntiteContact contact = new EntiteContact();
+            contact.setEmail("e" + i + "@example.com");
+            contact.setEntite(entite);
+            entite.setEntiteContact(contact);
+            EntiteLocation location = new EntiteLocation();
+            location.setEntite(entite);
+            entite.setEntiteLocation(location);
+            entiteRepository.save(entite);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entiteService = new EntiteServiceImpl(entiteRepository, new EntiteMapper());
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loadsEachProfileInOneSelect() {
+        for (EntiteFetchProfile profile : EntiteFetchProfile.values()) {
+            List<EntiteFullDTO> items = selects(1, () -> entiteService.findAll(profile));
+            assertEquals(ENTITES, items.size());
+            EntiteFullDTO first = items.get(0);
+            assertEquals(profile.sections().contains(EntiteSection.BUSINESS), first.getEntiteBusiness() != null);
+            assertEquals(profile.sections().contains(EntiteSection.CONTACT), first.getEntiteContact() != null);
+            entityManager.clear();
+        }
+    }
+
+    @Test
+    void loadsFullEntitiesInOneSelect() {
+        List<Entite> entites = selects(1, () -> entiteRepository.findAll());
+        entites.forEach(entite -> assertNotNull(entite.getEntiteBusiness().getSecteur()));
+        assertNull(entites.get(0).getEntiteMedia());
+
+        entityManager.clear();
+        Entite entite = selects(1, () -> entiteRepository.findById(entites.get(3).getId()).orElseThrow());
+        assertNotNull(entite.getEntiteContact().getEmail());
+    }
+
+    @Test
+    void pagesInOneSelectPerPage() {
+        for (EnumSet<EntiteSection> sections : List.of(EnumSet.noneOf(EntiteSection.class),
+                EnumSet.of(EntiteSection.BUSINESS), EnumSet.allOf(EntiteSection.class))) {
+            EntiteCursor after = null;
+            int rows = 0;
+            do {
+                EntitePageRequest request = new EntitePageRequest(EntiteSort.ID, false, after, 7, sections,
+                        null, null, null, null, null);
+                EntitePageDTO page = selects(1, () -> entiteService.findPage(request));
+                rows += page.getItems().size();
+                after = page.isHasMore() ? EntiteCursor.decode(page.getNextCursor()) : null;
+                entityManager.clear();
+            } while (after != null);
+            assertEquals(ENTITES, rows);
+        }
+    }
+
+    @Test
+    void unrequestedSectionsStayUnloaded() {
+        List<Entite> entites = selects(1, () -> entiteRepository.findAll(EntiteFetchProfile.BI));
+        Entite entite = entites.get(0);
+        assertTrue(Hibernate.isPropertyInitialized(entite, "entiteBusiness"));
+        assertFalse(Hibernate.isPropertyInitialized(entite, "entiteContact"));
+        assertNotNull(selects(1, entite::getEntiteContact).getEmail());
+    }
+
+    private <T> T selects(long expected, Supplier<T> load) {
+        statistics.clear();
+        T result = load.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}